@@ -0,0 +1,140 @@
+/**
+ * Copyright (c) 2026 YCSB contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package com.yahoo.ycsb;
+
+import java.util.HashMap;
+import java.util.Properties;
+import java.util.Set;
+import java.util.Vector;
+
+/**
+ * An asynchronous layer for accessing a database to be benchmarked. It has the same operations and
+ * semantics as {@link DB}, but each operation only issues the request and returns a {@link DBFuture} that
+ * the binding completes with the return code once the database has answered. This lets a single client
+ * thread keep several operations in flight (see the "inflightops" property of {@link Client}).
+ *
+ * Each client thread is given its own instance, so an implementation only needs to be safe against its own
+ * completion callbacks. The result and value structures passed to an operation must not be touched by the
+ * caller until its future completes. Like DB, this class should be constructed using a no-argument
+ * constructor, and any argument-based initialization should be done by init().
+ *
+ * Existing DB bindings can be used through {@link SyncToAsyncDB}.
+ */
+public abstract class AsyncDB
+{
+	/**
+	 * Properties for configuring this DB.
+	 */
+	Properties _p=new Properties();
+
+	/**
+	 * Set the properties for this DB.
+	 */
+	public void setProperties(Properties p)
+	{
+		_p=p;
+	}
+
+	/**
+	 * Get the set of properties for this DB.
+	 */
+	public Properties getProperties()
+	{
+		return _p;
+	}
+
+	/**
+	 * Initialize any state for this DB.
+	 * Called once per DB instance; there is one DB instance per client thread.
+	 */
+	public void init() throws DBException
+	{
+	}
+
+	/**
+	 * Cleanup any state for this DB. Called once per DB instance, after all the operations it issued
+	 * have completed.
+	 */
+	public void cleanup() throws DBException
+	{
+	}
+
+	/**
+	 * Return a view of this DB whose operations count as scheduled to start at the given System.nanoTime().
+	 * Workloads use it for operations they issue later on behalf of one that was scheduled then, e.g. from the
+	 * listener of an earlier operation, when the client runs open-loop. The default returns this DB.
+	 */
+	public AsyncDB scheduledAt(long intendedstarttime)
+	{
+		return this;
+	}
+
+	/**
+	 * Read a record from the database. Each field/value pair from the result will be stored in a HashMap.
+	 *
+	 * @param table The name of the table
+	 * @param key The record key of the record to read.
+	 * @param fields The list of fields to read, or null for all of them
+	 * @param result A HashMap of field/value pairs for the result
+	 * @return A future completed with zero on success, a non-zero error code on error or "not found".
+	 */
+	public abstract DBFuture read(String table, String key, Set<String> fields, HashMap<String,ByteIterator> result);
+
+	/**
+	 * Perform a range scan for a set of records in the database. Each field/value pair from the result will be stored in a HashMap.
+	 *
+	 * @param table The name of the table
+	 * @param startkey The record key of the first record to read.
+	 * @param recordcount The number of records to read
+	 * @param fields The list of fields to read, or null for all of them
+	 * @param result A Vector of HashMaps, where each HashMap is a set field/value pairs for one record
+	 * @return A future completed with zero on success, a non-zero error code on error.
+	 */
+	public abstract DBFuture scan(String table, String startkey, int recordcount, Set<String> fields, Vector<HashMap<String,ByteIterator>> result);
+
+	/**
+	 * Update a record in the database. Any field/value pairs in the specified values HashMap will be written into the record with the specified
+	 * record key, overwriting any existing values with the same field name.
+	 *
+	 * @param table The name of the table
+	 * @param key The record key of the record to write.
+	 * @param values A HashMap of field/value pairs to update in the record
+	 * @return A future completed with zero on success, a non-zero error code on error.
+	 */
+	public abstract DBFuture update(String table, String key, HashMap<String,ByteIterator> values);
+
+	/**
+	 * Insert a record in the database. Any field/value pairs in the specified values HashMap will be written into the record with the specified
+	 * record key.
+	 *
+	 * @param table The name of the table
+	 * @param key The record key of the record to insert.
+	 * @param values A HashMap of field/value pairs to insert in the record
+	 * @return A future completed with zero on success, a non-zero error code on error.
+	 */
+	public abstract DBFuture insert(String table, String key, HashMap<String,ByteIterator> values);
+
+	/**
+	 * Delete a record from the database.
+	 *
+	 * @param table The name of the table
+	 * @param key The record key of the record to delete.
+	 * @return A future completed with zero on success, a non-zero error code on error.
+	 */
+	public abstract DBFuture delete(String table, String key);
+}
@@ -0,0 +1,189 @@
+/**
+ * Copyright (c) 2026 YCSB contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package com.yahoo.ycsb;
+
+import java.util.HashMap;
+import java.util.Properties;
+import java.util.Set;
+import java.util.Vector;
+
+import com.yahoo.ycsb.measurements.Measurements;
+
+/**
+ * Wrapper around a "real" AsyncDB that measures latencies and counts return codes, like {@link DBWrapper}
+ * does for synchronous bindings. Latencies run from the moment an operation is issued until its future
+ * completes, and are recorded by the thread that completes it.
+ */
+public class AsyncDBWrapper extends AsyncDB
+{
+	AsyncDB _db;
+	Measurements _measurements;
+
+	boolean _openloop;
+	long _intendedstarttime;
+
+	/**
+	 * Records the latency and return code of one operation once it completes.
+	 */
+	class Measure implements DBFuture.Listener
+	{
+		final String _operation;
+		final String _intendedoperation;
+		final long _st;
+		final boolean _openloop;
+		final long _intendedstarttime;
+
+		Measure(String operation, String intendedoperation, long st)
+		{
+			_operation=operation;
+			_intendedoperation=intendedoperation;
+			_st=st;
+			_openloop=AsyncDBWrapper.this._openloop;
+			_intendedstarttime=AsyncDBWrapper.this._intendedstarttime;
+		}
+
+		public void completed(int result)
+		{
+			long en=System.nanoTime();
+			_measurements.endOperation();
+			_measurements.measure(_operation,(int)((en-_st)/1000));
+			if (_openloop)
+			{
+				_measurements.measure(_intendedoperation,(int)((en-_intendedstarttime)/1000));
+			}
+			_measurements.reportReturnCode(_operation,result);
+		}
+	}
+
+	public AsyncDBWrapper(AsyncDB db)
+	{
+		this(db,Measurements.getMeasurements());
+	}
+
+	AsyncDBWrapper(AsyncDB db, Measurements measurements)
+	{
+		_db=db;
+		_measurements=measurements;
+	}
+
+	/**
+	 * Set the System.nanoTime() at which the next operations were scheduled to start. See
+	 * {@link DBWrapper#setIntendedStartTime(long)}.
+	 */
+	public void setIntendedStartTime(long intendedstarttime)
+	{
+		_openloop=true;
+		_intendedstarttime=intendedstarttime;
+	}
+
+	/**
+	 * Return a wrapper around the same DB that measures its operations from the given intended start, which
+	 * unlike this one can be used from any thread while later operations are issued here.
+	 */
+	public AsyncDB scheduledAt(long intendedstarttime)
+	{
+		AsyncDBWrapper w=new AsyncDBWrapper(_db,_measurements);
+		w.setIntendedStartTime(intendedstarttime);
+		return w;
+	}
+
+	/**
+	 * Set the properties for this DB.
+	 */
+	public void setProperties(Properties p)
+	{
+		_db.setProperties(p);
+	}
+
+	/**
+	 * Get the set of properties for this DB.
+	 */
+	public Properties getProperties()
+	{
+		return _db.getProperties();
+	}
+
+	/**
+	 * Initialize any state for this DB.
+	 * Called once per DB instance; there is one DB instance per client thread.
+	 */
+	public void init() throws DBException
+	{
+		long st=System.nanoTime();
+		_db.init();
+		long en=System.nanoTime();
+		_measurements.measure("INIT", (int)((en-st)/1000));
+	}
+
+	/**
+	 * Cleanup any state for this DB.
+	 * Called once per DB instance; there is one DB instance per client thread.
+	 */
+	public void cleanup() throws DBException
+	{
+		long st=System.nanoTime();
+		_db.cleanup();
+		long en=System.nanoTime();
+		_measurements.measure("CLEANUP", (int)((en-st)/1000));
+	}
+
+	public DBFuture read(String table, String key, Set<String> fields, HashMap<String,ByteIterator> result)
+	{
+		_measurements.beginOperation();
+		long st=System.nanoTime();
+		DBFuture f=_db.read(table,key,fields,result);
+		f.addListener(new Measure("READ","Intended-READ",st));
+		return f;
+	}
+
+	public DBFuture scan(String table, String startkey, int recordcount, Set<String> fields, Vector<HashMap<String,ByteIterator>> result)
+	{
+		_measurements.beginOperation();
+		long st=System.nanoTime();
+		DBFuture f=_db.scan(table,startkey,recordcount,fields,result);
+		f.addListener(new Measure("SCAN","Intended-SCAN",st));
+		return f;
+	}
+
+	public DBFuture update(String table, String key, HashMap<String,ByteIterator> values)
+	{
+		_measurements.beginOperation();
+		long st=System.nanoTime();
+		DBFuture f=_db.update(table,key,values);
+		f.addListener(new Measure("UPDATE","Intended-UPDATE",st));
+		return f;
+	}
+
+	public DBFuture insert(String table, String key, HashMap<String,ByteIterator> values)
+	{
+		_measurements.beginOperation();
+		long st=System.nanoTime();
+		DBFuture f=_db.insert(table,key,values);
+		f.addListener(new Measure("INSERT","Intended-INSERT",st));
+		return f;
+	}
+
+	public DBFuture delete(String table, String key)
+	{
+		_measurements.beginOperation();
+		long st=System.nanoTime();
+		DBFuture f=_db.delete(table,key);
+		f.addListener(new Measure("DELETE","Intended-DELETE",st));
+		return f;
+	}
+}
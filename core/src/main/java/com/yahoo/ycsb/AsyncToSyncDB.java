@@ -0,0 +1,102 @@
+/**
+ * Copyright (c) 2026 YCSB contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package com.yahoo.ycsb;
+
+import java.util.HashMap;
+import java.util.Properties;
+import java.util.Set;
+import java.util.Vector;
+
+/**
+ * Presents an {@link AsyncDB} as a synchronous {@link DB}, by waiting for each operation to complete. Lets
+ * workloads that only implement the synchronous operations run against an AsyncDB, with one operation in
+ * flight at a time. The lifecycle of the AsyncDB stays with its owner, so init() and cleanup() do nothing.
+ */
+class AsyncToSyncDB extends DB
+{
+	final AsyncDB _db;
+
+	AsyncToSyncDB(AsyncDB db)
+	{
+		_db=db;
+	}
+
+	public void setProperties(Properties p)
+	{
+		_db.setProperties(p);
+	}
+
+	public Properties getProperties()
+	{
+		return _db.getProperties();
+	}
+
+	/**
+	 * Wait for an operation to complete, and return its return code.
+	 */
+	static int await(DBFuture f)
+	{
+		boolean interrupted=false;
+		try
+		{
+			while (true)
+			{
+				try
+				{
+					return f.get();
+				}
+				catch (InterruptedException e)
+				{
+					interrupted=true;
+				}
+			}
+		}
+		finally
+		{
+			if (interrupted)
+			{
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	public int read(String table, String key, Set<String> fields, HashMap<String,ByteIterator> result)
+	{
+		return await(_db.read(table,key,fields,result));
+	}
+
+	public int scan(String table, String startkey, int recordcount, Set<String> fields, Vector<HashMap<String,ByteIterator>> result)
+	{
+		return await(_db.scan(table,startkey,recordcount,fields,result));
+	}
+
+	public int update(String table, String key, HashMap<String,ByteIterator> values)
+	{
+		return await(_db.update(table,key,values));
+	}
+
+	public int insert(String table, String key, HashMap<String,ByteIterator> values)
+	{
+		return await(_db.insert(table,key,values));
+	}
+
+	public int delete(String table, String key)
+	{
+		return await(_db.delete(table,key));
+	}
+}
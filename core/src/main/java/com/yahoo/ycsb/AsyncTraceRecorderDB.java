@@ -0,0 +1,120 @@
+/**
+ * Copyright (c) 2026 YCSB contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+package com.yahoo.ycsb;
+
+import java.util.HashMap;
+import java.util.Properties;
+import java.util.Set;
+import java.util.Vector;
+
+import com.yahoo.ycsb.trace.Trace;
+import com.yahoo.ycsb.trace.TraceRecorder;
+
+/**
+ * Records the operations of a binding's own {@link AsyncDB} to a trace, like {@link TraceRecorderDB} does for
+ * synchronous bindings. Each operation is recorded when it is issued, as one recorded thread per instance, i.e.
+ * per client thread.
+ *
+ * Workloads may issue operations from the listeners of earlier ones, so unlike TraceRecorderDB an instance may be
+ * used from several threads at once; records are encoded under the instance's lock, which also keeps the thread's
+ * records in timestamp order.
+ */
+public class AsyncTraceRecorderDB extends AsyncDB
+{
+	AsyncDB _db;
+	TraceRecorderDB _trace;
+
+	public AsyncTraceRecorderDB(AsyncDB db, TraceRecorder recorder)
+	{
+		_db=db;
+		_trace=new TraceRecorderDB(recorder);
+	}
+
+	public void setProperties(Properties p)
+	{
+		_db.setProperties(p);
+	}
+
+	public Properties getProperties()
+	{
+		return _db.getProperties();
+	}
+
+	public void init() throws DBException
+	{
+		_db.init();
+	}
+
+	/**
+	 * Clean up the DB, whose operations have all completed by now, and hand the last, partly filled block to the
+	 * writer.
+	 */
+	public void cleanup() throws DBException
+	{
+		try
+		{
+			_db.cleanup();
+		}
+		finally
+		{
+			synchronized (this)
+			{
+				_trace.flush();
+			}
+		}
+	}
+
+	synchronized void record(byte op, String key, Set<String> fields, int valuesize)
+	{
+		_trace.record(_trace._recorder.timestamp(),op,key,_trace.fieldMask(fields),valuesize);
+	}
+
+	synchronized void recordWrite(byte op, String key, HashMap<String,ByteIterator> values)
+	{
+		_trace.recordWrite(_trace._recorder.timestamp(),op,key,values);
+	}
+
+	public DBFuture read(String table, String key, Set<String> fields, HashMap<String,ByteIterator> result)
+	{
+		record(Trace.READ,key,fields,0);
+		return _db.read(table,key,fields,result);
+	}
+
+	public DBFuture scan(String table, String startkey, int recordcount, Set<String> fields, Vector<HashMap<String,ByteIterator>> result)
+	{
+		record(Trace.SCAN,startkey,fields,recordcount);
+		return _db.scan(table,startkey,recordcount,fields,result);
+	}
+
+	public DBFuture update(String table, String key, HashMap<String,ByteIterator> values)
+	{
+		recordWrite(Trace.UPDATE,key,values);
+		return _db.update(table,key,values);
+	}
+
+	public DBFuture insert(String table, String key, HashMap<String,ByteIterator> values)
+	{
+		recordWrite(Trace.INSERT,key,values);
+		return _db.insert(table,key,values);
+	}
+
+	public DBFuture delete(String table, String key)
+	{
+		record(Trace.DELETE,key,null,0);
+		return _db.delete(table,key);
+	}
+}
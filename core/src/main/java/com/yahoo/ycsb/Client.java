@@ -21,6 +21,9 @@ package com.yahoo.ycsb;
 import java.io.*;
 import java.text.DecimalFormat;
 import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
 
 import com.yahoo.ycsb.measurements.Measurements;
 import com.yahoo.ycsb.measurements.exporter.MeasurementsExporter;
@@ -37,6 +40,7 @@ import com.yahoo.ycsb.measurements.exporter.TextMeasurementsExporter;
 class StatusThread extends Thread
 {
 	Vector<Thread> _threads;
+	Vector<ClientThread> _clients;
 	String _label;
 	boolean _standardstatus;
 	
@@ -45,9 +49,10 @@ class StatusThread extends Thread
 	 */
 	public static final long sleeptime=10000;
 
-	public StatusThread(Vector<Thread> threads, String label, boolean standardstatus)
+	public StatusThread(Vector<Thread> threads, Vector<ClientThread> clients, String label, boolean standardstatus)
 	{
 		_threads=threads;
+		_clients=clients;
 		_label=label;
 		_standardstatus=standardstatus;
 	}
@@ -68,7 +73,7 @@ class StatusThread extends Thread
 		{
 			alldone=true;
 
-			int totalops=0;
+			long totalops=0;
 
 			//terminate this thread when all the worker threads are done
 			for (Thread t : _threads)
@@ -77,8 +82,10 @@ class StatusThread extends Thread
 				{
 					alldone=false;
 				}
+			}
 
-				ClientThread ct=(ClientThread)t;
+			for (ClientThread ct : _clients)
+			{
 				totalops+=ct.getOpsDone();
 			}
 
@@ -87,12 +94,21 @@ class StatusThread extends Thread
 			long interval=en-st;
 			//double throughput=1000.0*((double)totalops)/((double)interval);
 
+			//the counts start over once the warm-up is done
+			if (totalops<lasttotalops)
+			{
+				lasttotalops=0;
+			}
+
 			double curthroughput=1000.0*(((double)(totalops-lasttotalops))/((double)(en-lasten)));
 			
 			lasttotalops=totalops;
 			lasten=en;
 			
 			DecimalFormat d = new DecimalFormat("#.##");
+
+			double target=Measurements.getMeasurements().getTarget();
+			String targetstatus=(target>0) ? "target "+d.format(target)+" ops/sec; " : "";
 			
 			if (totalops==0)
 			{
@@ -100,7 +116,7 @@ class StatusThread extends Thread
 			}
 			else
 			{
-				System.err.println(_label+" "+(interval/1000)+" sec: "+totalops+" operations; "+d.format(curthroughput)+" current ops/sec; "+Measurements.getMeasurements().getSummary());
+				System.err.println(_label+" "+(interval/1000)+" sec: "+totalops+" operations; "+d.format(curthroughput)+" current ops/sec; "+targetstatus+Measurements.getMeasurements().getSummary());
 			}
 
 			if (_standardstatus)
@@ -111,7 +127,7 @@ class StatusThread extends Thread
 			}
 			else
 			{
-				System.out.println(_label+" "+(interval/1000)+" sec: "+totalops+" operations; "+d.format(curthroughput)+" current ops/sec; "+Measurements.getMeasurements().getSummary());
+				System.out.println(_label+" "+(interval/1000)+" sec: "+totalops+" operations; "+d.format(curthroughput)+" current ops/sec; "+targetstatus+Measurements.getMeasurements().getSummary());
 			}
 			}
 
@@ -130,25 +146,33 @@ class StatusThread extends Thread
 }
 
 /**
- * A thread for executing transactions or data inserts to the database.
+ * A thread for executing transactions or data inserts to the database. This is a Runnable rather than
+ * a Thread subclass so that it can run on either a platform or a virtual thread (see
+ * {@link Client#THREAD_MODE_PROPERTY}).
  * 
  * @author cooperb
  *
  */
-class ClientThread extends Thread
+class ClientThread implements Runnable
 {
 	DB _db;
 	boolean _dotransactions;
 	Workload _workload;
-	int _opcount;
-	double _target;
+	long _opcount;
+	RateLimiter _limiter;
 
-	int _opsdone;
+	long _opsdone;
 	int _threadid;
 	int _threadcount;
 	Object _workloadstate;
 	Properties _props;
+	boolean _openloop;
+	Warmup _warmup;
+	CountDownLatch _initialized;
+	CountDownLatch _start;
 
+	//set when the thread gave up on an error, so that the client exits with a failure status
+	volatile boolean _failed;
 
 	/**
 	 * Constructor.
@@ -160,9 +184,9 @@ class ClientThread extends Thread
 	 * @param threadcount the total number of threads 
 	 * @param props the properties defining the experiment
 	 * @param opcount the number of operations (transactions or inserts) to do
-	 * @param targetperthreadperms target number of operations per thread per ms
+	 * @param limiter the rate limiter shared by all threads holding them to the target throughput, or null for no target
 	 */
-	public ClientThread(DB db, boolean dotransactions, Workload workload, int threadid, int threadcount, Properties props, int opcount, double targetperthreadperms)
+	public ClientThread(DB db, boolean dotransactions, Workload workload, int threadid, int threadcount, Properties props, long opcount, RateLimiter limiter)
 	{
 		//TODO: consider removing threadcount and threadid
 		_db=db;
@@ -170,20 +194,136 @@ class ClientThread extends Thread
 		_workload=workload;
 		_opcount=opcount;
 		_opsdone=0;
-		_target=targetperthreadperms;
+		_limiter=limiter;
 		_threadid=threadid;
 		_threadcount=threadcount;
 		_props=props;
-		//System.out.println("Interval = "+interval);
+		_openloop=(_limiter!=null) && Boolean.parseBoolean(props.getProperty(Client.OPEN_LOOP_PROPERTY,Client.OPEN_LOOP_PROPERTY_DEFAULT));
 	}
 
-	public int getOpsDone()
+	public long getOpsDone()
 	{
 		return _opsdone;
 	}
 
+	/**
+	 * Whether the thread gave up on an error, rather than completing its operations.
+	 */
+	public boolean isFailed()
+	{
+		return _failed;
+	}
+
+	/**
+	 * Run a warm-up phase before the measured operations. The operation count is reset once it is over.
+	 */
+	void setWarmup(Warmup warmup)
+	{
+		_warmup=warmup;
+	}
+
+	/**
+	 * Hold the thread, once it has initialized its DB and workload state, until the measured run starts.
+	 *
+	 * @param initialized counted down by each thread once it has initialized (or failed to)
+	 * @param start released when the measured run starts
+	 */
+	void setStartBarrier(CountDownLatch initialized, CountDownLatch start)
+	{
+		_initialized=initialized;
+		_start=start;
+	}
+
+	/**
+	 * Report this thread as initialized, and wait for the measured run to start.
+	 */
+	void awaitStart()
+	{
+		if (_initialized==null)
+		{
+			return;
+		}
+
+		_initialized.countDown();
+		while (true)
+		{
+			try
+			{
+				_start.await();
+				return;
+			}
+			catch (InterruptedException e)
+			{
+				//keep waiting, the other threads would
+			}
+		}
+	}
+
+	/**
+	 * Give up on the run when the thread fails to initialize, so that neither the start barrier nor the
+	 * warm-up phase wait for it.
+	 */
+	void abortStart()
+	{
+		_failed=true;
+		if (_initialized!=null)
+		{
+			_initialized.countDown();
+		}
+		if (_warmup!=null)
+		{
+			_warmup.leave();
+		}
+	}
+
+	/**
+	 * In open-loop mode, every operation has a start time fixed by the target rate, regardless of how long
+	 * the previous operations took. Wait until the next operation is due (if it isn't overdue already), hand
+	 * its start time to the DB wrapper, and return it.
+	 */
+	long waitForIntendedStart()
+	{
+		long intendedstarttime=_limiter.acquire(_threadid,1);
+
+		if (_db instanceof DBWrapper)
+		{
+			((DBWrapper)_db).setIntendedStartTime(intendedstarttime);
+		}
+		return intendedstarttime;
+	}
+
+	/**
+	 * Outside open-loop mode, claim the due times of the operations just done, waiting if they are ahead of the
+	 * target throughput. Claiming after the operations rather than before lets batched inserts account for all
+	 * their records at once.
+	 *
+	 * @param ops the number of operations just done
+	 */
+	void throttle(int ops)
+	{
+		if ( (_limiter!=null) && (!_openloop) )
+		{
+			_limiter.acquire(_threadid,ops);
+		}
+	}
+
 	public void run()
 	{
+		try
+		{
+			runThread();
+		}
+		finally
+		{
+			//this thread measures no more, so its shards can be folded together with the other finished threads
+			Measurements.retire();
+		}
+	}
+
+	void runThread()
+	{
+		Utils.seedThread(_threadid);
+
 		try
 		{
 			_db.init();
@@ -192,6 +332,7 @@ class ClientThread extends Thread
 		{
 			e.printStackTrace();
 			e.printStackTrace(System.out);
+			abortStart();
 			return;
 		}
 
@@ -203,116 +344,321 @@ class ClientThread extends Thread
 		{
 			e.printStackTrace();
 			e.printStackTrace(System.out);
+			abortStart();
 			return;
 		}
 
-		//spread the thread operations out so they don't all hit the DB at the same time
+		awaitStart();
+
 		try
 		{
-		   //GH issue 4 - throws exception if _target>1 because random.nextInt argument must be >0
-		   //and the sleep() doesn't make sense for granularities < 1 ms anyway
-		   if ( (_target>0) && (_target<=1.0) ) 
-		   {
-		      sleep(Utils.random().nextInt((int)(1.0/_target)));
-		   }
+			boolean more=true;
+			if (_warmup!=null)
+			{
+				//a thread that fails while warming up must leave, or the others would wait for it forever
+				boolean warm=false;
+				try
+				{
+					more=doOps(_warmup.getOps(_threadid),true);
+					warm=true;
+				}
+				finally
+				{
+					if (!warm)
+					{
+						_warmup.leave();
+					}
+				}
+				_opsdone=0;
+				_warmup.arrive();
+			}
+
+			if (more)
+			{
+				doOps((_opcount==0) ? -1 : _opcount,false);
+			}
 		}
-		catch (InterruptedException e)
+		catch (Exception e)
 		{
-		  // do nothing.
+			e.printStackTrace();
+			e.printStackTrace(System.out);
+			_failed=true;
 		}
-		
+
 		try
 		{
-			if (_dotransactions)
+			_db.cleanup();
+		}
+		catch (DBException e)
+		{
+			e.printStackTrace();
+			e.printStackTrace(System.out);
+			_failed=true;
+		}
+	}
+
+	/**
+	 * Whether to go on with the current phase, after the given number of operations.
+	 *
+	 * @param maxops the number of operations to do, or -1 for no limit
+	 * @param warmup whether this is the warm-up phase, which may also end when its time is up
+	 */
+	boolean moreOps(long opsdone, long maxops, boolean warmup)
+	{
+		return ((maxops<0) || (opsdone<maxops)) && !_workload.isStopRequested() && !(warmup && _warmup.isTimeUp());
+	}
+
+	/**
+	 * Run the operations of one phase (warm-up or measured).
+	 *
+	 * @param maxops the number of operations to do, or -1 for no limit
+	 * @param warmup whether this is the warm-up phase
+	 * @return false if the workload is done for this thread (or an insert failed), true otherwise
+	 */
+	boolean doOps(long maxops, boolean warmup) throws Exception
+	{
+		if (_dotransactions)
+		{
+			while (moreOps(_opsdone,maxops,warmup))
 			{
-				long st=System.currentTimeMillis();
 
-				while (((_opcount == 0) || (_opsdone < _opcount)) && !_workload.isStopRequested())
+				if (_openloop)
 				{
-
-					if (!_workload.doTransaction(_db,_workloadstate))
+					long intendedstarttime=waitForIntendedStart();
+					if (!_workload.doTransaction(_db,_workloadstate,intendedstarttime))
 					{
-						break;
+						return false;
 					}
+				}
+				else if (!_workload.doTransaction(_db,_workloadstate))
+				{
+					return false;
+				}
 
-					_opsdone++;
+				_opsdone++;
 
-					//throttle the operations
-					if (_target>0)
-					{
-						//this is more accurate than other throttling approaches we have tried,
-						//like sleeping for (1/target throughput)-operation latency,
-						//because it smooths timing inaccuracies (from sleep() taking an int, 
-						//current time in millis) over many operations
-						while (System.currentTimeMillis()-st<((double)_opsdone)/_target)
-						{
-							try
-							{
-								sleep(1);
-							}
-							catch (InterruptedException e)
-							{
-							  // do nothing.
-							}
-
-						}
-					}
-				}
+				throttle(1);
 			}
-			else
+		}
+		else
+		{
+			while (moreOps(_opsdone,maxops,warmup))
 			{
-				long st=System.currentTimeMillis();
 
-				while (((_opcount == 0) || (_opsdone < _opcount)) && !_workload.isStopRequested())
+				int inserted;
+				if (_openloop)
+				{
+					//open-loop schedules every record individually
+					long intendedstarttime=waitForIntendedStart();
+					inserted=_workload.doInsert(_db,_workloadstate,intendedstarttime) ? 1 : 0;
+				}
+				else
 				{
+					//let the workload insert several records per call if it batches
+					inserted=_workload.doInsertBatch(_db,_workloadstate,(maxops<0) ? Integer.MAX_VALUE : (int)Math.min(maxops-_opsdone,Integer.MAX_VALUE));
+				}
 
-					if (!_workload.doInsert(_db,_workloadstate))
-					{
-						break;
-					}
+				if (inserted==0)
+				{
+					return false;
+				}
 
-					_opsdone++;
+				_opsdone+=inserted;
 
-					//throttle the operations
-					if (_target>0)
+				throttle(inserted);
+			}
+		}
+		return true;
+	}
+}
+
+/**
+ * A thread that keeps up to a fixed number of operations in flight against an {@link AsyncDB}, instead of
+ * waiting for each operation to complete before issuing the next one.
+ */
+class AsyncClientThread extends ClientThread
+{
+	AsyncDB _asyncdb;
+	int _inflight;
+	AtomicLong _completed;
+	volatile boolean _insertfailed;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param db the asynchronous DB implementation to use
+	 * @param inflight the maximum number of operations this thread may have in flight
+	 * @see ClientThread#ClientThread(DB, boolean, Workload, int, int, Properties, long, RateLimiter)
+	 */
+	public AsyncClientThread(AsyncDB db, int inflight, boolean dotransactions, Workload workload, int threadid, int threadcount, Properties props, long opcount, RateLimiter limiter)
+	{
+		super(null,dotransactions,workload,threadid,threadcount,props,opcount,limiter);
+		_asyncdb=db;
+		_inflight=inflight;
+		_completed=new AtomicLong(0);
+	}
+
+	/**
+	 * Return the number of operations that have completed. Operations that are still in flight are not counted.
+	 */
+	public long getOpsDone()
+	{
+		return _completed.get();
+	}
+
+	void runThread()
+	{
+		Utils.seedThread(_threadid);
+
+		try
+		{
+			_asyncdb.init();
+		}
+		catch (DBException e)
+		{
+			e.printStackTrace();
+			e.printStackTrace(System.out);
+			abortStart();
+			return;
+		}
+
+		try
+		{
+			_workloadstate=_workload.initThread(_props,_threadid,_threadcount);
+		}
+		catch (WorkloadException e)
+		{
+			e.printStackTrace();
+			e.printStackTrace(System.out);
+			abortStart();
+			return;
+		}
+
+		awaitStart();
+
+		//one permit per operation that may be in flight
+		Semaphore slots=new Semaphore(_inflight);
+
+		try
+		{
+			boolean more=true;
+			if (_warmup!=null)
+			{
+				//a thread that fails while warming up must leave, or the others would wait for it forever
+				boolean warm=false;
+				try
+				{
+					more=issueOps(_warmup.getOps(_threadid),true,slots);
+					warm=true;
+				}
+				finally
+				{
+					if (!warm)
 					{
-						//this is more accurate than other throttling approaches we have tried,
-						//like sleeping for (1/target throughput)-operation latency,
-						//because it smooths timing inaccuracies (from sleep() taking an int, 
-						//current time in millis) over many operations
-						while (System.currentTimeMillis()-st<((double)_opsdone)/_target)
-						{
-							try 
-							{
-								sleep(1);
-							}
-							catch (InterruptedException e)
-							{
-							  // do nothing.
-							}
-						}
+						_warmup.leave();
 					}
 				}
+
+				//the warm-up operations still in flight must complete before their measurements are discarded
+				slots.acquireUninterruptibly(_inflight);
+				slots.release(_inflight);
+				_opsdone=0;
+				_completed.set(0);
+				_warmup.arrive();
 			}
+
+			if (more)
+			{
+				issueOps((_opcount==0) ? -1 : _opcount,false,slots);
+			}
+
+			//wait for the operations that are still in flight
+			slots.acquireUninterruptibly(_inflight);
 		}
 		catch (Exception e)
 		{
 			e.printStackTrace();
 			e.printStackTrace(System.out);
-			System.exit(0);
+			_failed=true;
 		}
 
 		try
 		{
-			_db.cleanup();
+			_asyncdb.cleanup();
 		}
 		catch (DBException e)
 		{
 			e.printStackTrace();
 			e.printStackTrace(System.out);
-			return;
+			_failed=true;
 		}
 	}
+
+	/**
+	 * Issue the operations of one phase (warm-up or measured). Operations may still be in flight on return.
+	 *
+	 * @param maxops the number of operations to issue, or -1 for no limit
+	 * @param warmup whether this is the warm-up phase
+	 * @param slots one permit per operation that may be in flight
+	 * @return false if the workload is done for this thread (or an insert failed), true otherwise
+	 */
+	boolean issueOps(long maxops, boolean warmup, final Semaphore slots)
+	{
+		//_opsdone counts the operations issued; like the synchronous load phase, stop after a failed insert
+		while (moreOps(_opsdone,maxops,warmup))
+		{
+			if (_insertfailed)
+			{
+				return false;
+			}
+
+			slots.acquireUninterruptibly();
+
+			long intendedstarttime=0;
+			if (_openloop)
+			{
+				intendedstarttime=waitForIntendedStart();
+				if (_asyncdb instanceof AsyncDBWrapper)
+				{
+					((AsyncDBWrapper)_asyncdb).setIntendedStartTime(intendedstarttime);
+				}
+			}
+
+			DBFuture f;
+			if (_dotransactions)
+			{
+				f=(_openloop) ? _workload.doTransaction(_asyncdb,_workloadstate,intendedstarttime) : _workload.doTransaction(_asyncdb,_workloadstate);
+			}
+			else
+			{
+				f=_workload.doInsert(_asyncdb,_workloadstate);
+			}
+
+			if (f==null)
+			{
+				slots.release();
+				return false;
+			}
+
+			_opsdone++;
+
+			f.addListener(new DBFuture.Listener()
+			{
+				public void completed(int result)
+				{
+					if ( (!_dotransactions) && (result!=0) )
+					{
+						_insertfailed=true;
+					}
+					_completed.incrementAndGet();
+					slots.release();
+				}
+			});
+
+			throttle(1);
+		}
+		return !_insertfailed;
+	}
 }
 
 /**
@@ -339,6 +685,110 @@ public class Client
    */
   public static final String MAX_EXECUTION_TIME = "maxexecutiontime";
 
+	/**
+	 * Whether to run open-loop when a target throughput is set. Each operation is then scheduled at a fixed
+	 * time derived from the target rate, and latencies are additionally measured from that intended start,
+	 * so that queueing behind a stalled operation is not hidden (coordinated omission). Without a target
+	 * this has no effect.
+	 */
+	public static final String OPEN_LOOP_PROPERTY="openloop";
+
+	public static final String OPEN_LOOP_PROPERTY_DEFAULT="false";
+
+	/**
+	 * How the target throughput is shared among the threads: "global" lets every thread take the next operation
+	 * that is due, so threads that are not blocked take up the slack of those that are; "fair" gives each thread an
+	 * equal share, which threads on schedule take over only while its owner is a whole turn behind. See {@link RateLimiter}.
+	 */
+	public static final String TARGET_SHARE_PROPERTY="targetshare";
+
+	public static final String TARGET_SHARE_PROPERTY_DEFAULT="global";
+
+	/**
+	 * The maximum number of operations, over all threads, issued back to back to catch up when the client has fallen
+	 * behind the target throughput; the rest of the backlog is dropped. 0 (the default) catches up on all of it. Has
+	 * no effect in open-loop mode, which never drops operations.
+	 */
+	public static final String TARGET_BURST_PROPERTY="targetburst";
+
+	public static final String TARGET_BURST_PROPERTY_DEFAULT="0";
+
+	/**
+	 * A target throughput that changes over the run, as time:rate points (seconds from the start of the measured
+	 * run, operations per second), e.g. "0:1000,60:5000,120:10000", or the name of a file holding them. Overrides
+	 * target. The measurement intervals are tagged with the target they ran under. See {@link TargetSchedule}.
+	 */
+	public static final String TARGET_SCHEDULE_PROPERTY="targetschedule";
+
+	/**
+	 * Whether the target schedule ramps linearly from one point to the next, rather than stepping.
+	 */
+	public static final String TARGET_SCHEDULE_RAMP_PROPERTY="targetschedule.ramp";
+
+	public static final String TARGET_SCHEDULE_RAMP_PROPERTY_DEFAULT="false";
+
+	/**
+	 * The number of operations each client thread keeps in flight. Above 1, or when the DB class is an
+	 * {@link AsyncDB}, threads issue operations asynchronously; synchronous DB classes are then adapted with
+	 * a {@link SyncToAsyncDB} holding this many instances per thread.
+	 */
+	public static final String INFLIGHT_OPS_PROPERTY="inflightops";
+
+	public static final String INFLIGHT_OPS_PROPERTY_DEFAULT="1";
+
+	/**
+	 * The kind of thread each client runs on: "platform" for ordinary threads, or "virtual" for virtual
+	 * threads (Java 21 and later), which makes very large threadcounts against blocking DB bindings cheap.
+	 */
+	public static final String THREAD_MODE_PROPERTY="threadmode";
+
+	public static final String THREAD_MODE_PROPERTY_DEFAULT="platform";
+
+	/**
+	 * The number of operations, over all threads, to run before measuring. Warm-up operations are not reported
+	 * and do not count towards operationcount, insertcount or the throughput. See {@link Warmup}. Note that in
+	 * the load phase, warm-up inserts are extra records, and the measured inserts carry on past them.
+	 */
+	public static final String WARMUP_OPS_PROPERTY="warmupops";
+
+	public static final String WARMUP_OPS_PROPERTY_DEFAULT="0";
+
+	/**
+	 * The time, in seconds, to run before measuring. If warmupops is set as well, the warm-up ends at whichever
+	 * limit is reached first.
+	 */
+	public static final String WARMUP_TIME_PROPERTY="warmuptime";
+
+	public static final String WARMUP_TIME_PROPERTY_DEFAULT="0";
+
+	/**
+	 * Create an unstarted thread for a client. Virtual threads are created reflectively so that the client
+	 * still builds and runs on Java releases that don't have them.
+	 *
+	 * @param threadmode "platform" or "virtual"
+	 * @param client the client to run
+	 * @param name the name of the thread
+	 */
+	static Thread newClientThread(String threadmode, Runnable client, String name) throws Exception
+	{
+		Thread t;
+		if (threadmode.compareTo("virtual")==0)
+		{
+			Object builder=Thread.class.getMethod("ofVirtual").invoke(null);
+			t=(Thread)Class.forName("java.lang.Thread$Builder").getMethod("unstarted",Runnable.class).invoke(builder,client);
+		}
+		else if (threadmode.compareTo("platform")==0)
+		{
+			t=new Thread(client);
+		}
+		else
+		{
+			throw new IllegalArgumentException("Unknown "+THREAD_MODE_PROPERTY+" "+threadmode);
+		}
+		t.setName(name);
+		return t;
+	}
+
 	public static void usageMessage()
 	{
 		System.out.println("Usage: java com.yahoo.ycsb.Client [options]");
@@ -365,6 +815,18 @@ public class Client
 		System.out.println("To run the transaction phase from multiple servers, start a separate client on each.");
 		System.out.println("To run the load phase from multiple servers, start a separate client on each; additionally,");
 		System.out.println("use the \"insertcount\" and \"insertstart\" properties to divide up the records to be inserted");
+		System.out.println("");
+		System.out.println("To run several client processes as one experiment, with merged results, set the \""+Coordinator.WORKERS_PROPERTY+"\"");
+		System.out.println("property to the number of processes. They are launched on this machine, or with");
+		System.out.println("-p "+Coordinator.LAUNCH_PROPERTY+"=false -p "+Coordinator.PORT_PROPERTY+"=port the coordinator waits for clients");
+		System.out.println("started with only -p "+Coordinator.COORDINATOR_PROPERTY+"=host:port to attach; set \""+Coordinator.BIND_PROPERTY+"\" to the");
+		System.out.println("address it should listen on (default: all interfaces when waiting, loopback when launching).");
+		System.out.println("");
+		System.out.println("To record the operations of a run to a trace that the com.yahoo.ycsb.workloads.TraceReplayWorkload");
+		System.out.println("can replay, set the \""+TraceRecorderDB.TRACE_RECORD_PROPERTY+"\" property to the trace file.");
+		System.out.println("");
+		System.out.println("To change the target throughput during the run, set the \""+TARGET_SCHEDULE_PROPERTY+"\" property to");
+		System.out.println("time:rate points, e.g. 0:1000,60:5000,120:10000, or to a file holding them.");
 	}
 
 	public static boolean checkRequiredProperties(Properties props)
@@ -384,7 +846,17 @@ public class Client
 	 * loaded from conf.
 	 * @throws IOException Either failed to write to output stream or failed to close it.
 	 */
-	private static void exportMeasurements(Properties props, int opcount, long runtime)
+	static void exportMeasurements(Properties props, long opcount, long runtime)
+			throws IOException
+	{
+		exportMeasurements(Measurements.getMeasurements(), props, opcount, runtime);
+	}
+
+	/**
+	 * Exports the given measurements, e.g. those merged from several workers, like
+	 * {@link #exportMeasurements(Properties, long, long)}.
+	 */
+	static void exportMeasurements(Measurements measurements, Properties props, long opcount, long runtime)
 			throws IOException
 	{
 		MeasurementsExporter exporter = null;
@@ -414,11 +886,11 @@ public class Client
 				exporter = new TextMeasurementsExporter(out);
 			}
 
-			exporter.write("OVERALL", "RunTime(ms)", runtime);
+			exporter.write("OVERALL", "RunTime(ms)", (double) runtime);
 			double throughput = 1000.0 * ((double) opcount) / ((double) runtime);
 			exporter.write("OVERALL", "Throughput(ops/sec)", throughput);
 
-			Measurements.getMeasurements().exportMeasurements(exporter);
+			measurements.exportMeasurements(exporter);
 		} finally
 		{
 			if (exporter != null)
@@ -598,6 +1070,24 @@ public class Client
 
 		props=fileprops;
 
+		//a worker takes the whole experiment from its coordinator
+		Coordinator.Worker worker=null;
+		if (props.getProperty(Coordinator.COORDINATOR_PROPERTY)!=null)
+		{
+			try
+			{
+				worker=new Coordinator.Worker(props.getProperty(Coordinator.COORDINATOR_PROPERTY));
+			}
+			catch (IOException e)
+			{
+				e.printStackTrace();
+				e.printStackTrace(System.out);
+				System.exit(0);
+			}
+			props=worker.getProperties();
+			dotransactions=worker.getDoTransactions();
+		}
+
 		if (!checkRequiredProperties(props))
 		{
 			System.exit(0);
@@ -610,13 +1100,45 @@ public class Client
 		dbname=props.getProperty("db","com.yahoo.ycsb.BasicDB");
 		target=Integer.parseInt(props.getProperty("target","0"));
 		
-		//compute the target throughput
-		double targetperthreadperms=-1;
-		if (target>0)
+		//a schedule changes the target over the run
+		TargetSchedule schedule=null;
+		if (props.getProperty(TARGET_SCHEDULE_PROPERTY)!=null)
 		{
-			double targetperthread=((double)target)/((double)threadcount);
-			targetperthreadperms=targetperthread/1000.0;
-		}	 
+			try
+			{
+				schedule=TargetSchedule.load(props.getProperty(TARGET_SCHEDULE_PROPERTY),
+						Boolean.parseBoolean(props.getProperty(TARGET_SCHEDULE_RAMP_PROPERTY,TARGET_SCHEDULE_RAMP_PROPERTY_DEFAULT)));
+			}
+			catch (IllegalArgumentException e)
+			{
+				System.out.println(e.getMessage());
+				System.exit(0);
+			}
+			catch (IOException e)
+			{
+				System.out.println("Could not read target schedule: "+e.getMessage());
+				System.exit(0);
+			}
+			props.setProperty(TARGET_SCHEDULE_PROPERTY,schedule.toString());
+		}
+
+		//hold all threads together to the target throughput
+		RateLimiter limiter=null;
+		if ( (target>0) || (schedule!=null) )
+		{
+			String share=props.getProperty(TARGET_SHARE_PROPERTY,TARGET_SHARE_PROPERTY_DEFAULT);
+			if ( (share.compareTo("global")!=0) && (share.compareTo("fair")!=0) )
+			{
+				System.out.println("Unknown "+TARGET_SHARE_PROPERTY+" \""+share+"\"");
+				System.exit(0);
+			}
+			double burst=0;
+			if (!Boolean.parseBoolean(props.getProperty(OPEN_LOOP_PROPERTY,OPEN_LOOP_PROPERTY_DEFAULT)))
+			{
+				burst=Double.parseDouble(props.getProperty(TARGET_BURST_PROPERTY,TARGET_BURST_PROPERTY_DEFAULT));
+			}
+			limiter=new RateLimiter((schedule!=null) ? schedule.rateAt(0) : target,threadcount,share.compareTo("fair")==0,burst);
+		}
 
 		System.out.println("YCSB Client 0.1");
 		System.out.print("Command line:");
@@ -625,6 +1147,22 @@ public class Client
 			System.out.print(" "+args[i]);
 		}
 		System.out.println();
+
+		if (Integer.parseInt(props.getProperty(Coordinator.WORKERS_PROPERTY,Coordinator.WORKERS_PROPERTY_DEFAULT))>0)
+		{
+			try
+			{
+				new Coordinator(props,dotransactions).run();
+			}
+			catch (IOException e)
+			{
+				e.printStackTrace();
+				e.printStackTrace(System.out);
+				System.exit(1);
+			}
+			System.exit(0);
+		}
+
 		System.err.println("Loading workload...");
 		
 		//show a warning message that creating the workload is taking a while
@@ -650,6 +1188,26 @@ public class Client
 		
 		//set up measurements
 		Measurements.setProperties(props);
+
+		try
+		{
+			Utils.setProperties(props);
+		}
+		catch (IllegalArgumentException e)
+		{
+			System.out.println(e.getMessage());
+			System.exit(0);
+		}
+
+		try
+		{
+			TraceRecorderDB.startRecording(props);
+		}
+		catch (IOException e)
+		{
+			System.out.println("Could not record trace: "+e.getMessage());
+			System.exit(0);
+		}
 		
 		//load the workload
 		ClassLoader classLoader = Client.class.getClassLoader();
@@ -686,31 +1244,61 @@ public class Client
 
 		System.err.println("Starting test.");
 
-		int opcount;
+		long opcount;
 		if (dotransactions)
 		{
-			opcount=Integer.parseInt(props.getProperty(OPERATION_COUNT_PROPERTY,"0"));
+			opcount=Long.parseLong(props.getProperty(OPERATION_COUNT_PROPERTY,"0"));
 		}
 		else
 		{
 			if (props.containsKey(INSERT_COUNT_PROPERTY))
 			{
-				opcount=Integer.parseInt(props.getProperty(INSERT_COUNT_PROPERTY,"0"));
+				opcount=Long.parseLong(props.getProperty(INSERT_COUNT_PROPERTY,"0"));
 			}
 			else
 			{
-				opcount=Integer.parseInt(props.getProperty(RECORD_COUNT_PROPERTY,"0"));
+				opcount=Long.parseLong(props.getProperty(RECORD_COUNT_PROPERTY,"0"));
 			}
 		}
 
 		Vector<Thread> threads=new Vector<Thread>();
+		Vector<ClientThread> clients=new Vector<ClientThread>();
+
+		String threadmode=props.getProperty(THREAD_MODE_PROPERTY,THREAD_MODE_PROPERTY_DEFAULT);
+		int inflight=Integer.parseInt(props.getProperty(INFLIGHT_OPS_PROPERTY,INFLIGHT_OPS_PROPERTY_DEFAULT));
+		boolean async=(inflight>1) || DBFactory.isAsyncDB(dbname);
+
+		//the threads initialize their DB and workload state, then wait for each other before starting the run
+		CountDownLatch initialized=new CountDownLatch(threadcount);
+		CountDownLatch start=new CountDownLatch(1);
+
+		Warmup warmup=null;
+		long warmupops=Long.parseLong(props.getProperty(WARMUP_OPS_PROPERTY,WARMUP_OPS_PROPERTY_DEFAULT));
+		long warmuptime=Long.parseLong(props.getProperty(WARMUP_TIME_PROPERTY,WARMUP_TIME_PROPERTY_DEFAULT));
+		if ( (warmupops>0) || (warmuptime>0) )
+		{
+			warmup=new Warmup(warmupops,warmuptime*1000,threadcount);
+			if (worker!=null)
+			{
+				warmup.setWorker(worker);
+			}
+		}
 
 		for (int threadid=0; threadid<threadcount; threadid++)
 		{
-			DB db=null;
+			ClientThread t=null;
 			try
 			{
-				db=DBFactory.newDB(dbname,props);
+				if (async)
+				{
+					AsyncDB db=DBFactory.newAsyncDB(dbname,props,inflight);
+					t=new AsyncClientThread(db,inflight,dotransactions,workload,threadid,threadcount,props,opcount/threadcount,limiter);
+				}
+				else
+				{
+					DB db=DBFactory.newDB(dbname,props);
+					t=new ClientThread(db,dotransactions,workload,threadid,threadcount,props,opcount/threadcount,limiter);
+				}
 			}
 			catch (UnknownDBException e)
 			{
@@ -718,9 +1306,18 @@ public class Client
 				System.exit(0);
 			}
 
-			Thread t=new ClientThread(db,dotransactions,workload,threadid,threadcount,props,opcount/threadcount,targetperthreadperms);
-
-			threads.add(t);
+			t.setWarmup(warmup);
+			t.setStartBarrier(initialized,start);
+			clients.add(t);
+			try
+			{
+				threads.add(newClientThread(threadmode,t,"ClientThread-"+threadid));
+			}
+			catch (Exception e)
+			{
+				System.out.println("Unable to create a "+threadmode+" thread: "+e);
+				System.exit(0);
+			}
 			//t.start();
 		}
 
@@ -733,16 +1330,60 @@ public class Client
 			{
 				standardstatus=true;
 			}	
-			statusthread=new StatusThread(threads,label,standardstatus);
+			statusthread=new StatusThread(threads,clients,label,standardstatus);
 			statusthread.start();
 		}
 
-		long st=System.currentTimeMillis();
-
 		for (Thread t : threads)
 		{
 			t.start();
 		}
+
+		long initst=System.currentTimeMillis();
+		while (initialized.getCount()>0)
+		{
+			try
+			{
+				initialized.await();
+			}
+			catch (InterruptedException e)
+			{
+			}
+		}
+		System.err.println("Initialization done in "+(System.currentTimeMillis()-initst)+" ms.");
+
+		if (worker!=null)
+		{
+			try
+			{
+				worker.awaitStart();
+			}
+			catch (IOException e)
+			{
+				e.printStackTrace();
+				e.printStackTrace(System.out);
+				System.exit(0);
+			}
+		}
+
+		//the run time covers the operations only, not the initialization
+		long st=System.currentTimeMillis();
+
+		if (warmup!=null)
+		{
+			warmup.start();
+		}
+
+		if (schedule!=null)
+		{
+			schedule.start(limiter,warmup);
+		}
+		else if (limiter!=null)
+		{
+			Measurements.getMeasurements().setTarget(target);
+		}
+
+		start.countDown();
 		
     Thread terminator = null;
     
@@ -751,21 +1392,36 @@ public class Client
       terminator.start();
     }
     
-    int opsDone = 0;
+    long opsDone = 0;
 
 		for (Thread t : threads)
 		{
 			try
 			{
 				t.join();
-				opsDone += ((ClientThread)t).getOpsDone();
 			}
 			catch (InterruptedException e)
 			{
 			}
 		}
 
+		int failed=0;
+		for (ClientThread t : clients)
+		{
+			opsDone += t.getOpsDone();
+			if (t.isFailed())
+			{
+				failed++;
+			}
+		}
+
 		long en=System.currentTimeMillis();
+
+		//only the steady-state run counts
+		if ( (warmup!=null) && (warmup.getMeasureStart()>0) )
+		{
+			st=warmup.getMeasureStart();
+		}
 		
 		if (terminator != null && !terminator.isInterrupted()) {
       terminator.interrupt();
@@ -789,7 +1445,26 @@ public class Client
 
 		try
 		{
-			exportMeasurements(props, opsDone, en - st);
+			if (TraceRecorderDB.getRecorder()!=null)
+			{
+				System.err.println("Recorded "+TraceRecorderDB.finish()+" operations to "+props.getProperty(TraceRecorderDB.TRACE_RECORD_PROPERTY));
+			}
+		}
+		catch (IOException e)
+		{
+			System.err.println("Could not record trace: "+e.getMessage());
+		}
+
+		try
+		{
+			if (worker!=null)
+			{
+				worker.report(opsDone, en - st, Measurements.getMeasurements().snapshots());
+			}
+			else
+			{
+				exportMeasurements(props, opsDone, en - st);
+			}
 		} catch (IOException e)
 		{
 			System.err.println("Could not export measurements, error: " + e.getMessage());
@@ -797,6 +1472,12 @@ public class Client
 			System.exit(-1);
 		}
 
+		if (failed>0)
+		{
+			System.err.println(failed+" of "+clients.size()+" client threads failed");
+			System.exit(1);
+		}
+
 		System.exit(0);
 	}
 }
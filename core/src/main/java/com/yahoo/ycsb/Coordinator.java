@@ -0,0 +1,524 @@
+/**
+ * Copyright (c) 2026 YCSB contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package com.yahoo.ycsb;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.HashMap;
+import java.util.Properties;
+import java.util.Vector;
+
+import com.yahoo.ycsb.measurements.IntervalLog;
+import com.yahoo.ycsb.measurements.LiveMetrics;
+import com.yahoo.ycsb.measurements.Measurements;
+import com.yahoo.ycsb.measurements.OneMeasurement;
+
+/**
+ * Runs one experiment on several worker Client processes and reports their combined results, instead of
+ * starting a client per process and splitting the load by hand.
+ *
+ * The coordinator listens on a local socket and either launches the workers itself or waits for them to
+ * attach (started with -p coordinator=host:port). Each worker is sent the experiment properties, with its
+ * share of the operations or of the records to insert (a contiguous range starting at its own insertstart),
+ * of the warm-up operations and of the target throughput. Once every worker has initialized its threads (DB
+ * connections and workload state), they are all started together; likewise, the measured run only starts once
+ * every worker has finished its warm-up, and each worker then discards what it measured so far. At the end,
+ * each worker sends back its measurements, which are merged as extra shards into the coordinator's
+ * {@link Measurements} and exported as a single report. Since histograms are merged bucket by bucket, the
+ * percentiles are those of all the operations, not an average over workers.
+ */
+public class Coordinator
+{
+	/**
+	 * The name of the property for the number of worker processes. Setting it runs the client as a coordinator.
+	 */
+	public static final String WORKERS_PROPERTY="workers";
+
+	public static final String WORKERS_PROPERTY_DEFAULT="0";
+
+	/**
+	 * Whether the coordinator launches the worker processes (on this machine, with the same classpath), or
+	 * waits for them to attach.
+	 */
+	public static final String LAUNCH_PROPERTY="coordinator.launch";
+
+	public static final String LAUNCH_PROPERTY_DEFAULT="true";
+
+	/**
+	 * The port the coordinator listens on. The default, 0, picks a free port, which only works when the
+	 * coordinator launches the workers.
+	 */
+	public static final String PORT_PROPERTY="coordinator.port";
+
+	public static final String PORT_PROPERTY_DEFAULT="0";
+
+	/**
+	 * The address the coordinator listens on. By default, the loopback address when the coordinator launches the
+	 * workers, and every interface when it waits for them to attach, possibly from other machines.
+	 */
+	public static final String BIND_PROPERTY="coordinator.bind";
+
+	/**
+	 * The host:port of the coordinator to attach to. Setting it runs the client as a worker, which takes its
+	 * properties from the coordinator.
+	 */
+	public static final String COORDINATOR_PROPERTY="coordinator";
+
+	static final String READY="READY";
+
+	static final String START="START";
+
+	static final String WARM="WARM";
+
+	static final String MEASURE="MEASURE";
+
+	static final String DONE="DONE";
+
+	/**
+	 * The connection between the coordinator and one worker.
+	 */
+	static class Link
+	{
+		Socket _socket;
+		ObjectOutputStream _out;
+		ObjectInputStream _in;
+
+		Link(Socket socket) throws IOException
+		{
+			_socket=socket;
+			//the output stream header has to go out first, or both ends would block in the input stream constructor
+			_out=new ObjectOutputStream(socket.getOutputStream());
+			_out.flush();
+			_in=new ObjectInputStream(socket.getInputStream());
+		}
+
+		void expect(String message) throws IOException
+		{
+			String got=_in.readUTF();
+			if (got.compareTo(message)!=0)
+			{
+				throw new IOException("Expected "+message+" from "+_socket.getRemoteSocketAddress()+" but got "+got);
+			}
+		}
+
+		void send(String message) throws IOException
+		{
+			_out.writeUTF(message);
+			_out.flush();
+		}
+
+		void close()
+		{
+			try
+			{
+				_socket.close();
+			}
+			catch (IOException e)
+			{
+				//nothing left to do with it anyway
+			}
+		}
+	}
+
+	/**
+	 * The worker side of a {@link Link}.
+	 */
+	public static class Worker
+	{
+		Link _link;
+		Properties _props;
+		boolean _dotransactions;
+
+		/**
+		 * Attach to a coordinator and receive the properties of this worker.
+		 *
+		 * @param coordinator the host:port of the coordinator
+		 */
+		public Worker(String coordinator) throws IOException
+		{
+			int colon=coordinator.lastIndexOf(':');
+			if (colon<0)
+			{
+				throw new IOException("Expected host:port for "+COORDINATOR_PROPERTY+", got "+coordinator);
+			}
+			_link=new Link(new Socket(coordinator.substring(0,colon),Integer.parseInt(coordinator.substring(colon+1))));
+			try
+			{
+				_props=(Properties)_link._in.readObject();
+			}
+			catch (ClassNotFoundException e)
+			{
+				throw new IOException(e);
+			}
+			_dotransactions=_link._in.readBoolean();
+		}
+
+		/**
+		 * The properties of the experiment, with this worker's share of the work.
+		 */
+		public Properties getProperties()
+		{
+			return _props;
+		}
+
+		/**
+		 * Whether to run the transaction phase (true) or the load phase (false).
+		 */
+		public boolean getDoTransactions()
+		{
+			return _dotransactions;
+		}
+
+		/**
+		 * Tell the coordinator this worker is ready, and wait until all the workers are.
+		 */
+		public void awaitStart() throws IOException
+		{
+			_link.send(READY);
+			_link.expect(START);
+		}
+
+		/**
+		 * Tell the coordinator this worker is done warming up, and wait until all the workers are.
+		 */
+		public void awaitMeasure() throws IOException
+		{
+			_link.send(WARM);
+			_link.expect(MEASURE);
+		}
+
+		/**
+		 * Send the results of this worker to the coordinator.
+		 *
+		 * @param opsdone the number of operations done
+		 * @param runtime the run time, in ms
+		 * @param measurements the measurements of each operation
+		 */
+		public void report(long opsdone, long runtime, HashMap<String,OneMeasurement> measurements) throws IOException
+		{
+			_link._out.writeUTF(DONE);
+			_link._out.writeLong(opsdone);
+			_link._out.writeLong(runtime);
+			_link._out.writeObject(measurements);
+			_link._out.flush();
+			_link.close();
+		}
+	}
+
+	Properties _props;
+	boolean _dotransactions;
+	int _workers;
+
+	//the measurements sent back by each worker, and their merge, once run() has returned
+	Vector<HashMap<String,OneMeasurement>> _reports;
+	Measurements _measurements;
+
+	/**
+	 * @param props the properties of the experiment
+	 * @param dotransactions true to run the transaction phase, false to run the load phase
+	 */
+	public Coordinator(Properties props, boolean dotransactions)
+	{
+		_props=props;
+		_dotransactions=dotransactions;
+		_workers=Integer.parseInt(props.getProperty(WORKERS_PROPERTY,WORKERS_PROPERTY_DEFAULT));
+	}
+
+	/**
+	 * The share of total that goes to worker i, such that the shares add up to total.
+	 */
+	static long share(long total, int workers, int i)
+	{
+		return total/workers+((i<total%workers) ? 1 : 0);
+	}
+
+	/**
+	 * The sum of the shares of the workers before worker i.
+	 */
+	static long offset(long total, int workers, int i)
+	{
+		return i*(total/workers)+Math.min(i,total%workers);
+	}
+
+	/**
+	 * Build the properties of worker i: the experiment properties, with the worker's share of the operations
+	 * (transaction phase) or of the records to insert (load phase), and of the target throughput or schedule. In
+	 * the transaction phase, worker i inserts every workers-th new record from the i-th on, so that the workers
+	 * don't insert the same keys.
+	 */
+	Properties assign(int i)
+	{
+		Properties p=new Properties();
+		p.putAll(_props);
+		p.remove(WORKERS_PROPERTY);
+
+		//each worker writes its own interval log
+		if (_props.getProperty(IntervalLog.FILE)!=null)
+		{
+			p.setProperty(IntervalLog.FILE,_props.getProperty(IntervalLog.FILE)+"."+i);
+		}
+
+		//each worker serves its own live metrics, on the ports after the given one
+		int liveport=Integer.parseInt(_props.getProperty(LiveMetrics.PORT,"0"));
+		if (liveport>0)
+		{
+			p.setProperty(LiveMetrics.PORT,""+(liveport+i));
+		}
+
+		if (_dotransactions)
+		{
+			long opcount=Long.parseLong(_props.getProperty(Client.OPERATION_COUNT_PROPERTY,"0"));
+			p.setProperty(Client.OPERATION_COUNT_PROPERTY,""+share(opcount,_workers,i));
+			p.setProperty(Workload.TRANSACTION_INSERT_OFFSET_PROPERTY,""+i);
+			p.setProperty(Workload.TRANSACTION_INSERT_STRIDE_PROPERTY,""+_workers);
+		}
+		else
+		{
+			long insertstart=Long.parseLong(_props.getProperty(Workload.INSERT_START_PROPERTY,Workload.INSERT_START_PROPERTY_DEFAULT));
+			long insertcount=Long.parseLong(_props.getProperty(Client.INSERT_COUNT_PROPERTY,_props.getProperty(Client.RECORD_COUNT_PROPERTY,"0")));
+			p.setProperty(Workload.INSERT_START_PROPERTY,""+(insertstart+offset(insertcount,_workers,i)));
+			p.setProperty(Client.INSERT_COUNT_PROPERTY,""+share(insertcount,_workers,i));
+		}
+
+		long warmupops=Long.parseLong(_props.getProperty(Client.WARMUP_OPS_PROPERTY,Client.WARMUP_OPS_PROPERTY_DEFAULT));
+		if (warmupops>0)
+		{
+			//0 would mean no limit, so a worker with no share of the warm-up still does one operation
+			p.setProperty(Client.WARMUP_OPS_PROPERTY,""+Math.max(1,share(warmupops,_workers,i)));
+		}
+
+		//the same seed would make every worker draw the same keys
+		String seed=_props.getProperty(Utils.RANDOM_SEED_PROPERTY);
+		if (seed!=null)
+		{
+			p.setProperty(Utils.RANDOM_SEED_PROPERTY,""+Utils.streamSeed(Long.parseLong(seed),i));
+		}
+
+		int target=Integer.parseInt(_props.getProperty("target","0"));
+		if (target>0)
+		{
+			//a worker with no share of the target must still be throttled, not run flat out
+			p.setProperty("target",""+Math.max(1,share(target,_workers,i)));
+		}
+
+		//the client has read any schedule file into the property, so workers elsewhere don't need the file
+		String schedule=_props.getProperty(Client.TARGET_SCHEDULE_PROPERTY);
+		if (schedule!=null)
+		{
+			//every worker runs the whole schedule, at its share of each rate
+			p.setProperty(Client.TARGET_SCHEDULE_PROPERTY,TargetSchedule.parse(schedule,false).scale(1.0/_workers).toString());
+		}
+		return p;
+	}
+
+	/**
+	 * Whether the workers run a warm-up phase, at the end of which they wait for each other.
+	 */
+	boolean isWarmingUp()
+	{
+		return (Long.parseLong(_props.getProperty(Client.WARMUP_OPS_PROPERTY,Client.WARMUP_OPS_PROPERTY_DEFAULT))>0)
+				|| (Long.parseLong(_props.getProperty(Client.WARMUP_TIME_PROPERTY,Client.WARMUP_TIME_PROPERTY_DEFAULT))>0);
+	}
+
+	/**
+	 * Launch a worker Client process on this machine, attaching to the given address. Its output is passed on to
+	 * our standard error, so that only the merged report goes to standard output.
+	 */
+	Process launch(String host, int port) throws IOException
+	{
+		String java=System.getProperty("java.home")+File.separator+"bin"+File.separator+"java";
+		ProcessBuilder pb=new ProcessBuilder(java,"-cp",System.getProperty("java.class.path"),Client.class.getName(),
+				"-p",COORDINATOR_PROPERTY+"="+host+":"+port);
+		pb.redirectError(ProcessBuilder.Redirect.INHERIT);
+		final Process p=pb.start();
+
+		Thread pump=new Thread()
+		{
+			public void run()
+			{
+				byte[] buf=new byte[4096];
+				InputStream in=p.getInputStream();
+				try
+				{
+					int n;
+					while ((n=in.read(buf))>=0)
+					{
+						System.err.write(buf,0,n);
+					}
+				}
+				catch (IOException e)
+				{
+					//the worker is gone
+				}
+			}
+		};
+		pump.setDaemon(true);
+		pump.start();
+		return p;
+	}
+
+	/**
+	 * Run the experiment on the workers, and export the merged measurements.
+	 */
+	@SuppressWarnings("unchecked")
+	public void run() throws IOException
+	{
+		boolean launch=Boolean.parseBoolean(_props.getProperty(LAUNCH_PROPERTY,LAUNCH_PROPERTY_DEFAULT));
+		int port=Integer.parseInt(_props.getProperty(PORT_PROPERTY,PORT_PROPERTY_DEFAULT));
+		String bind=_props.getProperty(BIND_PROPERTY,launch ? "127.0.0.1" : "0.0.0.0");
+
+		//the coordinator takes no measurements of its own, so it has no live metrics to serve
+		Properties measurementprops=new Properties();
+		measurementprops.putAll(_props);
+		measurementprops.remove(LiveMetrics.PORT);
+		measurementprops.remove(LiveMetrics.JMX);
+		measurementprops.remove(IntervalLog.FILE);
+		_measurements=new Measurements(measurementprops);
+		_reports=new Vector<HashMap<String,OneMeasurement>>();
+
+		ServerSocket server=new ServerSocket(port,_workers,InetAddress.getByName(bind));
+		Vector<Process> processes=new Vector<Process>();
+		Vector<Link> links=new Vector<Link>();
+		try
+		{
+			if (launch)
+			{
+				InetAddress address=server.getInetAddress();
+				String host=address.isAnyLocalAddress() ? "127.0.0.1" : address.getHostAddress();
+				for (int i=0; i<_workers; i++)
+				{
+					processes.add(launch(host,server.getLocalPort()));
+				}
+			}
+			else
+			{
+				System.err.println("Waiting for "+_workers+" workers to attach to port "+server.getLocalPort());
+			}
+
+			//poll, so that we notice a launched worker dying before it attaches
+			server.setSoTimeout(1000);
+			while (links.size()<_workers)
+			{
+				try
+				{
+					Link l=new Link(server.accept());
+					l._out.writeObject(assign(links.size()));
+					l._out.writeBoolean(_dotransactions);
+					l._out.flush();
+					links.add(l);
+				}
+				catch (SocketTimeoutException e)
+				{
+					for (Process p : processes)
+					{
+						if (!p.isAlive())
+						{
+							throw new IOException("A worker exited with status "+p.exitValue()+" before attaching");
+						}
+					}
+				}
+			}
+
+			//start barrier: every worker has loaded its workload and created its threads
+			for (Link l : links)
+			{
+				l.expect(READY);
+			}
+			System.err.println("All "+_workers+" workers ready, starting test.");
+			for (Link l : links)
+			{
+				l.send(START);
+			}
+
+			//warm-up barrier: the measured run starts once every worker has warmed up
+			if (isWarmingUp())
+			{
+				for (Link l : links)
+				{
+					l.expect(WARM);
+				}
+				System.err.println("All "+_workers+" workers warmed up, starting measurement.");
+				for (Link l : links)
+				{
+					l.send(MEASURE);
+				}
+			}
+
+			long opsdone=0;
+			long runtime=0;
+			for (Link l : links)
+			{
+				l.expect(DONE);
+				opsdone+=l._in.readLong();
+				runtime=Math.max(runtime,l._in.readLong());
+				HashMap<String,OneMeasurement> measurements;
+				try
+				{
+					measurements=(HashMap<String,OneMeasurement>)l._in.readObject();
+				}
+				catch (ClassNotFoundException e)
+				{
+					throw new IOException(e);
+				}
+				_reports.add(measurements);
+				for (OneMeasurement m : measurements.values())
+				{
+					_measurements.addShard(m);
+				}
+				l.close();
+			}
+
+			for (Process p : processes)
+			{
+				try
+				{
+					p.waitFor();
+				}
+				catch (InterruptedException e)
+				{
+					//we have the results already
+				}
+			}
+
+			Client.exportMeasurements(_measurements,_props,opsdone,runtime);
+
+			for (Process p : processes)
+			{
+				if ( (!p.isAlive()) && (p.exitValue()!=0) )
+				{
+					throw new IOException("A worker exited with status "+p.exitValue());
+				}
+			}
+		}
+		finally
+		{
+			server.close();
+			for (Link l : links)
+			{
+				l.close();
+			}
+		}
+	}
+}
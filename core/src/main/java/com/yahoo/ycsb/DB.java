@@ -18,6 +18,7 @@
 package com.yahoo.ycsb;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Properties;
 import java.util.Set;
 import java.util.Vector;
@@ -40,6 +41,9 @@ import java.util.Vector;
  * to match the database's default semantics, or the semantics of your 
  * target application.  For the sake of comparison between experiments we also 
  * recommend you explain the semantics you chose when presenting performance results.
+ *
+ * The maps, sets and vectors passed to these methods belong to the caller, which may clear and reuse them for its
+ * next operation once a call has returned. An implementation that keeps any of their contents must copy them.
  */
 public abstract class DB
 {
@@ -134,4 +138,79 @@ public abstract class DB
 	 * @return Zero on success, a non-zero error code on error.  See this class's description for a discussion of error codes.
 	 */
 	public abstract int delete(String table, String key);
+
+	/**
+	 * Read a batch of records from the database in one request (a multi-get). Each record is returned as a HashMap
+	 * of field/value pairs, in the same order as the keys. By default this reads the records one by one; override it
+	 * if the database has a bulk read API.
+	 *
+	 * @param table The name of the table
+	 * @param keys The record keys of the records to read.
+	 * @param fields The list of fields to read, or null for all of them
+	 * @param result A Vector to which one HashMap of field/value pairs is added per key
+	 * @return Zero if all records were read, otherwise the error code of the first read that failed.
+	 */
+	public int batchRead(String table, List<String> keys, Set<String> fields, Vector<HashMap<String,ByteIterator>> result)
+	{
+		int res=0;
+		for (String key : keys)
+		{
+			HashMap<String,ByteIterator> record=new HashMap<String,ByteIterator>();
+			int r=read(table,key,fields,record);
+			if (res==0)
+			{
+				res=r;
+			}
+			result.add(record);
+		}
+		return res;
+	}
+
+	/**
+	 * Update a batch of records in the database in one request. The i-th HashMap of values is written into the record
+	 * with the i-th key, as in {@link #update}. By default this updates the records one by one; override it if the
+	 * database has a bulk write API.
+	 *
+	 * @param table The name of the table
+	 * @param keys The record keys of the records to write.
+	 * @param values One HashMap of field/value pairs to update per key
+	 * @return Zero if all records were updated, otherwise the error code of the first update that failed.
+	 */
+	public int batchUpdate(String table, List<String> keys, List<HashMap<String,ByteIterator>> values)
+	{
+		int res=0;
+		for (int i=0; i<keys.size(); i++)
+		{
+			int r=update(table,keys.get(i),values.get(i));
+			if (res==0)
+			{
+				res=r;
+			}
+		}
+		return res;
+	}
+
+	/**
+	 * Insert a batch of records in the database in one request. The i-th HashMap of values is inserted as the record
+	 * with the i-th key, as in {@link #insert}. By default this inserts the records one by one; override it if the
+	 * database has a bulk write API (put lists, bulk inserts, JDBC batches, pipelines, ...).
+	 *
+	 * @param table The name of the table
+	 * @param keys The record keys of the records to insert.
+	 * @param values One HashMap of field/value pairs to insert per key
+	 * @return Zero if all records were inserted, otherwise the error code of the first insert that failed.
+	 */
+	public int batchInsert(String table, List<String> keys, List<HashMap<String,ByteIterator>> values)
+	{
+		int res=0;
+		for (int i=0; i<keys.size(); i++)
+		{
+			int r=insert(table,keys.get(i),values.get(i));
+			if (res==0)
+			{
+				res=r;
+			}
+		}
+		return res;
+	}
 }
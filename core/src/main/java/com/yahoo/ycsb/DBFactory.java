@@ -19,6 +19,8 @@ package com.yahoo.ycsb;
 
 import java.util.Properties;
 
+import com.yahoo.ycsb.trace.TraceRecorder;
+
 /**
  * Creates a DB layer by dynamically classloading the specified DB class.
  */
@@ -46,7 +48,78 @@ public class DBFactory
 	 
 	 ret.setProperties(properties);
 
+	 TraceRecorder recorder=TraceRecorderDB.getRecorder();
+	 if (recorder!=null)
+	 {
+	    ret=new TraceRecorderDB(ret,recorder);
+	 }
+
 	 return new DBWrapper(ret);
       }
+
+      /**
+       * Return whether the named DB class implements the asynchronous {@link AsyncDB} interface.
+       */
+      public static boolean isAsyncDB(String dbname)
+      {
+	 try
+	 {
+	    return AsyncDB.class.isAssignableFrom(DBFactory.class.getClassLoader().loadClass(dbname));
+	 }
+	 catch (ClassNotFoundException e)
+	 {
+	    return false;
+	 }
+      }
+
+      /**
+       * Create an asynchronous DB layer for one client thread. Synchronous DB classes are adapted with a
+       * {@link SyncToAsyncDB} that owns inflight instances of them. When recording a trace, each of those is recorded by a
+       * {@link TraceRecorderDB}, and a native AsyncDB by an {@link AsyncTraceRecorderDB}.
+       *
+       * @param inflight The number of operations the client thread may have in flight.
+       */
+      public static AsyncDB newAsyncDB(String dbname, Properties properties, int inflight) throws UnknownDBException
+      {
+	 ClassLoader classLoader = DBFactory.class.getClassLoader();
+
+	 AsyncDB ret=null;
+
+	 try
+	 {
+	    Class<?> dbclass = classLoader.loadClass(dbname);
+
+	    if (AsyncDB.class.isAssignableFrom(dbclass))
+	    {
+	       ret=(AsyncDB)dbclass.newInstance();
+	       if (TraceRecorderDB.getRecorder()!=null)
+	       {
+		  ret=new AsyncTraceRecorderDB(ret,TraceRecorderDB.getRecorder());
+	       }
+	    }
+	    else
+	    {
+	       DB[] dbs=new DB[inflight];
+	       for (int i=0; i<inflight; i++)
+	       {
+		  dbs[i]=(DB)dbclass.newInstance();
+		  if (TraceRecorderDB.getRecorder()!=null)
+		  {
+		     dbs[i]=new TraceRecorderDB(dbs[i],TraceRecorderDB.getRecorder());
+		  }
+	       }
+	       ret=new SyncToAsyncDB(dbs);
+	    }
+	 }
+	 catch (Exception e)
+	 {
+	    e.printStackTrace();
+	    return null;
+	 }
+
+	 ret.setProperties(properties);
+
+	 return new AsyncDBWrapper(ret);
+      }
       
 }
@@ -0,0 +1,148 @@
+/**
+ * Copyright (c) 2026 YCSB contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package com.yahoo.ycsb;
+
+import java.util.ArrayList;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * The pending return code of an operation issued through an {@link AsyncDB}. Bindings complete it exactly
+ * once, from whichever thread observes the result; listeners registered with addListener() then run on that
+ * thread, or right away on the registering thread if the operation has already completed.
+ */
+public class DBFuture implements Future<Integer>
+{
+	/**
+	 * Called once an operation has completed.
+	 */
+	public interface Listener
+	{
+		/**
+		 * @param result The return code of the operation; see {@link DB} for their meaning.
+		 */
+		public void completed(int result);
+	}
+
+	private boolean _done;
+	private int _result;
+	private ArrayList<Listener> _listeners;
+
+	/**
+	 * Return a future that has already completed with the given return code.
+	 */
+	public static DBFuture completed(int result)
+	{
+		DBFuture f=new DBFuture();
+		f.complete(result);
+		return f;
+	}
+
+	/**
+	 * Complete the operation with its return code and run the registered listeners.
+	 *
+	 * @throws IllegalStateException if the operation had already completed.
+	 */
+	public void complete(int result)
+	{
+		ArrayList<Listener> listeners;
+		synchronized (this)
+		{
+			if (_done)
+			{
+				throw new IllegalStateException("Operation already completed");
+			}
+			_result=result;
+			_done=true;
+			listeners=_listeners;
+			_listeners=null;
+			notifyAll();
+		}
+
+		if (listeners!=null)
+		{
+			for (Listener l : listeners)
+			{
+				l.completed(result);
+			}
+		}
+	}
+
+	/**
+	 * Run the given listener when the operation completes.
+	 */
+	public void addListener(Listener l)
+	{
+		synchronized (this)
+		{
+			if (!_done)
+			{
+				if (_listeners==null)
+				{
+					_listeners=new ArrayList<Listener>(2);
+				}
+				_listeners.add(l);
+				return;
+			}
+		}
+		l.completed(_result);
+	}
+
+	/**
+	 * Operations can not be cancelled once issued.
+	 */
+	public boolean cancel(boolean mayInterruptIfRunning)
+	{
+		return false;
+	}
+
+	public boolean isCancelled()
+	{
+		return false;
+	}
+
+	public synchronized boolean isDone()
+	{
+		return _done;
+	}
+
+	public synchronized Integer get() throws InterruptedException
+	{
+		while (!_done)
+		{
+			wait();
+		}
+		return _result;
+	}
+
+	public synchronized Integer get(long timeout, TimeUnit unit) throws InterruptedException, TimeoutException
+	{
+		long deadline=System.nanoTime()+unit.toNanos(timeout);
+		while (!_done)
+		{
+			long left=deadline-System.nanoTime();
+			if (left<=0)
+			{
+				throw new TimeoutException();
+			}
+			TimeUnit.NANOSECONDS.timedWait(this,left);
+		}
+		return _result;
+	}
+}
@@ -18,6 +18,7 @@
 package com.yahoo.ycsb;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Properties;
 import java.util.Set;
 import java.util.Vector;
@@ -26,18 +27,70 @@ import com.yahoo.ycsb.measurements.Measurements;
 
 /**
  * Wrapper around a "real" DB that measures latencies and counts return codes.
+ *
+ * When the client runs open-loop, it tells the wrapper when each operation was scheduled to start. Besides
+ * the service time of each call (e.g. "READ"), the wrapper then also records the response time measured
+ * from the intended start (e.g. "Intended-READ"), which includes any time the operation spent queued
+ * behind a stalled predecessor.
+ *
+ * A batch call is measured twice: once as a whole (e.g. "BATCH-INSERT"), and once per record (e.g. "INSERT"),
+ * with each record charged an equal share of the batch latency, so that the per-record numbers and operation
+ * counts stay comparable with unbatched runs.
  */
 public class DBWrapper extends DB
 {
 	DB _db;
 	Measurements _measurements;
 
+	boolean _openloop;
+	long _intendedstarttime;
+
 	public DBWrapper(DB db)
 	{
 		_db=db;
 		_measurements=Measurements.getMeasurements();
 	}
 
+	/**
+	 * Set the System.nanoTime() at which the current operation was scheduled to start. Response times
+	 * from this point are recorded for all calls until the next operation is scheduled.
+	 */
+	public void setIntendedStartTime(long intendedstarttime)
+	{
+		_openloop=true;
+		_intendedstarttime=intendedstarttime;
+	}
+
+	void measureIntended(String operation, long en)
+	{
+		if (_openloop)
+		{
+			_measurements.measure(operation,(int)((en-_intendedstarttime)/1000));
+		}
+	}
+
+	/**
+	 * @param operation the name of the single record operation, e.g. "INSERT"
+	 * @param batch the name of the batch operation, e.g. "BATCH-INSERT"
+	 * @param intendedbatch the name of the batch operation measured from the intended start, e.g. "Intended-BATCH-INSERT"
+	 */
+	void measureBatch(String operation, String batch, String intendedbatch, int records, long st, long en, int res)
+	{
+		_measurements.measure(batch,(int)((en-st)/1000));
+		measureIntended(intendedbatch,en);
+		_measurements.reportReturnCode(batch,res);
+
+		if (records>0)
+		{
+			int perrecord=(int)((en-st)/1000/records);
+			for (int i=0; i<records; i++)
+			{
+				_measurements.measure(operation,perrecord);
+				_measurements.reportReturnCode(operation,res);
+			}
+		}
+	}
+
 	/**
 	 * Set the properties for this DB.
 	 */
@@ -60,7 +113,10 @@ public class DBWrapper extends DB
 	 */
 	public void init() throws DBException
 	{
+		long st=System.nanoTime();
 		_db.init();
+		long en=System.nanoTime();
+		_measurements.measure("INIT", (int)((en-st)/1000));
 	}
 
 	/**
@@ -86,10 +142,13 @@ public class DBWrapper extends DB
 	 */
 	public int read(String table, String key, Set<String> fields, HashMap<String,ByteIterator> result)
 	{
+		_measurements.beginOperation();
 		long st=System.nanoTime();
 		int res=_db.read(table,key,fields,result);
 		long en=System.nanoTime();
+		_measurements.endOperation();
 		_measurements.measure("READ",(int)((en-st)/1000));
+		measureIntended("Intended-READ",en);
 		_measurements.reportReturnCode("READ",res);
 		return res;
 	}
@@ -106,10 +165,13 @@ public class DBWrapper extends DB
 	 */
 	public int scan(String table, String startkey, int recordcount, Set<String> fields, Vector<HashMap<String,ByteIterator>> result)
 	{
+		_measurements.beginOperation();
 		long st=System.nanoTime();
 		int res=_db.scan(table,startkey,recordcount,fields,result);
 		long en=System.nanoTime();
+		_measurements.endOperation();
 		_measurements.measure("SCAN",(int)((en-st)/1000));
+		measureIntended("Intended-SCAN",en);
 		_measurements.reportReturnCode("SCAN",res);
 		return res;
 	}
@@ -125,10 +187,13 @@ public class DBWrapper extends DB
 	 */
 	public int update(String table, String key, HashMap<String,ByteIterator> values)
 	{
+		_measurements.beginOperation();
 		long st=System.nanoTime();
 		int res=_db.update(table,key,values);
 		long en=System.nanoTime();
+		_measurements.endOperation();
 		_measurements.measure("UPDATE",(int)((en-st)/1000));
+		measureIntended("Intended-UPDATE",en);
 		_measurements.reportReturnCode("UPDATE",res);
 		return res;
 	}
@@ -144,10 +209,13 @@ public class DBWrapper extends DB
 	 */
 	public int insert(String table, String key, HashMap<String,ByteIterator> values)
 	{
+		_measurements.beginOperation();
 		long st=System.nanoTime();
 		int res=_db.insert(table,key,values);
 		long en=System.nanoTime();
+		_measurements.endOperation();
 		_measurements.measure("INSERT",(int)((en-st)/1000));
+		measureIntended("Intended-INSERT",en);
 		_measurements.reportReturnCode("INSERT",res);
 		return res;
 	}
@@ -161,11 +229,72 @@ public class DBWrapper extends DB
 	 */
 	public int delete(String table, String key)
 	{
+		_measurements.beginOperation();
 		long st=System.nanoTime();
 		int res=_db.delete(table,key);
 		long en=System.nanoTime();
+		_measurements.endOperation();
 		_measurements.measure("DELETE",(int)((en-st)/1000));
+		measureIntended("Intended-DELETE",en);
 		_measurements.reportReturnCode("DELETE",res);
 		return res;
 	}
+
+	/**
+	 * Read a batch of records from the database in one request.
+	 *
+	 * @param table The name of the table
+	 * @param keys The record keys of the records to read.
+	 * @param fields The list of fields to read, or null for all of them
+	 * @param result A Vector to which one HashMap of field/value pairs is added per key
+	 * @return Zero on success, a non-zero error code on error
+	 */
+	public int batchRead(String table, List<String> keys, Set<String> fields, Vector<HashMap<String,ByteIterator>> result)
+	{
+		_measurements.beginOperation();
+		long st=System.nanoTime();
+		int res=_db.batchRead(table,keys,fields,result);
+		long en=System.nanoTime();
+		_measurements.endOperation();
+		measureBatch("READ","BATCH-READ","Intended-BATCH-READ",keys.size(),st,en,res);
+		return res;
+	}
+
+	/**
+	 * Update a batch of records in the database in one request.
+	 *
+	 * @param table The name of the table
+	 * @param keys The record keys of the records to write.
+	 * @param values One HashMap of field/value pairs to update per key
+	 * @return Zero on success, a non-zero error code on error
+	 */
+	public int batchUpdate(String table, List<String> keys, List<HashMap<String,ByteIterator>> values)
+	{
+		_measurements.beginOperation();
+		long st=System.nanoTime();
+		int res=_db.batchUpdate(table,keys,values);
+		long en=System.nanoTime();
+		_measurements.endOperation();
+		measureBatch("UPDATE","BATCH-UPDATE","Intended-BATCH-UPDATE",keys.size(),st,en,res);
+		return res;
+	}
+
+	/**
+	 * Insert a batch of records in the database in one request.
+	 *
+	 * @param table The name of the table
+	 * @param keys The record keys of the records to insert.
+	 * @param values One HashMap of field/value pairs to insert per key
+	 * @return Zero on success, a non-zero error code on error
+	 */
+	public int batchInsert(String table, List<String> keys, List<HashMap<String,ByteIterator>> values)
+	{
+		_measurements.beginOperation();
+		long st=System.nanoTime();
+		int res=_db.batchInsert(table,keys,values);
+		long en=System.nanoTime();
+		_measurements.endOperation();
+		measureBatch("INSERT","BATCH-INSERT","Intended-BATCH-INSERT",keys.size(),st,en,res);
+		return res;
+	}
 }
@@ -16,14 +16,26 @@
  */
 package com.yahoo.ycsb;
 
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
 /**
- *  A ByteIterator that generates a random sequence of bytes.
+ *  A ByteIterator that generates a random sequence of bytes, either by drawing random numbers as it goes or by
+ *  serving a slice of a RandomBytePool.
  */
 public class RandomByteIterator extends ByteIterator {
   private long len;
   private long off;
   private int bufOff;
   private byte[] buf;
+  private Random random;
+
+  /** The pool to serve slices of, or null to generate the bytes. */
+  private ByteBuffer pool;
+
+  /** The position in the pool of the next byte of the value. */
+  private int pos;
 
   @Override
   public boolean hasNext() {
@@ -31,7 +43,7 @@ public class RandomByteIterator extends ByteIterator {
   }
 
   private void fillBytesImpl(byte[] buffer, int base) {
-    int bytes = Utils.random().nextInt();
+    int bytes = random.nextInt();
     try {
       buffer[base+0] = (byte)(((bytes) & 31) + ' ');
       buffer[base+1] = (byte)(((bytes >> 5) & 31) + ' ');
@@ -51,14 +63,54 @@ public class RandomByteIterator extends ByteIterator {
   }
 
   public RandomByteIterator(long len) {
-    this.len = len;
+    this(len, Utils.random());
+  }
+
+  /**
+   * Create an iterator drawing its bytes from the given generator, which must only be used by the calling thread.
+   */
+  public RandomByteIterator(long len, Random random) {
+    this(len, random, null);
+  }
+
+  /**
+   * Create an iterator serving a slice of the given pool (if it is not null) from an offset drawn from the given
+   * generator, which must only be used by the calling thread.
+   */
+  public RandomByteIterator(long len, Random random, RandomBytePool pool) {
+    this.random = random;
     this.buf = new byte[6];
+    if (pool != null) {
+      this.pool = pool.view();
+    }
+    reset(len);
+  }
+
+  /**
+   * Start over with a new sequence of len random bytes, so that one iterator can be reused for many values.
+   */
+  public void reset(long len) {
+    this.len = len;
+    this.off = 0;
+    if (pool != null) {
+      pos = random.nextInt(pool.capacity());
+      bufOff = 0;
+      return;
+    }
     this.bufOff = buf.length;
     fillBytes();
     this.off = 0;
   }
 
   public byte nextByte() {
+    if (pool != null) {
+      byte b = pool.get(pos);
+      if (++pos == pool.capacity()) {
+        pos = 0;
+      }
+      off++;
+      return b;
+    }
     fillBytes();
     bufOff++;
     return buf[bufOff-1];
@@ -72,6 +124,11 @@ public class RandomByteIterator extends ByteIterator {
     } else {
       ret = buffer.length - bufferOffset;
     }
+    if (pool != null) {
+      copyFromPool(buffer, bufferOffset, ret);
+      off+=ret;
+      return ret + bufferOffset;
+    }
     int i;
     for(i = 0; i < ret; i+=6) {
       fillBytesImpl(buffer, i + bufferOffset);
@@ -80,6 +137,23 @@ public class RandomByteIterator extends ByteIterator {
     return ret + bufferOffset;
   }
 
+  /**
+   * Copy the next n bytes of the slice, wrapping around the end of the pool as often as needed.
+   */
+  private void copyFromPool(byte[] buffer, int bufferOffset, int n) {
+    while (n > 0) {
+      int chunk = Math.min(n, pool.capacity() - pos);
+      ((Buffer)pool).position(pos);
+      pool.get(buffer, bufferOffset, chunk);
+      bufferOffset += chunk;
+      n -= chunk;
+      pos += chunk;
+      if (pos == pool.capacity()) {
+        pos = 0;
+      }
+    }
+  }
+
   @Override
   public long bytesLeft() {
     return len - off - bufOff;
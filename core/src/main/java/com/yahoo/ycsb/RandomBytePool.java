@@ -0,0 +1,79 @@
+/**
+ * Copyright (c) 2026 YCSB contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+package com.yahoo.ycsb;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+/**
+ * A pool of random bytes, generated once and then shared read-only by all threads, from which RandomByteIterator
+ * can serve values as slices at random offsets instead of drawing random numbers for every value. The bytes are
+ * from the same 32 character alphabet RandomByteIterator generates. The pool is treated as circular, so a slice
+ * may be longer than the pool or run past its end.
+ * 
+ * Values served this way repeat substrings of the pool. Make the pool much larger than a compression block of the
+ * database under test, or it will compress the values better than it would real data.
+ */
+public class RandomBytePool
+{
+	private final ByteBuffer _bytes;
+
+	/**
+	 * Fill a pool.
+	 * 
+	 * @param size The number of bytes in the pool.
+	 * @param offheap Whether to keep the bytes in a direct buffer outside the Java heap.
+	 * @param random The generator to fill the pool from.
+	 */
+	public RandomBytePool(int size, boolean offheap, Random random)
+	{
+		if (size<1)
+		{
+			throw new IllegalArgumentException("A random byte pool needs at least one byte");
+		}
+		_bytes=offheap ? ByteBuffer.allocateDirect(size) : ByteBuffer.allocate(size);
+
+		byte[] chunk=new byte[Math.min(size,65536)];
+		while (_bytes.hasRemaining())
+		{
+			int n=Math.min(chunk.length,_bytes.remaining());
+			for (int i=0; i<n; i++)
+			{
+				chunk[i]=(byte)((random.nextInt()&31)+' ');
+			}
+			_bytes.put(chunk,0,n);
+		}
+		((Buffer)_bytes).clear();
+	}
+
+	/**
+	 * The number of bytes in the pool.
+	 */
+	public int size()
+	{
+		return _bytes.capacity();
+	}
+
+	/**
+	 * Return a view of the pool with its own position, for one thread to read from.
+	 */
+	public ByteBuffer view()
+	{
+		return _bytes.asReadOnlyBuffer();
+	}
+}
@@ -0,0 +1,230 @@
+/**
+ * Copyright (c) 2026 YCSB contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package com.yahoo.ycsb;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Holds all client threads together to the target throughput. Every operation is given a due time; a thread
+ * parks (with nanosecond resolution) until its operation is due. Due times are handed out one target interval
+ * apart, so the aggregate rate is exact no matter how the operations are spread over the threads.
+ *
+ * By default ({@link Client#TARGET_SHARE_PROPERTY}=global) the due times are taken first come, first served from
+ * a single schedule, so threads that are not blocked take up the slack of those that are. With fair sharing, each
+ * thread has a schedule of its own at its share of the target, so a thread with fast operations cannot crowd out
+ * one with slow operations; but due times that a thread has missed by more than a whole turn are taken over
+ * by threads that are on schedule, so the aggregate target still holds while individual threads block.
+ *
+ * Operations that fall behind schedule are issued back to back until they have caught up. With
+ * {@link Client#TARGET_BURST_PROPERTY} set, at most that many operations are issued back to back, and the
+ * rest of the backlog is dropped. Due times are claimed with a compare-and-set, so threads never wait for
+ * each other, only for the clock.
+ */
+class RateLimiter
+{
+	/**
+	 * Longs per thread in the schedules, so that the schedules of different threads are on different cache lines.
+	 */
+	static final int PAD=8;
+
+	/**
+	 * The time source the limiter reads and waits on, so that tests can run it without waiting.
+	 */
+	interface Clock
+	{
+		long nanoTime();
+
+		/**
+		 * Wait for about the given time, or less.
+		 */
+		void parkNanos(long nanos);
+	}
+
+	static final Clock SYSTEM_CLOCK=new Clock()
+	{
+		public long nanoTime()
+		{
+			return System.nanoTime();
+		}
+
+		public void parkNanos(long nanos)
+		{
+			LockSupport.parkNanos(nanos);
+		}
+	};
+
+	final Clock _clock;
+
+	final int _threadcount;
+	final boolean _fair;
+	final double _burst;
+
+	/**
+	 * The time between two operations over all threads, in ns.
+	 */
+	volatile double _nanosperop;
+
+	/**
+	 * The clock time at which the first operation was due, once a thread has asked for one.
+	 */
+	final AtomicLong _start;
+
+	/**
+	 * The due time of the next operation, in ns since _start, as the bits of a double: a single one at index 0,
+	 * or with fair sharing one for each thread at index threadid*PAD.
+	 */
+	final AtomicLongArray _next;
+
+	/**
+	 * @param target the number of operations per second, over all threads
+	 * @param threadcount the number of client threads
+	 * @param fair whether each thread has a schedule of its own
+	 * @param burst the maximum number of operations to issue back to back when behind schedule, or 0 for no limit
+	 */
+	RateLimiter(double target, int threadcount, boolean fair, double burst)
+	{
+		this(target,threadcount,fair,burst,SYSTEM_CLOCK);
+	}
+
+	/**
+	 * @param clock the time source, System.nanoTime() outside of tests
+	 */
+	RateLimiter(double target, int threadcount, boolean fair, double burst, Clock clock)
+	{
+		_clock=clock;
+		_threadcount=threadcount;
+		_fair=fair;
+		_burst=burst;
+		_start=new AtomicLong(Long.MIN_VALUE);
+		setTarget(target);
+
+		if (_fair)
+		{
+			//stagger the threads over the first turn, so that they do not all issue at once
+			_next=new AtomicLongArray(threadcount*PAD);
+			for (int i=0; i<threadcount; i++)
+			{
+				_next.set(i*PAD,Double.doubleToRawLongBits(i*_nanosperop));
+			}
+		}
+		else
+		{
+			_next=new AtomicLongArray(1);
+			_next.set(0,Double.doubleToRawLongBits(0.0));
+		}
+	}
+
+	/**
+	 * Change the target throughput. Operations that are due already keep their due time.
+	 *
+	 * @param target the number of operations per second, over all threads
+	 */
+	void setTarget(double target)
+	{
+		_nanosperop=1000000000.0/target;
+	}
+
+	/**
+	 * The target throughput, in operations per second over all threads.
+	 */
+	double getTarget()
+	{
+		return 1000000000.0/_nanosperop;
+	}
+
+	/**
+	 * Wait until the next operations of a thread are due.
+	 *
+	 * @param threadid the id of the calling thread
+	 * @param ops the number of operations
+	 * @return the clock time, System.nanoTime() outside of tests, at which the first of them was due
+	 */
+	long acquire(int threadid, int ops)
+	{
+		long start=_start.get();
+		if (start==Long.MIN_VALUE)
+		{
+			_start.compareAndSet(Long.MIN_VALUE,_clock.nanoTime());
+			start=_start.get();
+		}
+
+		double now=_clock.nanoTime()-start;
+		double due;
+		if (_fair)
+		{
+			double turn=_nanosperop*_threadcount;
+			due=Double.NaN;
+			if (Double.longBitsToDouble(_next.get(threadid*PAD))>now)
+			{
+				//ahead of schedule: take over what threads that are a whole turn behind have missed, before waiting
+				for (int i=1; (i<_threadcount) && Double.isNaN(due); i++)
+				{
+					due=claim(((threadid+i)%_threadcount)*PAD,ops*turn,now,now-turn);
+				}
+			}
+			if (Double.isNaN(due))
+			{
+				due=claim(threadid*PAD,ops*turn,now,Double.POSITIVE_INFINITY);
+			}
+		}
+		else
+		{
+			due=claim(0,ops*_nanosperop,now,Double.POSITIVE_INFINITY);
+		}
+
+		long duetime=start+(long)due;
+		long t;
+		while ((t=_clock.nanoTime())<duetime)
+		{
+			_clock.parkNanos(duetime-t);
+		}
+		return duetime;
+	}
+
+	/**
+	 * Move a schedule forward by the given time, if it is due before the given time.
+	 *
+	 * @param index the index of the schedule in _next
+	 * @param interval the time to move the schedule forward by, in ns
+	 * @param now the current time, in ns since _start
+	 * @param before the time, in ns since _start, the schedule must be due before
+	 * @return the due time claimed, in ns since _start, or NaN if the schedule is not due before the given time
+	 */
+	double claim(int index, double interval, double now, double before)
+	{
+		while (true)
+		{
+			long bits=_next.get(index);
+			double due=Double.longBitsToDouble(bits);
+			if (due>=before)
+			{
+				return Double.NaN;
+			}
+			if (_burst>0)
+			{
+				due=Math.max(due,now-_burst*_nanosperop);
+			}
+			if (_next.compareAndSet(index,bits,Double.doubleToRawLongBits(due+interval)))
+			{
+				return due;
+			}
+		}
+	}
+}
@@ -0,0 +1,242 @@
+/**
+ * Copyright (c) 2026 YCSB contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package com.yahoo.ycsb;
+
+import java.util.HashMap;
+import java.util.Properties;
+import java.util.Set;
+import java.util.Vector;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import com.yahoo.ycsb.measurements.Measurements;
+
+/**
+ * Adapts synchronous {@link DB} bindings to the {@link AsyncDB} interface, so that they can be driven with
+ * several operations in flight per client thread without any change.
+ *
+ * The adapter owns one DB instance per operation it may have in flight, and a worker thread for each of
+ * them. Operations are queued and executed by whichever worker is free, so a DB instance is still only ever
+ * used by one thread, as DB requires.
+ */
+public class SyncToAsyncDB extends AsyncDB
+{
+	/**
+	 * One synchronous call against the DB instance of the worker executing it.
+	 */
+	interface Call
+	{
+		int call(DB db);
+	}
+
+	class Task
+	{
+		final Call _call;
+		final DBFuture _future;
+
+		Task(Call call, DBFuture future)
+		{
+			_call=call;
+			_future=future;
+		}
+	}
+
+	class Worker extends Thread
+	{
+		final DB _db;
+
+		Worker(DB db)
+		{
+			_db=db;
+			setDaemon(true);
+		}
+
+		public void run()
+		{
+			while (true)
+			{
+				Task t;
+				try
+				{
+					t=_queue.take();
+				}
+				catch (InterruptedException e)
+				{
+					continue;
+				}
+
+				if (t==STOP)
+				{
+					Measurements.retire();
+					return;
+				}
+
+				int res;
+				try
+				{
+					res=t._call.call(_db);
+				}
+				catch (RuntimeException e)
+				{
+					e.printStackTrace();
+					res=-1;
+				}
+				t._future.complete(res);
+			}
+		}
+	}
+
+	final Task STOP=new Task(null,null);
+
+	DB[] _dbs;
+	Worker[] _workers;
+	LinkedBlockingQueue<Task> _queue;
+
+	/**
+	 * @param dbs The DB instances to execute operations with, one per operation that may be in flight.
+	 */
+	public SyncToAsyncDB(DB[] dbs)
+	{
+		_dbs=dbs;
+		_queue=new LinkedBlockingQueue<Task>();
+	}
+
+	/**
+	 * Set the properties for this DB, and for each of the wrapped DB instances.
+	 */
+	public void setProperties(Properties p)
+	{
+		super.setProperties(p);
+		for (DB db : _dbs)
+		{
+			db.setProperties(p);
+		}
+	}
+
+	/**
+	 * Initialize the wrapped DB instances, and start a worker thread for each of them.
+	 */
+	public void init() throws DBException
+	{
+		for (DB db : _dbs)
+		{
+			db.init();
+		}
+
+		_workers=new Worker[_dbs.length];
+		for (int i=0; i<_dbs.length; i++)
+		{
+			_workers[i]=new Worker(_dbs[i]);
+			_workers[i].start();
+		}
+	}
+
+	/**
+	 * Stop the worker threads once the queued operations are done, and cleanup the wrapped DB instances.
+	 */
+	public void cleanup() throws DBException
+	{
+		if (_workers!=null)
+		{
+			for (int i=0; i<_workers.length; i++)
+			{
+				_queue.add(STOP);
+			}
+			for (Worker w : _workers)
+			{
+				while (w.isAlive())
+				{
+					try
+					{
+						w.join();
+					}
+					catch (InterruptedException e)
+					{
+						// do nothing.
+					}
+				}
+			}
+		}
+
+		for (DB db : _dbs)
+		{
+			db.cleanup();
+		}
+	}
+
+	DBFuture submit(Call call)
+	{
+		DBFuture f=new DBFuture();
+		_queue.add(new Task(call,f));
+		return f;
+	}
+
+	public DBFuture read(final String table, final String key, final Set<String> fields, final HashMap<String,ByteIterator> result)
+	{
+		return submit(new Call()
+		{
+			public int call(DB db)
+			{
+				return db.read(table,key,fields,result);
+			}
+		});
+	}
+
+	public DBFuture scan(final String table, final String startkey, final int recordcount, final Set<String> fields, final Vector<HashMap<String,ByteIterator>> result)
+	{
+		return submit(new Call()
+		{
+			public int call(DB db)
+			{
+				return db.scan(table,startkey,recordcount,fields,result);
+			}
+		});
+	}
+
+	public DBFuture update(final String table, final String key, final HashMap<String,ByteIterator> values)
+	{
+		return submit(new Call()
+		{
+			public int call(DB db)
+			{
+				return db.update(table,key,values);
+			}
+		});
+	}
+
+	public DBFuture insert(final String table, final String key, final HashMap<String,ByteIterator> values)
+	{
+		return submit(new Call()
+		{
+			public int call(DB db)
+			{
+				return db.insert(table,key,values);
+			}
+		});
+	}
+
+	public DBFuture delete(final String table, final String key)
+	{
+		return submit(new Call()
+		{
+			public int call(DB db)
+			{
+				return db.delete(table,key);
+			}
+		});
+	}
+}
@@ -0,0 +1,273 @@
+/**
+ * Copyright (c) 2026 YCSB contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package com.yahoo.ycsb;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.yahoo.ycsb.measurements.Measurements;
+
+/**
+ * A target throughput that changes over the run, so that one run can step or ramp through a range of rates,
+ * e.g. to find the rate at which the latency of a cluster breaks down.
+ *
+ * A schedule is a list of time:rate points, with the time in seconds from the start of the measured run (after
+ * any warm-up, during which the first rate holds) and the rate in operations per second, over all threads:
+ * <pre>
+ * 0:1000,60:5000,120:10000
+ * </pre>
+ * By default each rate holds until the next point. With {@link Client#TARGET_SCHEDULE_RAMP_PROPERTY} set, the rate
+ * changes linearly from one point to the next instead; a step can then still be had by giving two points with the
+ * same time. The last rate holds until the end of the run. The points can also be read from a file, one or more
+ * per line, with # starting a comment.
+ */
+class TargetSchedule
+{
+	/**
+	 * The time between two changes of the rate during a ramp, in ms.
+	 */
+	static final long TICK=100;
+
+	/**
+	 * The times of the points, in ms, in increasing order.
+	 */
+	final long[] _times;
+
+	final double[] _rates;
+
+	final boolean _ramp;
+
+	TargetSchedule(long[] times, double[] rates, boolean ramp)
+	{
+		_times=times;
+		_rates=rates;
+		_ramp=ramp;
+	}
+
+	/**
+	 * Parse a schedule, or read it from a file if there is a file of that name.
+	 *
+	 * @param spec the schedule, or the name of the file holding it
+	 * @param ramp whether to ramp between the points rather than step
+	 * @throws IllegalArgumentException If a point is malformed, has a rate that is not positive, or is out of order.
+	 */
+	static TargetSchedule load(String spec, boolean ramp) throws IOException
+	{
+		if (!new File(spec).isFile())
+		{
+			return parse(spec,ramp);
+		}
+
+		StringBuilder sb=new StringBuilder();
+		for (String line : Files.readAllLines(new File(spec).toPath(),StandardCharsets.UTF_8))
+		{
+			int comment=line.indexOf('#');
+			sb.append((comment<0) ? line : line.substring(0,comment)).append(',');
+		}
+		return parse(sb.toString(),ramp);
+	}
+
+	/**
+	 * Parse a schedule.
+	 *
+	 * @param spec the points of the schedule, separated by commas or white space
+	 * @param ramp whether to ramp between the points rather than step
+	 * @throws IllegalArgumentException If a point is malformed, has a rate that is not positive, or is out of order.
+	 */
+	static TargetSchedule parse(String spec, boolean ramp)
+	{
+		List<String> points=new ArrayList<String>();
+		for (String point : spec.split("[,\\s]+"))
+		{
+			if (point.length()>0)
+			{
+				points.add(point);
+			}
+		}
+		if (points.isEmpty())
+		{
+			throw new IllegalArgumentException("Empty target schedule");
+		}
+
+		long[] times=new long[points.size()];
+		double[] rates=new double[points.size()];
+		for (int i=0; i<points.size(); i++)
+		{
+			String point=points.get(i);
+			int colon=point.indexOf(':');
+			try
+			{
+				if (colon<0)
+				{
+					throw new NumberFormatException();
+				}
+				times[i]=(long)(Double.parseDouble(point.substring(0,colon))*1000);
+				rates[i]=Double.parseDouble(point.substring(colon+1));
+			}
+			catch (NumberFormatException e)
+			{
+				throw new IllegalArgumentException("Bad target schedule point \""+point+"\", expected time:rate");
+			}
+			if ( (times[i]<0) || ( (i>0) && (times[i]<times[i-1]) ) || !(rates[i]>0) || Double.isInfinite(rates[i]) )
+			{
+				throw new IllegalArgumentException("Bad target schedule point \""+point+"\", times must not decrease and rates must be positive");
+			}
+		}
+		return new TargetSchedule(times,rates,ramp);
+	}
+
+	/**
+	 * The index of the last point at or before the given time, or -1 if it is before the first point.
+	 */
+	int pointAt(long ms)
+	{
+		int i=_times.length-1;
+		while ( (i>=0) && (_times[i]>ms) )
+		{
+			i--;
+		}
+		return i;
+	}
+
+	/**
+	 * The target throughput at the given time, in operations per second.
+	 *
+	 * @param ms the time since the start of the measured run, in ms
+	 */
+	double rateAt(long ms)
+	{
+		int i=pointAt(ms);
+		if (i<0)
+		{
+			return _rates[0];
+		}
+		if ( (_ramp) && (i<_times.length-1) )
+		{
+			//times[i+1]>ms>=times[i], so the segment has a length
+			double f=(double)(ms-_times[i])/(_times[i+1]-_times[i]);
+			return _rates[i]+f*(_rates[i+1]-_rates[i]);
+		}
+		return _rates[i];
+	}
+
+	/**
+	 * The next time after the given one at which the target throughput may change, or Long.MAX_VALUE if it won't.
+	 *
+	 * @param ms the time since the start of the measured run, in ms
+	 */
+	long nextChange(long ms)
+	{
+		int i=pointAt(ms);
+		if (i==_times.length-1)
+		{
+			return Long.MAX_VALUE;
+		}
+		if ( (_ramp) && (i>=0) )
+		{
+			return Math.min(ms+TICK,_times[i+1]);
+		}
+		return _times[i+1];
+	}
+
+	/**
+	 * The same schedule with every rate multiplied by the given factor.
+	 */
+	TargetSchedule scale(double factor)
+	{
+		double[] rates=new double[_rates.length];
+		for (int i=0; i<rates.length; i++)
+		{
+			rates[i]=_rates[i]*factor;
+		}
+		return new TargetSchedule(_times,rates,_ramp);
+	}
+
+	/**
+	 * The schedule as a list of time:rate points, which load() parses back.
+	 */
+	public String toString()
+	{
+		StringBuilder sb=new StringBuilder();
+		for (int i=0; i<_times.length; i++)
+		{
+			if (i>0)
+			{
+				sb.append(',');
+			}
+			sb.append(_times[i]/1000.0).append(':').append(_rates[i]);
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Start a daemon thread that keeps the rate limiter, and the target the measurements are tagged with, at the
+	 * rate of the schedule. Called just before the client threads are released.
+	 *
+	 * @param limiter the rate limiter of the client threads
+	 * @param warmup the warm-up phase, or null if there is none; the schedule starts when it is over
+	 */
+	void start(final RateLimiter limiter, final Warmup warmup)
+	{
+		limiter.setTarget(_rates[0]);
+		Measurements.getMeasurements().setTarget(_rates[0]);
+
+		Thread t=new Thread("TargetSchedule")
+		{
+			public void run()
+			{
+				try
+				{
+					long st=System.currentTimeMillis();
+					if (warmup!=null)
+					{
+						while (warmup.getMeasureStart()==0)
+						{
+							sleep(TICK);
+						}
+						st=warmup.getMeasureStart();
+					}
+
+					while (true)
+					{
+						long now=System.currentTimeMillis()-st;
+						double rate=rateAt(now);
+						limiter.setTarget(rate);
+						Measurements.getMeasurements().setTarget(rate);
+
+						long next=nextChange(now);
+						if (next==Long.MAX_VALUE)
+						{
+							return;
+						}
+						sleep(Math.max(1,next-now));
+					}
+				}
+				catch (InterruptedException e)
+				{
+					//the run is over
+				}
+			}
+		};
+		t.setDaemon(true);
+		t.start();
+	}
+}
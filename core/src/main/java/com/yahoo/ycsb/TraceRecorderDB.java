@@ -0,0 +1,281 @@
+/**
+ * Copyright (c) 2026 YCSB contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+package com.yahoo.ycsb;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.Vector;
+
+import com.yahoo.ycsb.trace.Trace;
+import com.yahoo.ycsb.trace.TraceBlock;
+import com.yahoo.ycsb.trace.TraceRecorder;
+
+/**
+ * Wrapper around a "real" DB that records every operation it is given to a trace, which TraceReplayWorkload can
+ * replay later. Set the <b>tracerecord</b> property to the file to record to; the client then puts this wrapper
+ * between its DBWrapper and the DB, so the recorded latencies include the (small) cost of recording.
+ *
+ * Each record holds the time the operation was issued, the recording thread, the operation, the key, the fields
+ * and the value size. Fields are recorded as a mask of their number in "field"+i; fields not named that way are
+ * left out. The value size is the mean size of the values written. Batch calls are recorded as one record per
+ * key, all with the time of the batch.
+ *
+ * Each instance encodes into a block of its own and hands full blocks to the TraceRecorder's writer thread, so an
+ * instance must only be used by one thread at a time, as the client does. Bindings with their own {@link AsyncDB}
+ * are recorded by {@link AsyncTraceRecorderDB} instead.
+ */
+public class TraceRecorderDB extends DB
+{
+	public static final String TRACE_RECORD_PROPERTY="tracerecord";
+
+	private static volatile TraceRecorder recorder;
+
+	DB _db;
+	TraceRecorder _recorder;
+	int _thread;
+	TraceBlock _block;
+
+	Set<String> _lastfields;
+	long _lastmask;
+
+	/**
+	 * Start recording if the properties name a trace file. Called once by the client, before any DB is created.
+	 */
+	public static void startRecording(Properties p) throws IOException
+	{
+		String file=p.getProperty(TRACE_RECORD_PROPERTY);
+		if (file!=null)
+		{
+			recorder=new TraceRecorder(new File(file),Trace.DEFAULT_BLOCK_SIZE);
+		}
+	}
+
+	/**
+	 * The recorder startRecording started, or null if the client is not recording.
+	 */
+	public static TraceRecorder getRecorder()
+	{
+		return recorder;
+	}
+
+	/**
+	 * Finish the recording startRecording started, once every DB has been cleaned up.
+	 *
+	 * @return the number of records in the trace
+	 */
+	public static long finish() throws IOException
+	{
+		TraceRecorder r=recorder;
+		recorder=null;
+		if (r==null)
+		{
+			return 0;
+		}
+		r.close();
+		return r.records();
+	}
+
+	public TraceRecorderDB(DB db, TraceRecorder recorder)
+	{
+		this(recorder);
+		_db=db;
+	}
+
+	/**
+	 * An instance that only encodes records, for AsyncTraceRecorderDB. It has no DB to pass operations on to.
+	 */
+	TraceRecorderDB(TraceRecorder recorder)
+	{
+		_recorder=recorder;
+		_thread=recorder.newThread();
+		_block=recorder.acquire();
+	}
+
+	void record(long timestamp, byte op, String key, long fieldmask, int valuesize)
+	{
+		if (!_block.add(timestamp,_thread,op,fieldmask,valuesize,key))
+		{
+			_recorder.submit(_block);
+			_block=_recorder.acquire();
+			_block.add(timestamp,_thread,op,fieldmask,valuesize,key);
+		}
+	}
+
+	/**
+	 * The field mask of a set of fields, 0 for all. The workloads pass the same few sets again and again, so the
+	 * mask of the last one is kept.
+	 */
+	long fieldMask(Set<String> fields)
+	{
+		if (fields==null)
+		{
+			return 0;
+		}
+		if (fields!=_lastfields)
+		{
+			long mask=0;
+			for (String f : fields)
+			{
+				mask|=fieldBit(f);
+			}
+			_lastfields=fields;
+			_lastmask=mask;
+		}
+		return _lastmask;
+	}
+
+	/**
+	 * The mask bit of field "field"+i, or 0 for other names.
+	 */
+	static long fieldBit(String field)
+	{
+		int n=field.length();
+		if (n<6 || n>7 || !field.startsWith("field"))
+		{
+			return 0;
+		}
+		int i=0;
+		for (int j=5; j<n; j++)
+		{
+			char c=field.charAt(j);
+			if (c<'0' || c>'9')
+			{
+				return 0;
+			}
+			i=i*10+(c-'0');
+		}
+		return i<Trace.MAX_FIELDS ? 1L<<i : 0;
+	}
+
+	void recordWrite(long timestamp, byte op, String key, HashMap<String,ByteIterator> values)
+	{
+		long mask=0;
+		long bytes=0;
+		for (Map.Entry<String,ByteIterator> e : values.entrySet())
+		{
+			mask|=fieldBit(e.getKey());
+			bytes+=e.getValue().bytesLeft();
+		}
+		int size=values.isEmpty() ? 0 : (int)Math.min(bytes/values.size(),Integer.MAX_VALUE);
+		record(timestamp,op,key,mask,size);
+	}
+
+	public void setProperties(Properties p)
+	{
+		_db.setProperties(p);
+	}
+
+	public Properties getProperties()
+	{
+		return _db.getProperties();
+	}
+
+	public void init() throws DBException
+	{
+		_db.init();
+	}
+
+	/**
+	 * Clean up the DB and hand this thread's last, partly filled block to the writer.
+	 */
+	public void cleanup() throws DBException
+	{
+		try
+		{
+			_db.cleanup();
+		}
+		finally
+		{
+			flush();
+		}
+	}
+
+	/**
+	 * Hand this thread's partly filled block to the writer.
+	 */
+	void flush()
+	{
+		_recorder.submit(_block);
+		_block=_recorder.acquire();
+	}
+
+	public int read(String table, String key, Set<String> fields, HashMap<String,ByteIterator> result)
+	{
+		record(_recorder.timestamp(),Trace.READ,key,fieldMask(fields),0);
+		return _db.read(table,key,fields,result);
+	}
+
+	public int scan(String table, String startkey, int recordcount, Set<String> fields, Vector<HashMap<String,ByteIterator>> result)
+	{
+		record(_recorder.timestamp(),Trace.SCAN,startkey,fieldMask(fields),recordcount);
+		return _db.scan(table,startkey,recordcount,fields,result);
+	}
+
+	public int update(String table, String key, HashMap<String,ByteIterator> values)
+	{
+		recordWrite(_recorder.timestamp(),Trace.UPDATE,key,values);
+		return _db.update(table,key,values);
+	}
+
+	public int insert(String table, String key, HashMap<String,ByteIterator> values)
+	{
+		recordWrite(_recorder.timestamp(),Trace.INSERT,key,values);
+		return _db.insert(table,key,values);
+	}
+
+	public int delete(String table, String key)
+	{
+		record(_recorder.timestamp(),Trace.DELETE,key,0,0);
+		return _db.delete(table,key);
+	}
+
+	public int batchRead(String table, List<String> keys, Set<String> fields, Vector<HashMap<String,ByteIterator>> result)
+	{
+		long timestamp=_recorder.timestamp();
+		long mask=fieldMask(fields);
+		for (int i=0; i<keys.size(); i++)
+		{
+			record(timestamp,Trace.READ,keys.get(i),mask,0);
+		}
+		return _db.batchRead(table,keys,fields,result);
+	}
+
+	public int batchUpdate(String table, List<String> keys, List<HashMap<String,ByteIterator>> values)
+	{
+		long timestamp=_recorder.timestamp();
+		for (int i=0; i<keys.size(); i++)
+		{
+			recordWrite(timestamp,Trace.UPDATE,keys.get(i),values.get(i));
+		}
+		return _db.batchUpdate(table,keys,values);
+	}
+
+	public int batchInsert(String table, List<String> keys, List<HashMap<String,ByteIterator>> values)
+	{
+		long timestamp=_recorder.timestamp();
+		for (int i=0; i<keys.size(); i++)
+		{
+			recordWrite(timestamp,Trace.INSERT,keys.get(i),values.get(i));
+		}
+		return _db.batchInsert(table,keys,values);
+	}
+}
@@ -17,6 +17,7 @@
 
 package com.yahoo.ycsb;
 
+import java.util.Properties;
 import java.util.Random;
 
 /**
@@ -24,17 +25,110 @@ import java.util.Random;
  */
 public class Utils
 {
+  /**
+   * The random number generator each thread uses: "xoroshiro" (XoroshiroRandom) or "java" (java.util.Random).
+   */
+  public static final String RANDOM_PROPERTY = "random";
+  public static final String RANDOM_PROPERTY_DEFAULT = "xoroshiro";
+
+  /**
+   * Seed for the random number generators. If set, client thread i always draws the same sequence, so runs can be
+   * repeated exactly; if not, every thread is seeded differently on every run.
+   */
+  public static final String RANDOM_SEED_PROPERTY = "randomseed";
+
+  /** The increment of SplitMix64; also used to space out seeds. */
+  static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
   private static final Random rand = new Random();
   private static final ThreadLocal<Random> rng = new ThreadLocal<Random>();
 
+  private static volatile boolean xoroshiro = true;
+  private static volatile boolean seeded = false;
+  private static volatile long seed = 0;
+
+  /**
+   * Return the random number generator of the calling thread, creating one if the thread has none yet.
+   */
   public static Random random() {
     Random ret = rng.get();
     if(ret == null) {
-      ret = new Random(rand.nextLong());
+      ret = newRandom(rand.nextLong());
       rng.set(ret);
     }
     return ret;
   }
+
+  /**
+   * Configure the kind and seeding of the generators created from now on, and give the calling thread a fresh one.
+   * 
+   * @throws IllegalArgumentException If the random property names an unknown generator.
+   */
+  public static void setProperties(Properties p) {
+    String kind = p.getProperty(RANDOM_PROPERTY, RANDOM_PROPERTY_DEFAULT);
+    if (kind.compareTo("xoroshiro") != 0 && kind.compareTo("java") != 0) {
+      throw new IllegalArgumentException("Unknown " + RANDOM_PROPERTY + " \"" + kind + "\"");
+    }
+    xoroshiro = kind.compareTo("xoroshiro") == 0;
+
+    String s = p.getProperty(RANDOM_SEED_PROPERTY);
+    seeded = s != null;
+    if (seeded) {
+      seed = Long.parseLong(s);
+    }
+    seedThread(-1);
+  }
+
+  /**
+   * Give the calling thread a new random number generator for the given thread id, and return it. Client threads
+   * call this before initializing their workload, so that a workload can keep the returned generator in its
+   * thread state rather than looking it up through random() on every draw.
+   * 
+   * @param threadid The id of the client thread, or -1 for the main thread.
+   */
+  public static Random seedThread(int threadid) {
+    Random ret = newRandom(seeded ? streamSeed(seed, threadid) : rand.nextLong());
+    rng.set(ret);
+    return ret;
+  }
+
+  /**
+   * Derive the seed of one of several independent streams from a base seed.
+   */
+  public static long streamSeed(long base, long stream) {
+    return splitmix64(base + (stream + 1) * GOLDEN_GAMMA);
+  }
+
+  static Random newRandom(long s) {
+    return xoroshiro ? new XoroshiroRandom(s) : new Random(s);
+  }
+
+  /**
+   * Return a uniformly distributed long in [0, bound), like Random.nextInt(int) but for bounds past the int range.
+   * Bounds that fit an int take the cheaper nextInt(int).
+   */
+  public static long nextLong(Random random, long bound) {
+    if (bound <= Integer.MAX_VALUE) {
+      return random.nextInt((int) bound);
+    }
+    // the rejection loop of Random.nextLong(bound) in later JDKs
+    long m = bound - 1;
+    long u = random.nextLong() >>> 1;
+    long r;
+    while (u + m - (r = u % bound) < 0L) {
+      u = random.nextLong() >>> 1;
+    }
+    return r;
+  }
+
+  /**
+   * The SplitMix64 finalizer, which scatters nearby inputs across the whole range of longs.
+   */
+  static long splitmix64(long z) {
+    z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+    z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+    return z ^ (z >>> 31);
+  }
       /**
        * Generate a random ASCII string of a given length.
        */
@@ -0,0 +1,147 @@
+/**
+ * Copyright (c) 2026 YCSB contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package com.yahoo.ycsb;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.concurrent.Phaser;
+
+import com.yahoo.ycsb.measurements.Measurements;
+
+/**
+ * The warm-up phase of a run, during which the client threads run the workload as usual, but nothing they
+ * do is reported: neither the latencies, which are dominated by JIT compilation, connection setup and cold
+ * caches, nor the operations, which would otherwise count towards the throughput.
+ *
+ * Each thread warms up for its share of {@link Client#WARMUP_OPS_PROPERTY} operations, or until
+ * {@link Client#WARMUP_TIME_PROPERTY} has passed, whichever comes first. The threads then wait for each
+ * other; once the last one has arrived, the measurements taken so far are discarded and the steady-state
+ * run starts for all threads at once. A worker of a {@link Coordinator} also waits for the other workers to
+ * finish warming up, so that the measured run starts at the same time in every process.
+ */
+class Warmup
+{
+	final long _ops;
+	final int _threadcount;
+	final long _time;
+	final Phaser _phaser;
+
+	long _deadline;
+
+	//the coordinator to wait for at the end of the warm-up, or null
+	Coordinator.Worker _worker;
+
+	volatile long _measurestart;
+
+	/**
+	 * @param ops the number of warm-up operations over all threads, or 0 for no limit
+	 * @param time the warm-up time in ms, or 0 for no limit
+	 * @param threadcount the number of client threads
+	 */
+	Warmup(long ops, long time, int threadcount)
+	{
+		_ops=ops;
+		_time=time;
+		_threadcount=threadcount;
+		_phaser=new Phaser(threadcount)
+		{
+			protected boolean onAdvance(int phase, int registeredparties)
+			{
+				if (_worker!=null)
+				{
+					try
+					{
+						_worker.awaitMeasure();
+					}
+					catch (IOException e)
+					{
+						//the results can't be reported either, which fails the run at the end
+						System.err.println("Lost the coordinator at the end of the warm-up: "+e);
+					}
+				}
+
+				//every thread has finished warming up, and is waiting, so nothing is being measured; the
+				//init times were taken before the warm-up, so they are kept
+				Measurements.getMeasurements().reset(Collections.singleton("INIT"));
+				_measurestart=System.currentTimeMillis();
+				System.err.println("Warm-up done.");
+				return true;
+			}
+		};
+	}
+
+	/**
+	 * Wait for the warm-up of the other workers of a coordinator before starting to measure.
+	 */
+	void setWorker(Coordinator.Worker worker)
+	{
+		_worker=worker;
+	}
+
+	/**
+	 * Start the clock for the warm-up time. Called just before the client threads are started.
+	 */
+	void start()
+	{
+		_deadline=System.currentTimeMillis()+_time;
+	}
+
+	/**
+	 * The number of warm-up operations for a thread, or -1 for no limit.
+	 */
+	long getOps(int threadid)
+	{
+		if (_ops==0)
+		{
+			return -1;
+		}
+		return _ops/_threadcount+((threadid<_ops%_threadcount) ? 1 : 0);
+	}
+
+	/**
+	 * Whether the warm-up time is over.
+	 */
+	boolean isTimeUp()
+	{
+		return (_time>0) && (System.currentTimeMillis()>=_deadline);
+	}
+
+	/**
+	 * Called by a thread that is done warming up. Waits for the others, then returns when measurement starts.
+	 */
+	void arrive()
+	{
+		_phaser.arriveAndAwaitAdvance();
+	}
+
+	/**
+	 * Called by a thread that stops before it is done warming up, so that the others don't wait for it.
+	 */
+	void leave()
+	{
+		_phaser.arriveAndDeregister();
+	}
+
+	/**
+	 * The System.currentTimeMillis() at which measurement started, or 0 if the warm-up never completed.
+	 */
+	long getMeasureStart()
+	{
+		return _measurestart;
+	}
+}
@@ -33,12 +33,25 @@ import java.util.concurrent.atomic.AtomicBoolean;
  * 2 machines, the first machine should have insertstart=0 and the second insertstart=500000. Additionally,
  * the "insertcount" property, which is interpreted by Client, can be used to tell each instance of the
  * client how many inserts to do. In the example above, both clients should have insertcount=500000.
+ *
+ * Likewise, workloads that insert new records during the transaction phase should support the
+ * "transactioninsertoffset" and "transactioninsertstride" properties: with a stride of n, each of n clients takes
+ * every n-th new record number, starting at its own offset, so that clients sharing a table don't insert the same
+ * keys. The Coordinator sets them for its workers.
  */
 public abstract class Workload
 {
 	public static final String INSERT_START_PROPERTY="insertstart";
 	
 	public static final String INSERT_START_PROPERTY_DEFAULT="0";
+
+	public static final String TRANSACTION_INSERT_OFFSET_PROPERTY="transactioninsertoffset";
+
+	public static final String TRANSACTION_INSERT_OFFSET_PROPERTY_DEFAULT="0";
+
+	public static final String TRANSACTION_INSERT_STRIDE_PROPERTY="transactioninsertstride";
+
+	public static final String TRANSACTION_INSERT_STRIDE_PROPERTY_DEFAULT="1";
 	
 	private volatile AtomicBoolean stopRequested = new AtomicBoolean(false);
 	
@@ -82,6 +95,31 @@ public abstract class Workload
        * synchronized, since each thread has its own threadstate instance.
        */
       public abstract boolean doInsert(DB db, Object threadstate);
+
+      /**
+       * Do one insert operation that was scheduled to start at the given time. Called instead of
+       * doInsert(DB,Object) when the client runs open-loop (see {@link Client#OPEN_LOOP_PROPERTY}), so that
+       * the workload can charge any queueing delay to the operations it measures itself.
+       *
+       * @param intendedstarttime The System.nanoTime() at which the operation should have started.
+       */
+      public boolean doInsert(DB db, Object threadstate, long intendedstarttime)
+      {
+	 return doInsert(db,threadstate);
+      }
+
+      /**
+       * Insert up to maxrecords records, in as few DB calls as the workload likes. This is how the client drives
+       * the load phase; the default inserts a single record with doInsert(DB,Object), so workloads that don't
+       * batch need not override it. The same thread safety rules as for doInsert apply.
+       *
+       * @param maxrecords The number of records the thread still has to insert (at least 1).
+       * @return The number of records inserted, or 0 if an insert failed or the workload knows it is done for this thread.
+       */
+      public int doInsertBatch(DB db, Object threadstate, int maxrecords)
+      {
+	 return doInsert(db,threadstate) ? 1 : 0;
+      }
       
       /**
        * Do one transaction operation. Because it will be called concurrently from multiple client threads, this 
@@ -93,7 +131,61 @@ public abstract class Workload
        * @return false if the workload knows it is done for this thread. Client will terminate the thread. Return true otherwise. Return true for workloads that rely on operationcount. For workloads that read traces from a file, return true when there are more to do, false when you are done.
        */
       public abstract boolean doTransaction(DB db, Object threadstate);
+
+      /**
+       * Do one transaction operation that was scheduled to start at the given time. Called instead of
+       * doTransaction(DB,Object) when the client runs open-loop (see {@link Client#OPEN_LOOP_PROPERTY}), so that
+       * the workload can charge any queueing delay to the operations it measures itself.
+       *
+       * @param intendedstarttime The System.nanoTime() at which the operation should have started.
+       */
+      public boolean doTransaction(DB db, Object threadstate, long intendedstarttime)
+      {
+	 return doTransaction(db,threadstate);
+      }
       
+      /**
+       * Issue one insert operation against an asynchronous DB. Used instead of doInsert(DB,Object) when the
+       * client keeps several operations in flight per thread (see {@link Client#INFLIGHT_OPS_PROPERTY}), so
+       * this is called again before earlier operations have completed; the same thread safety rules apply.
+       *
+       * The default runs doInsert(DB,Object) against a view of the AsyncDB that waits for each operation, so
+       * workloads that don't override it still run, with one operation in flight per thread.
+       *
+       * @return The future of the operation, or null if the workload knows it is done for this thread.
+       */
+      public DBFuture doInsert(AsyncDB db, Object threadstate)
+      {
+	 return DBFuture.completed(doInsert(new AsyncToSyncDB(db),threadstate) ? 0 : -1);
+      }
+
+      /**
+       * Issue one transaction operation against an asynchronous DB. Used instead of doTransaction(DB,Object)
+       * when the client keeps several operations in flight per thread (see {@link Client#INFLIGHT_OPS_PROPERTY}),
+       * so this is called again before earlier operations have completed; the same thread safety rules apply.
+       *
+       * The default runs doTransaction(DB,Object) against a view of the AsyncDB that waits for each operation,
+       * like doInsert(AsyncDB,Object).
+       *
+       * @return The future of the operation, or null if the workload knows it is done for this thread.
+       */
+      public DBFuture doTransaction(AsyncDB db, Object threadstate)
+      {
+	 return doTransaction(new AsyncToSyncDB(db),threadstate) ? DBFuture.completed(0) : null;
+      }
+
+      /**
+       * Issue one transaction operation that was scheduled to start at the given time against an asynchronous
+       * DB. Called instead of doTransaction(AsyncDB,Object) when the client runs open-loop, like
+       * doTransaction(DB,Object,long).
+       *
+       * @param intendedstarttime The System.nanoTime() at which the operation should have started.
+       */
+      public DBFuture doTransaction(AsyncDB db, Object threadstate, long intendedstarttime)
+      {
+	 return doTransaction(db,threadstate);
+      }
+
       /**
        * Allows scheduling a request to stop the workload.
        */
@@ -0,0 +1,79 @@
+/**
+ * Copyright (c) 2026 YCSB contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+package com.yahoo.ycsb;
+
+import java.util.Random;
+
+/**
+ * A java.util.Random backed by xoroshiro128++ instead of a linear congruential generator. The state is two plain longs,
+ * so drawing costs a few shifts and adds and no compare-and-set; in exchange an instance must only be used by one
+ * thread at a time, which is how Utils hands them out.
+ */
+public class XoroshiroRandom extends Random
+{
+	private static final long serialVersionUID=1L;
+
+	//deliberately no initializers: Random's constructor calls setSeed before they would run
+	private long _s0;
+	private long _s1;
+
+	public XoroshiroRandom(long seed)
+	{
+		super(seed);
+	}
+
+	/**
+	 * Reset the state from a seed, expanding it to 128 bits with SplitMix64.
+	 */
+	@Override
+	public void setSeed(long seed)
+	{
+		super.setSeed(seed);
+		_s0=Utils.splitmix64(seed);
+		_s1=Utils.splitmix64(seed+Utils.GOLDEN_GAMMA);
+	}
+
+	@Override
+	public long nextLong()
+	{
+		long s0=_s0;
+		long s1=_s1;
+		long ret=Long.rotateLeft(s0+s1,17)+s0;
+		s1^=s0;
+		_s0=Long.rotateLeft(s0,49)^s1^(s1<<21);
+		_s1=Long.rotateLeft(s1,28);
+		return ret;
+	}
+
+	@Override
+	protected int next(int bits)
+	{
+		return (int)(nextLong()>>>(64-bits));
+	}
+
+	@Override
+	public int nextInt()
+	{
+		return (int)(nextLong()>>>32);
+	}
+
+	@Override
+	public double nextDouble()
+	{
+		return (nextLong()>>>11)*0x1.0p-53;
+	}
+}
@@ -0,0 +1,172 @@
+/**
+ * Copyright (c) 2026 YCSB contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package com.yahoo.ycsb.generator;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A CounterGenerator whose last value is the highest value below which every value has been acknowledged, rather
+ * than the last value handed out. Inserts take their keys from nextLong() and acknowledge them once the insert has
+ * completed, so a key chooser bounded by lastLong() never picks a key that is still being inserted.
+ *
+ * Acknowledgements are kept in a sliding window of slots, each holding the last value acknowledged into it.
+ * Whichever thread finds the slot after the current limit filled moves the limit forward with a compare-and-set,
+ * so acknowledging a value never takes a lock. A value a whole window ahead of the oldest unacknowledged one would
+ * overwrite a slot still needed, so nextLong() holds it back until the limit catches up; as long as every value
+ * handed out is eventually acknowledged, this only slows the issuing thread down.
+ *
+ * Several processes inserting into the same table can each take every stride-th value, starting at countstart plus
+ * their own offset, so that their keys never collide. The window then counts a process's own values only, and
+ * lastLong() is the highest of its own values below which all of them have been acknowledged; the other processes'
+ * values below it are only acknowledged to the extent that they keep pace.
+ */
+public class AcknowledgedCounterGenerator extends CounterGenerator
+{
+	/**
+	 * The default number of values that may be handed out but not yet acknowledged.
+	 */
+	public static final int DEFAULT_WINDOW_SIZE=1<<20;
+
+	/**
+	 * How long nextLong() parks between checks of the limit while the window is full.
+	 */
+	static final long WAIT_NANOS=10000;
+
+	final long countstart;
+	final long offset;
+	final long stride;
+	final int windowsize;
+	final int windowmask;
+	final AtomicLongArray window;
+	final AtomicLong limit;
+
+	/**
+	 * Create a counter that starts at countstart, with every value below it already acknowledged.
+	 */
+	public AcknowledgedCounterGenerator(long countstart)
+	{
+		this(countstart,DEFAULT_WINDOW_SIZE);
+	}
+
+	/**
+	 * Create a counter that starts at countstart, with every value below it already acknowledged, that hands out
+	 * at most windowsize values ahead of the oldest unacknowledged one.
+	 *
+	 * @param windowsize The number of slots, rounded up to a power of two. Each takes 8 bytes.
+	 */
+	public AcknowledgedCounterGenerator(long countstart, int windowsize)
+	{
+		this(countstart,windowsize,0,1);
+	}
+
+	/**
+	 * Create a counter that hands out countstart+offset, countstart+offset+stride, countstart+offset+2*stride and
+	 * so on, with at most windowsize of them ahead of the oldest unacknowledged one.
+	 *
+	 * @param offset Which of the stride interleaved sequences to take, from 0 to stride-1.
+	 */
+	public AcknowledgedCounterGenerator(long countstart, int windowsize, long offset, long stride)
+	{
+		//the counter and the window count the values taken, from countstart; value() maps them to the values handed out
+		super(countstart);
+		if (windowsize<1 || windowsize>1<<30)
+		{
+			throw new IllegalArgumentException("Bad acknowledgement window size "+windowsize);
+		}
+		if (stride<1 || offset<0 || offset>=stride)
+		{
+			throw new IllegalArgumentException("Bad insert offset "+offset+" for stride "+stride);
+		}
+		this.countstart=countstart;
+		this.offset=offset;
+		this.stride=stride;
+		int size=1;
+		while (size<windowsize)
+		{
+			size<<=1;
+		}
+		this.windowsize=size;
+		windowmask=size-1;
+		long[] slots=new long[size];
+		Arrays.fill(slots,Long.MIN_VALUE);
+		window=new AtomicLongArray(slots);
+		limit=new AtomicLong(countstart-1);
+	}
+
+	/**
+	 * Return the next value, first waiting until it is less than a window ahead of the oldest value not yet
+	 * acknowledged.
+	 */
+	@Override
+	public long nextLong()
+	{
+		long count=super.nextLong();
+		while (count-windowsize>limit.get())
+		{
+			LockSupport.parkNanos(WAIT_NANOS);
+		}
+		return value(count);
+	}
+
+	/**
+	 * The value handed out for a count of the counter.
+	 */
+	long value(long count)
+	{
+		return countstart+offset+(count-countstart)*stride;
+	}
+
+	/**
+	 * Return the highest value such that it and every value before it have been acknowledged; with a stride, every
+	 * value of this counter's own.
+	 */
+	@Override
+	public long lastLong()
+	{
+		//with a stride, the count before countstart maps below countstart-1, which was acknowledged all the same
+		return Math.max(value(limit.get()),countstart-1);
+	}
+
+	/**
+	 * Make a value returned by nextLong() visible through lastLong() once all the values before it are.
+	 */
+	public void acknowledge(long value)
+	{
+		long count=countstart+(value-countstart-offset)/stride;
+		window.set((int)(count&windowmask),count);
+
+		//move the limit over every acknowledged value that follows it. a thread that loses the race rescans from the
+		//winner's limit, so the value just stored is passed over either by this thread or by the one that set the limit
+		for (;;)
+		{
+			long current=limit.get();
+			long next=current;
+			while (window.get((int)((next+1)&windowmask))==next+1)
+			{
+				next++;
+			}
+			if (next==current || limit.compareAndSet(current,next))
+			{
+				return;
+			}
+		}
+	}
+}
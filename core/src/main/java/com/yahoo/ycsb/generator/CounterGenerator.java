@@ -17,22 +17,21 @@
 
 package com.yahoo.ycsb.generator;
 
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Generates a sequence of integers 0, 1, ...
  */
 public class CounterGenerator extends IntegerGenerator
 {
-	final AtomicInteger counter;
+	final AtomicLong counter;
 
 	/**
 	 * Create a counter that starts at countstart
 	 */
-	public CounterGenerator(int countstart)
+	public CounterGenerator(long countstart)
 	{
-		counter=new AtomicInteger(countstart);
-		setLastInt(counter.get()-1);
+		counter=new AtomicLong(countstart);
 	}
 	
 	/**
@@ -41,12 +40,18 @@ public class CounterGenerator extends IntegerGenerator
 	 */
 	public int nextInt() 
 	{
-		int ret = counter.getAndIncrement();
-		setLastInt(ret);
-		return ret;
+		return (int)nextLong();
 	}
 	@Override
-	public int lastInt()
+	public long nextLong()
+	{
+		return counter.getAndIncrement();
+	}
+	/**
+	 * The last value is derived from the counter rather than kept in a field, since other threads read it to find the newest record.
+	 */
+	@Override
+	public long lastLong()
 	{
 	                return counter.get() - 1;
 	}
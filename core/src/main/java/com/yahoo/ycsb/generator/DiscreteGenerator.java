@@ -17,7 +17,7 @@
 
 package com.yahoo.ycsb.generator;
 
-import java.util.Vector;
+import java.util.ArrayList;
 import java.util.Random;
 
 import com.yahoo.ycsb.Utils;
@@ -25,60 +25,125 @@ import com.yahoo.ycsb.WorkloadException;
 
 /**
  * Generates a distribution by choosing from a discrete set of values.
+ * 
+ * Values are drawn with Walker's alias method: adding a value rebuilds a table with one slot per value, where each
+ * slot holds a threshold and an alias. Drawing picks a slot uniformly and returns either the slot's own value or its
+ * alias, so it costs one random number and no summation regardless of the number of values. The table is replaced
+ * as a whole when a value is added, so drawing needs no locking.
  */
 public class DiscreteGenerator extends Generator
 {
-	class Pair
+	/**
+	 * The alias table for the values added so far.
+	 */
+	static class Table
 	{
-		public double _weight;
-		public String _value;
+		final String[] _values;
+		final double[] _threshold;
+		final int[] _alias;
 
-		Pair(double weight, String value)
+		Table(String[] values, double[] weights)
 		{
-			_weight=weight;
-			_value=value;
+			int n=values.length;
+			_values=values;
+			_threshold=new double[n];
+			_alias=new int[n];
+
+			double sum=0;
+			for (double w : weights)
+			{
+				sum+=w;
+			}
+
+			//scale the weights so the average slot holds exactly 1, then pair each underfull slot with an overfull one
+			double[] scaled=new double[n];
+			int[] small=new int[n];
+			int[] large=new int[n];
+			int smalls=0;
+			int larges=0;
+			for (int i=0; i<n; i++)
+			{
+				scaled[i]=weights[i]*n/sum;
+				if (scaled[i]<1.0)
+				{
+					small[smalls++]=i;
+				}
+				else
+				{
+					large[larges++]=i;
+				}
+			}
+
+			while ( (smalls>0) && (larges>0) )
+			{
+				int s=small[--smalls];
+				int l=large[--larges];
+				_threshold[s]=scaled[s];
+				_alias[s]=l;
+				scaled[l]-=1.0-scaled[s];
+				if (scaled[l]<1.0)
+				{
+					small[smalls++]=l;
+				}
+				else
+				{
+					large[larges++]=l;
+				}
+			}
+
+			//whatever is left is full up to rounding error
+			while (larges>0)
+			{
+				int l=large[--larges];
+				_threshold[l]=1.0;
+				_alias[l]=l;
+			}
+			while (smalls>0)
+			{
+				int s=small[--smalls];
+				_threshold[s]=1.0;
+				_alias[s]=s;
+			}
 		}
 	}
 
-	Vector<Pair> _values;
+	ArrayList<String> _values;
+	ArrayList<Double> _weights;
+	volatile Table _table;
 	String _lastvalue;
 
 	public DiscreteGenerator()
 	{
-		_values=new Vector<Pair>();
+		_values=new ArrayList<String>();
+		_weights=new ArrayList<Double>();
 		_lastvalue=null;
 	}
 
 	/**
-	 * Generate the next string in the distribution.
+	 * Generate the index of the next value in the distribution, counting values in the order they were added.
 	 */
-	public String nextString()
+	public int nextIndex()
 	{
-		double sum=0;
-
-		for (Pair p : _values)
-		{
-			sum+=p._weight;
-		}
-
-		double val=Utils.random().nextDouble();
-
-		for (Pair p : _values)
-		{
-			if (val<p._weight/sum)
-			{
-				return p._value;
-			}
-
-			val-=p._weight/sum;
-		}
-
-		//should never get here.
-		System.out.println("oops. should not get here.");
+		return nextIndex(Utils.random());
+	}
 
-		System.exit(0);
+	/**
+	 * Generate the index of the next value, drawing on the given Random instead of looking up the calling thread's.
+	 */
+	public int nextIndex(Random random)
+	{
+		Table t=_table;
+		double u=random.nextDouble()*t._threshold.length;
+		int slot=(int)u;
+		return (u-slot<t._threshold[slot]) ? slot : t._alias[slot];
+	}
 
-		return null;
+	/**
+	 * Generate the next string in the distribution.
+	 */
+	public String nextString()
+	{
+		return _table._values[nextIndex()];
 	}
 
 	/**
@@ -106,9 +171,18 @@ public class DiscreteGenerator extends Generator
 		return _lastvalue;
 	}
 
-	public void addValue(double weight, String value)
+	public synchronized void addValue(double weight, String value)
 	{
-		_values.add(new Pair(weight,value));
+		_values.add(value);
+		_weights.add(weight);
+
+		String[] values=_values.toArray(new String[_values.size()]);
+		double[] weights=new double[values.length];
+		for (int i=0; i<weights.length; i++)
+		{
+			weights[i]=_weights.get(i);
+		}
+		_table=new Table(values,weights);
 	}
 
 }
@@ -80,9 +80,24 @@ public class ExponentialGenerator extends IntegerGenerator
 	 * @param itemcount The number of items in the distribution.
 	 * @return The next item in the sequence.
 	 */
+	@Override
 	public long nextLong()
 	{
-		return (long) (-Math.log(Utils.random().nextDouble()) / _gamma);
+		return nextLong(Utils.random());
+	}
+
+	@Override
+	public int nextInt(Random random)
+	{
+		return (int)nextLong(random);
+	}
+
+	@Override
+	public long nextLong(Random random)
+	{
+		long ret=(long) (-Math.log(random.nextDouble()) / _gamma);
+		setLastLong(ret);
+		return ret;
 	}
 
 	@Override
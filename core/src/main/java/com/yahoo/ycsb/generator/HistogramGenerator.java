@@ -94,7 +94,17 @@ public class HistogramGenerator extends IntegerGenerator {
 
 	@Override
 	public int nextInt() {
-		int number = Utils.random().nextInt((int)area);
+		return nextInt(Utils.random());
+	}
+
+	@Override
+	public long nextLong(Random random) {
+		return nextInt(random);
+	}
+
+	@Override
+	public int nextInt(Random random) {
+		int number = random.nextInt((int)area);
 		int i;
 		
 		for(i = 0; i < (buckets.length - 1); i++){
@@ -17,15 +17,23 @@
 
 package com.yahoo.ycsb.generator;
 
+import java.util.Random;
+
 /**
- * A generator that is capable of generating ints as well as strings
+ * A generator that is capable of generating ints and longs as well as strings. Generators whose values can exceed
+ * the range of an int (such as key numbers) override nextLong(); the others only implement nextInt(), and
+ * nextLong() widens it.
+ * 
+ * The last value is a plain field, so lastInt(), lastLong() and lastString() are not thread safe: when threads
+ * share a generator they return whichever value some thread set last. Generators whose last value is read while
+ * other threads generate, such as the counters that bound the key choosers, override lastLong() instead.
  * 
  * @author cooperb
  *
  */
 public abstract class IntegerGenerator extends Generator 
 {
-	int lastint;
+	long lastlong;
 	
 	/**
 	 * Set the last value generated. IntegerGenerator subclasses must use this call
@@ -33,20 +41,55 @@ public abstract class IntegerGenerator extends Generator
 	 */
 	protected void setLastInt(int last)
 	{
-		lastint=last;
+		lastlong=last;
+	}
+
+	/**
+	 * Set the last value generated, for generators that override nextLong().
+	 */
+	protected void setLastLong(long last)
+	{
+		lastlong=last;
 	}
 	
 	/**
 	 * Return the next value as an int. When overriding this method, be sure to call setLastString() properly, or the lastString() call won't work.
 	 */
 	public abstract int nextInt();
+
+	/**
+	 * Return the next value as a long. Generators whose values can exceed the range of an int must override this
+	 * (and set the last value with setLastLong()); the default widens nextInt().
+	 */
+	public long nextLong()
+	{
+		return nextInt();
+	}
+
+	/**
+	 * Return the next value as an int, drawing on the given Random instead of looking up the calling thread's.
+	 * Workloads that hold a Random per thread use this on their hot path; generators that draw random numbers
+	 * override it, and the default ignores random.
+	 */
+	public int nextInt(Random random)
+	{
+		return nextInt();
+	}
+
+	/**
+	 * Return the next value as a long, drawing on the given Random. See {@link #nextInt(Random)}.
+	 */
+	public long nextLong(Random random)
+	{
+		return nextLong();
+	}
 	
 	/**
 	 * Generate the next string in the distribution.
 	 */
 	public String nextString()
 	{
-		return ""+nextInt();
+		return ""+nextLong();
 	}
 	
 	/**
@@ -57,7 +100,7 @@ public abstract class IntegerGenerator extends Generator
 	@Override
 	public String lastString()
 	{
-		return ""+lastInt();
+		return ""+lastLong();
 	}
 	
 	/**
@@ -66,7 +109,15 @@ public abstract class IntegerGenerator extends Generator
 	 */
 	public int lastInt()
 	{
-		return lastint;
+		return (int)lastLong();
+	}
+
+	/**
+	 * Return the previous value generated by the distribution as a long.
+	 */
+	public long lastLong()
+	{
+		return lastlong;
 	}
 	/**
 	 * Return the expected value (mean) of the values this generator will return.
@@ -0,0 +1,159 @@
+/**
+ * Copyright (c) 2026 YCSB contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+package com.yahoo.ycsb.generator;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.yahoo.ycsb.Utils;
+
+/**
+ * Generate integers whose hot region moves over time, or over the number of values generated. A base generator
+ * picks a rank in [0, upperBound-lowerBound], with the hot ranks at the low end (e.g. a HotspotIntegerGenerator
+ * or an unscrambled ZipfianGenerator over the same number of items); the rank is then rotated through the interval
+ * by an offset that changes with a clock:
+ * <UL>
+ * <LI>SLIDE: the hot region slides steadily through the whole interval once per period, wrapping around
+ * <LI>JUMP: the hot region stays put for a period, then jumps to a random place
+ * <LI>DIURNAL: the hot region drifts halfway through the interval and back once per period, along a cosine
+ * </UL>
+ * The offset is a function of the clock alone, so the generator keeps no offset state and needs no locking. With
+ * the TIME clock, the clock is the time since the generator was created; with the OPS clock it is the number of
+ * values generated by all threads, which each thread counts locally and adds to a shared counter every
+ * OPS_BATCH values.
+ */
+public class ShiftingHotspotGenerator extends IntegerGenerator
+{
+	public enum Shift { SLIDE, JUMP, DIURNAL }
+
+	public enum Clock { TIME, OPS }
+
+	static final int OPS_BATCH=16;
+
+	private final IntegerGenerator ranks;
+	private final long lowerBound;
+	private final long interval;
+	private final Shift shift;
+	private final Clock clock;
+	private final double period;
+	private final long start=System.nanoTime();
+	private final AtomicLong ops=new AtomicLong();
+	private final ThreadLocal<int[]> localops=new ThreadLocal<int[]>()
+	{
+		@Override
+		protected int[] initialValue()
+		{
+			return new int[1];
+		}
+	};
+
+	/**
+	 * @param ranks the generator of ranks, from 0 (hottest) to upperBound-lowerBound
+	 * @param lowerBound the smallest value to generate
+	 * @param upperBound the largest value to generate
+	 * @param shift how the hot region moves
+	 * @param clock what the hot region moves with
+	 * @param period the length of one period: in seconds for the TIME clock, in values generated for the OPS clock
+	 */
+	public ShiftingHotspotGenerator(IntegerGenerator ranks, long lowerBound, long upperBound, Shift shift, Clock clock, double period)
+	{
+		if (lowerBound>upperBound)
+		{
+			throw new IllegalArgumentException("Upper bound of shifting hotspot generator smaller than the lower bound");
+		}
+		if (!(period>0))
+		{
+			throw new IllegalArgumentException("Shifting hotspot period must be positive");
+		}
+		this.ranks=ranks;
+		this.lowerBound=lowerBound;
+		this.interval=upperBound-lowerBound+1;
+		this.shift=shift;
+		this.clock=clock;
+		this.period=clock==Clock.TIME ? period*1e9 : period;
+	}
+
+	@Override
+	public int nextInt()
+	{
+		return (int)nextLong();
+	}
+
+	@Override
+	public long nextLong()
+	{
+		return nextLong(Utils.random());
+	}
+
+	@Override
+	public int nextInt(Random random)
+	{
+		return (int)nextLong(random);
+	}
+
+	@Override
+	public long nextLong(Random random)
+	{
+		long rank=ranks.nextLong(random)%interval;
+		long value=lowerBound+(rank+offset(now()))%interval;
+		setLastLong(value);
+		return value;
+	}
+
+	long now()
+	{
+		if (clock==Clock.TIME)
+		{
+			return System.nanoTime()-start;
+		}
+		int[] local=localops.get();
+		if (++local[0]==OPS_BATCH)
+		{
+			local[0]=0;
+			return ops.addAndGet(OPS_BATCH);
+		}
+		return ops.get();
+	}
+
+	/**
+	 * The offset of the hot region at a clock reading: nanoseconds since creation, or values generated.
+	 */
+	long offset(long t)
+	{
+		double cycles=t/period;
+		switch (shift)
+		{
+		case SLIDE:
+			return (long)(t%period/period*interval)%interval;
+		case JUMP:
+			long epoch=(long)cycles;
+			return epoch==0 ? 0 : (Utils.FNVhash64(epoch)&Long.MAX_VALUE)%interval;
+		default:
+			return (long)((1-Math.cos(2*Math.PI*cycles))/4*interval)%interval;
+		}
+	}
+
+	/**
+	 * Approximately the mean over a whole period: the hot region travels through the interval, so this is taken to
+	 * be the middle of it.
+	 */
+	@Override
+	public double mean()
+	{
+		return lowerBound+(interval-1)/2.0;
+	}
+}
@@ -17,6 +17,10 @@
 
 package com.yahoo.ycsb.generator;
 
+import java.util.Random;
+
+import com.yahoo.ycsb.Utils;
+
 /**
  * Generate a popularity distribution of items, skewed to favor recent items significantly more than older items.
  */
@@ -28,8 +32,8 @@ public class SkewedLatestGenerator extends IntegerGenerator
 	public SkewedLatestGenerator(CounterGenerator basis)
 	{
 		_basis=basis;
-		_zipfian=new ZipfianGenerator(_basis.lastInt());
-		nextInt();
+		_zipfian=new ZipfianGenerator(_basis.lastLong());
+		nextLong();
 	}
 
 	/**
@@ -37,10 +41,28 @@ public class SkewedLatestGenerator extends IntegerGenerator
 	 */
 	public int nextInt()
 	{
-		int max=_basis.lastInt();
-		int nextint=max-_zipfian.nextInt(max);
-		setLastInt(nextint);
-		return nextint;
+		return (int)nextLong();
+	}
+
+	@Override
+	public long nextLong()
+	{
+		return nextLong(Utils.random());
+	}
+
+	@Override
+	public int nextInt(Random random)
+	{
+		return (int)nextLong(random);
+	}
+
+	@Override
+	public long nextLong(Random random)
+	{
+		long max=_basis.lastLong();
+		long next=max-_zipfian.nextLong(max,random);
+		setLastLong(next);
+		return next;
 	}
 
 	public static void main(String[] args)
@@ -0,0 +1,102 @@
+/**
+ * Copyright (c) 2026 YCSB contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+package com.yahoo.ycsb.generator;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * An on-disk cache of exact zeta values, keyed by item count and zipfian constant. Each value is kept in its own
+ * file, written to a temporary file first and then renamed into place, so several client processes can share
+ * one cache directory.
+ */
+class ZetaCache
+{
+	File dir;
+
+	ZetaCache(File _dir)
+	{
+		dir=_dir;
+	}
+
+	File file(long n, double theta)
+	{
+		return new File(dir,"zeta-"+n+"-"+theta);
+	}
+
+	/**
+	 * Look up zeta(n,theta).
+	 * 
+	 * @return The cached value, or NaN if there is no usable entry.
+	 */
+	double get(long n, double theta)
+	{
+		File f=file(n,theta);
+		if (!f.exists())
+		{
+			return Double.NaN;
+		}
+		try
+		{
+			BufferedReader r=new BufferedReader(new FileReader(f));
+			try
+			{
+				return Double.parseDouble(r.readLine().trim());
+			}
+			finally
+			{
+				r.close();
+			}
+		}
+		catch (Exception e)
+		{
+			return Double.NaN;
+		}
+	}
+
+	/**
+	 * Store zeta(n,theta). Failing to write the cache only costs the next run the computation, so errors are reported and ignored.
+	 */
+	void put(long n, double theta, double zeta)
+	{
+		try
+		{
+			dir.mkdirs();
+			File tmp=File.createTempFile("zeta",".tmp",dir);
+			Writer w=new FileWriter(tmp);
+			try
+			{
+				w.write(Double.toString(zeta)+"\n");
+			}
+			finally
+			{
+				w.close();
+			}
+			Files.move(tmp.toPath(),file(n,theta).toPath(),StandardCopyOption.REPLACE_EXISTING,StandardCopyOption.ATOMIC_MOVE);
+		}
+		catch (IOException e)
+		{
+			System.err.println("Could not cache zeta in "+dir+": "+e);
+		}
+	}
+}
@@ -17,7 +17,12 @@
 
 package com.yahoo.ycsb.generator;
 
+import java.io.File;
+import java.util.Properties;
 import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 import com.yahoo.ycsb.Utils;
 
@@ -31,11 +36,16 @@ import com.yahoo.ycsb.Utils;
  * popular, min+1 the next most popular, etc.) If you don't want this clustering, and instead want the popular items scattered throughout the 
  * item space, then use ScrambledZipfianGenerator instead.
  * 
- * Be aware: initializing this generator may take a long time if there are lots of items to choose from (e.g. over a minute
- * for 100 million objects). This is because certain mathematical values need to be computed to properly generate a zipfian skew, and one of those
- * values (zeta) is a sum sequence from 1 to n, where n is the itemcount. Note that if you increase the number of items in the set, we can compute
- * a new zeta incrementally, so it should be fast unless you have added millions of items. However, if you decrease the number of items, we recompute
- * zeta from scratch, so this can take a long time. 
+ * Certain mathematical values need to be computed to properly generate a zipfian skew, and one of those values (zeta) is a sum sequence
+ * from 1 to n, where n is the itemcount. By default only the first terms of that sum are added up and the rest is approximated with an
+ * Euler-Maclaurin expansion, which is accurate to double precision and takes constant time. Setting zipfian.zeta to "exact" or "parallel"
+ * computes the full sum instead (e.g. over a minute for 100 million objects in a single thread), and zipfian.zetacache keeps those exact
+ * values on disk between runs. Note that if you increase the number of items in the set, we can compute a new zeta incrementally. However,
+ * if you decrease the number of items, we recompute zeta from scratch.
+ *
+ * A generator may be shared by any number of threads. Everything but zeta and the values derived from it is fixed at construction; those are
+ * kept together in an immutable Zeta, which a thread that sees a new item count computes on its own and publishes with a compare-and-set, so
+ * no thread ever sees the constants for one item count mixed with those for another, and none waits for another.
  *
  * The algorithm used here is from "Quickly Generating Billion-Record Synthetic Databases", Jim Gray et al, SIGMOD 1994.
  */
@@ -43,6 +53,33 @@ public class ZipfianGenerator extends IntegerGenerator
 {     
 	public static final double ZIPFIAN_CONSTANT=0.99;
 
+	/**
+	 * How zeta is computed: "approximate" (the default) sums the first terms exactly and approximates the rest, "parallel" computes the
+	 * exact sum on a fork/join pool, and "exact" computes the exact sum in the calling thread.
+	 */
+	public static final String ZETA_PROPERTY="zipfian.zeta";
+	public static final String ZETA_PROPERTY_DEFAULT="approximate";
+
+	/**
+	 * Directory in which exact zeta values are cached between runs. Empty (the default) disables the cache.
+	 */
+	public static final String ZETA_CACHE_PROPERTY="zipfian.zetacache";
+	public static final String ZETA_CACHE_PROPERTY_DEFAULT="";
+
+	/**
+	 * Number of leading terms of zeta that are always summed exactly. The error of the approximation for the remaining terms
+	 * falls off with the seventh power of this count.
+	 */
+	static final long EXACT_TERMS=1024;
+
+	/**
+	 * Number of terms each fork/join task sums sequentially.
+	 */
+	static final long PARALLEL_TERMS=1<<20;
+
+	static volatile String zetamode=ZETA_PROPERTY_DEFAULT;
+	static volatile ZetaCache zetacache=null;
+
 	/**
 	 * Number of items.
 	 */
@@ -59,14 +96,33 @@ public class ZipfianGenerator extends IntegerGenerator
 	double zipfianconstant;
 	
 	/**
-	 * Computed parameters for generating the distribution.
+	 * Computed parameters for generating the distribution that do not depend on the item count.
 	 */
-	double alpha,zetan,eta,theta,zeta2theta;
-	
+	final double alpha,theta,zeta2theta,halfpowtheta;
+
+	/**
+	 * Zeta for an item count, with the eta computed from it. Immutable, so that it can be published to other threads as a whole.
+	 */
+	static final class Zeta
+	{
+		final long count;
+		final double zetan;
+		final double eta;
+
+		Zeta(long count, double zetan, double eta)
+		{
+			this.count=count;
+			this.zetan=zetan;
+			this.eta=eta;
+		}
+	}
+
 	/**
-	 * The number of items used to compute zetan the last time.
+	 * Zeta for the item count used the last time.
 	 */
-	long countforzeta;
+	volatile Zeta zeta;
+
+	static final AtomicReferenceFieldUpdater<ZipfianGenerator,Zeta> ZETA=AtomicReferenceFieldUpdater.newUpdater(ZipfianGenerator.class,Zeta.class,"zeta");
 	
 	/**
 	 * Flag to prevent problems. If you increase the number of items the zipfian generator is allowed to choose from, this code will incrementally compute a new zeta
@@ -138,14 +194,11 @@ public class ZipfianGenerator extends IntegerGenerator
 
 		theta=zipfianconstant;
 
-		zeta2theta=zeta(2,theta);
-
+		zeta2theta=zetastatic(2,theta);
+		halfpowtheta=Math.pow(0.5,theta);
 		
 		alpha=1.0/(1.0-theta);
-		//zetan=zeta(items,theta);
-		zetan=_zetan;
-		countforzeta=items;
-		eta=(1-Math.pow(2.0/items,1-theta))/(1-zeta2theta/zetan);
+		zeta=newZeta(items,_zetan);
 		
 		//System.out.println("XXXX 3 XXXX");
 		nextInt();
@@ -153,18 +206,31 @@ public class ZipfianGenerator extends IntegerGenerator
 	}
 	
 	/**************************************************************************/
-	
+
 	/**
-	 * Compute the zeta constant needed for the distribution. Do this from scratch for a distribution with n items, using the 
-	 * zipfian constant theta. Remember the value of n, so if we change the itemcount, we can recompute zeta.
+	 * Configure how zeta is computed by all zipfian generators created afterwards.
 	 * 
-	 * @param n The number of items to compute zeta over.
-	 * @param theta The zipfian constant.
+	 * @param p The properties holding zipfian.zeta and zipfian.zetacache.
+	 * @throws IllegalArgumentException If zipfian.zeta is not a known mode.
+	 */
+	public static void setProperties(Properties p)
+	{
+		String mode=p.getProperty(ZETA_PROPERTY,ZETA_PROPERTY_DEFAULT);
+		if (mode.compareTo("approximate")!=0 && mode.compareTo("parallel")!=0 && mode.compareTo("exact")!=0)
+		{
+			throw new IllegalArgumentException("Unknown "+ZETA_PROPERTY+" \""+mode+"\"");
+		}
+		String dir=p.getProperty(ZETA_CACHE_PROPERTY,ZETA_CACHE_PROPERTY_DEFAULT);
+		zetacache=dir.length()>0 ? new ZetaCache(new File(dir)) : null;
+		zetamode=mode;
+	}
+	
+	/**
+	 * Derive eta from zeta for an item count.
 	 */
-	double zeta(long n, double theta)
+	Zeta newZeta(long count, double zetan)
 	{
-		countforzeta=n;
-		return zetastatic(n,theta);
+		return new Zeta(count,zetan,(1-Math.pow(2.0/items,1-theta))/(1-zeta2theta/zetan));
 	}
 	
 	/**
@@ -181,42 +247,126 @@ public class ZipfianGenerator extends IntegerGenerator
 	/**
 	 * Compute the zeta constant needed for the distribution. Do this incrementally for a distribution that
 	 * has n items now but used to have st items. Use the zipfian constant theta. Remember the new value of 
-	 * n so that if we change the itemcount, we'll know to recompute zeta.
-	 * 
+	 * n so that if we change the itemcount, we'll know to recompute zeta. 
 	 * @param st The number of items used to compute the last initialsum
 	 * @param n The number of items to compute zeta over.
 	 * @param theta The zipfian constant.
      * @param initialsum The value of zeta we are computing incrementally from.
 	 */
-	double zeta(long st, long n, double theta, double initialsum)
+	static double zetastatic(long st, long n, double theta, double initialsum)
 	{
-		countforzeta=n;
-		return zetastatic(st,n,theta,initialsum);
+		if (n-st<=EXACT_TERMS)
+		{
+			return initialsum+zetaexact(st,n,theta);
+		}
+
+		String mode=zetamode;
+		if (mode.compareTo("approximate")==0)
+		{
+			return initialsum+zetaapproximate(st,n,theta);
+		}
+
+		//only sums from scratch are worth caching; incremental ones depend on st as well
+		ZetaCache cache=(st==0) ? zetacache : null;
+		if (cache!=null)
+		{
+			double cached=cache.get(n,theta);
+			if (!Double.isNaN(cached))
+			{
+				return initialsum+cached;
+			}
+		}
+
+		double sum=(mode.compareTo("parallel")==0) ? ForkJoinPool.commonPool().invoke(new ZetaTask(st,n,theta)) : zetaexact(st,n,theta);
+
+		if (cache!=null)
+		{
+			cache.put(n,theta,sum);
+		}
+		return initialsum+sum;
 	}
-	
+
 	/**
-	 * Compute the zeta constant needed for the distribution. Do this incrementally for a distribution that
-	 * has n items now but used to have st items. Use the zipfian constant theta. Remember the new value of 
-	 * n so that if we change the itemcount, we'll know to recompute zeta. 
-	 * @param st The number of items used to compute the last initialsum
-	 * @param n The number of items to compute zeta over.
-	 * @param theta The zipfian constant.
-     * @param initialsum The value of zeta we are computing incrementally from.
+	 * Sum the terms st+1 to n of zeta one by one.
 	 */
-	static double zetastatic(long st, long n, double theta, double initialsum)
+	static double zetaexact(long st, long n, double theta)
 	{
-		double sum=initialsum;
+		double sum=0;
 		for (long i=st; i<n; i++)
 		{
-
 			sum+=1/(Math.pow(i+1,theta));
 		}
-		
-		//System.out.println("countforzeta="+countforzeta);
-		
 		return sum;
 	}
 
+	/**
+	 * Sum the terms st+1 to n of zeta, adding up at least the first EXACT_TERMS terms of zeta exactly and using the Euler-Maclaurin formula
+	 * with corrections up to the fifth derivative for the rest.
+	 */
+	static double zetaapproximate(long st, long n, double theta)
+	{
+		long exact=Math.max(st,EXACT_TERMS);
+		double sum=zetaexact(st,exact,theta);
+
+		//sum of f(k)=k^-theta for k from lo to hi
+		double lo=exact+1;
+		double hi=n;
+
+		//integral of f from lo to hi, written with expm1 so theta close to 1 does not cancel
+		if (theta==1.0)
+		{
+			sum+=Math.log(hi/lo);
+		}
+		else
+		{
+			sum+=Math.pow(lo,1-theta)*Math.expm1((1-theta)*Math.log(hi/lo))/(1-theta);
+		}
+
+		sum+=(Math.pow(lo,-theta)+Math.pow(hi,-theta))/2;
+
+		//B2/2! f'  +  B4/4! f'''  +  B6/6! f^(5), each taken as f(hi)-f(lo)
+		double d1=-theta;
+		double d3=d1*(-theta-1)*(-theta-2);
+		double d5=d3*(-theta-3)*(-theta-4);
+		sum+=d1/12*(Math.pow(hi,-theta-1)-Math.pow(lo,-theta-1));
+		sum-=d3/720*(Math.pow(hi,-theta-3)-Math.pow(lo,-theta-3));
+		sum+=d5/30240*(Math.pow(hi,-theta-5)-Math.pow(lo,-theta-5));
+
+		return sum;
+	}
+
+	/**
+	 * Sums the terms st+1 to n of zeta by splitting the range in halves until the pieces are PARALLEL_TERMS long.
+	 */
+	static class ZetaTask extends RecursiveTask<Double>
+	{
+		private static final long serialVersionUID=1L;
+
+		long st,n;
+		double theta;
+
+		ZetaTask(long _st, long _n, double _theta)
+		{
+			st=_st;
+			n=_n;
+			theta=_theta;
+		}
+
+		@Override
+		protected Double compute()
+		{
+			if (n-st<=PARALLEL_TERMS)
+			{
+				return zetaexact(st,n,theta);
+			}
+			long mid=st+(n-st)/2;
+			ZetaTask left=new ZetaTask(st,mid,theta);
+			left.fork();
+			double right=new ZetaTask(mid,n,theta).compute();
+			return left.join()+right;
+		}
+	}
+
 	/****************************************************************************************/
 	
 	/** 
@@ -230,6 +380,46 @@ public class ZipfianGenerator extends IntegerGenerator
 		return (int)nextLong(itemcount);
 	}
 
+	/**
+	 * Compute zeta for a new item count from the last one seen, and publish it for the other threads unless one of them has published
+	 * a newer one in the meantime. The result is correct for itemcount either way, so no thread ever has to retry or wait.
+	 * 
+	 * @param itemcount The number of items in the distribution.
+	 * @param last The zeta read for the item count used the last time.
+	 * @return The zeta to generate with.
+	 */
+	Zeta zetaFor(long itemcount, Zeta last)
+	{
+		Zeta next;
+		if (itemcount>last.count)
+		{
+			//we have added more items. can compute zetan incrementally, which is cheaper
+			next=newZeta(itemcount,zetastatic(last.count,itemcount,theta,last.zetan));
+		}
+		else if (allowitemcountdecrease)
+		{
+			//have to start over with zetan
+			//note : for large itemsets, this is very slow. so don't do it!
+
+			//TODO: can also have a negative incremental computation, e.g. if you decrease the number of items, then just subtract
+			//the zeta sequence terms for the items that went away. This would be faster than recomputing from scratch when the number of items
+			//decreases
+			
+			System.err.println("WARNING: Recomputing Zipfian distribtion. This is slow and should be avoided. (itemcount="+itemcount+" countforzeta="+last.count+")");
+			
+			next=newZeta(itemcount,zetastatic(itemcount,theta));
+		}
+		else
+		{
+			//the item count only goes up, so this thread is behind; the zeta for the larger count is close enough
+			return last;
+		}
+
+		//if another thread got there first, keep its zeta; the next call that disagrees with it just extends it again
+		ZETA.compareAndSet(this,last,next);
+		return next;
+	}
+
 	/**
 	 * Generate the next item as a long.
 	 * 
@@ -237,55 +427,45 @@ public class ZipfianGenerator extends IntegerGenerator
 	 * @return The next item in the sequence.
 	 */
 	public long nextLong(long itemcount)
+	{
+		return nextLong(itemcount,Utils.random());
+	}
+
+	/**
+	 * Generate the next item as a long, drawing on the given Random.
+	 * 
+	 * @param itemcount The number of items in the distribution.
+	 * @param random The source of randomness, e.g. the calling thread's.
+	 * @return The next item in the sequence.
+	 */
+	public long nextLong(long itemcount, Random random)
 	{
 		//from "Quickly Generating Billion-Record Synthetic Databases", Jim Gray et al, SIGMOD 1994
 
-		if (itemcount!=countforzeta)
+		Zeta z=zeta;
+		if (itemcount!=z.count)
 		{
-
 			//have to recompute zetan and eta, since they depend on itemcount
-			synchronized(this)
-			{
-				if (itemcount>countforzeta)
-				{
-					//System.err.println("WARNING: Incrementally recomputing Zipfian distribtion. (itemcount="+itemcount+" countforzeta="+countforzeta+")");
-					
-					//we have added more items. can compute zetan incrementally, which is cheaper
-					zetan=zeta(countforzeta,itemcount,theta,zetan);
-					eta=(1-Math.pow(2.0/items,1-theta))/(1-zeta2theta/zetan);
-				}
-				else if ( (itemcount<countforzeta) && (allowitemcountdecrease) )
-				{
-					//have to start over with zetan
-					//note : for large itemsets, this is very slow. so don't do it!
-
-					//TODO: can also have a negative incremental computation, e.g. if you decrease the number of items, then just subtract
-					//the zeta sequence terms for the items that went away. This would be faster than recomputing from scratch when the number of items
-					//decreases
-					
-					System.err.println("WARNING: Recomputing Zipfian distribtion. This is slow and should be avoided. (itemcount="+itemcount+" countforzeta="+countforzeta+")");
-					
-					zetan=zeta(itemcount,theta);
-					eta=(1-Math.pow(2.0/items,1-theta))/(1-zeta2theta/zetan);
-				}
-			}
+			z=zetaFor(itemcount,z);
 		}
 
-		double u=Utils.random().nextDouble();
-		double uz=u*zetan;
+		double u=random.nextDouble();
+		double uz=u*z.zetan;
 
+		long ret;
 		if (uz<1.0)
 		{
-			return 0;
+			ret=base;
 		}
-
-		if (uz<1.0+Math.pow(0.5,theta)) 
+		else if (uz<1.0+halfpowtheta) 
 		{
-			return 1;
+			ret=base+1;
 		}
-
-		long ret=base+(long)((itemcount) * Math.pow(eta*u - eta + 1, alpha));
-		setLastInt((int)ret);
+		else
+		{
+			ret=base+(long)((itemcount) * Math.pow(z.eta*u - z.eta + 1, alpha));
+		}
+		setLastLong(ret);
 		return ret;
 	}
 
@@ -305,10 +485,23 @@ public class ZipfianGenerator extends IntegerGenerator
 	 * by the 2nd, etc. (Or, if min != 0, the min-th item is the most popular, the min+1th item the next most popular, etc.) If you want the
 	 * popular items scattered throughout the item space, use ScrambledZipfianGenerator instead.
 	 */
+	@Override
 	public long nextLong()
 	{
 		return nextLong(items);
 	}
+
+	@Override
+	public int nextInt(Random random)
+	{
+		return (int)nextLong(items,random);
+	}
+
+	@Override
+	public long nextLong(Random random)
+	{
+		return nextLong(items,random);
+	}
 	
 	public static void main(String[] args)
 	{
@@ -0,0 +1,236 @@
+/**
+ * Copyright (c) 2026 YCSB contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package com.yahoo.ycsb.measurements;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * Logs a latency histogram of each operation for every interval of timeseries.granularity ms, so that tail
+ * latencies can be followed over time (e.g. p99 spikes during compactions) rather than only averaged as by
+ * {@link OneMeasurementTimeSeries}.
+ *
+ * Each line of the log is one interval of one operation:
+ * <pre>
+ * Operation,Start(ms),Interval(ms),Count,Min(us),Max(us),50th(us),99th(us),99.9th(us),Histogram,Target(ops/sec)
+ * </pre>
+ * where Start is relative to the StartTime in the header, Histogram is the full interval histogram,
+ * compressed and base64 encoded, and Target is the target throughput (0 if there is none) that held for the
+ * longest part of the interval, which changes over the run with a target schedule. {@link IntervalLogReplay}
+ * merges the histograms of any sub-window of the run back into exact percentiles.
+ *
+ * Latencies are recorded into an HdrHistogram Recorder per operation, which is wait-free for the client
+ * threads; a writer thread swaps out and logs the interval histograms.
+ */
+public class IntervalLog
+{
+	/**
+	 * The name of the property for the file to log the interval histograms to. Unset by default.
+	 */
+	public static final String FILE="intervallog";
+
+	static final String HEADER="#Operation,Start(ms),Interval(ms),Count,Min(us),Max(us),50th(us),99th(us),99.9th(us),Histogram,Target(ops/sec)";
+
+	static final String START_TIME="#StartTime: ";
+
+	final long _highest;
+	final int _digits;
+	final long _granularity;
+
+	final ConcurrentHashMap<String,Recorder> _recorders=new ConcurrentHashMap<String,Recorder>();
+
+	//only used by flush(), which is synchronized
+	final PrintWriter _out;
+	final long _starttime;
+	long _laststart;
+	final Map<String,Histogram> _intervals=new TreeMap<String,Histogram>();
+	ByteBuffer _buffer;
+	boolean _closed;
+	double _target;
+	long _targetsince;
+	double _intervaltarget;
+	long _intervaltargettime;
+
+	/**
+	 * Whether the properties ask for an interval log.
+	 */
+	public static boolean isEnabled(Properties props)
+	{
+		return props.getProperty(FILE)!=null;
+	}
+
+	public IntervalLog(Properties props) throws IOException
+	{
+		_highest=Long.parseLong(props.getProperty(OneMeasurementHdrHistogram.HIGHEST_LATENCY,OneMeasurementHdrHistogram.HIGHEST_LATENCY_DEFAULT));
+		_digits=Integer.parseInt(props.getProperty(OneMeasurementHdrHistogram.SIGNIFICANT_DIGITS,OneMeasurementHdrHistogram.SIGNIFICANT_DIGITS_DEFAULT));
+		_granularity=Long.parseLong(props.getProperty(OneMeasurementTimeSeries.GRANULARITY,OneMeasurementTimeSeries.GRANULARITY_DEFAULT));
+
+		_out=new PrintWriter(new BufferedWriter(new FileWriter(props.getProperty(FILE))));
+		_starttime=System.currentTimeMillis();
+		_laststart=_starttime;
+		_out.println(START_TIME+_starttime);
+		_out.println(HEADER);
+	}
+
+	/**
+	 * Start logging every interval, until the JVM exits.
+	 */
+	public void start()
+	{
+		Thread writer=new Thread("IntervalLog")
+		{
+			public void run()
+			{
+				while (true)
+				{
+					try
+					{
+						Thread.sleep(_granularity-(System.currentTimeMillis()-_starttime)%_granularity);
+					}
+					catch (InterruptedException e)
+					{
+						return;
+					}
+					flush();
+				}
+			}
+		};
+		writer.setDaemon(true);
+		writer.start();
+
+		//the client ends with System.exit(), so log the last partial interval on the way out
+		Runtime.getRuntime().addShutdownHook(new Thread()
+		{
+			public void run()
+			{
+				close();
+			}
+		});
+	}
+
+	/**
+	 * Set the target throughput from now on, in operations per second. The time before the first target is set
+	 * counts towards it, since the client sets it before it starts running operations.
+	 */
+	synchronized void setTarget(double target)
+	{
+		long now=System.currentTimeMillis();
+		boolean first=(_target==0);
+		if (!first)
+		{
+			endTarget(now);
+		}
+		_target=target;
+		_targetsince=first ? _laststart : now;
+	}
+
+	/**
+	 * Account for the time the current target has held during the current interval, up to the given time.
+	 */
+	void endTarget(long now)
+	{
+		long time=now-Math.max(_targetsince,_laststart);
+		if (time>=_intervaltargettime)
+		{
+			_intervaltarget=_target;
+			_intervaltargettime=time;
+		}
+	}
+
+	/**
+	 * Record a latency, in us.
+	 */
+	public void measure(String operation, int latency)
+	{
+		Recorder r=_recorders.get(operation);
+		if (r==null)
+		{
+			Recorder newr=new Recorder(1,_highest,_digits);
+			r=_recorders.putIfAbsent(operation,newr);
+			if (r==null)
+			{
+				r=newr;
+			}
+		}
+		r.recordValue(Math.min(Math.max(latency,0),_highest));
+	}
+
+	/**
+	 * Log the histograms of the interval since the last flush.
+	 */
+	synchronized void flush()
+	{
+		if (_closed)
+		{
+			return;
+		}
+
+		long now=System.currentTimeMillis();
+		endTarget(now);
+		for (Map.Entry<String,Recorder> e : new TreeMap<String,Recorder>(_recorders).entrySet())
+		{
+			Histogram h=e.getValue().getIntervalHistogram(_intervals.get(e.getKey()));
+			_intervals.put(e.getKey(),h);
+			if (h.getTotalCount()==0)
+			{
+				continue;
+			}
+
+			int capacity=h.getNeededByteBufferCapacity();
+			if ( (_buffer==null) || (_buffer.capacity()<capacity) )
+			{
+				_buffer=ByteBuffer.allocate(capacity);
+			}
+			((Buffer)_buffer).clear();
+			int length=h.encodeIntoCompressedByteBuffer(_buffer);
+			byte[] encoded=new byte[length];
+			((Buffer)_buffer).flip();
+			_buffer.get(encoded);
+
+			_out.println(e.getKey()+","+(_laststart-_starttime)+","+(now-_laststart)+","+h.getTotalCount()+","+h.getMinValue()+","+h.getMaxValue()+","
+					+h.getValueAtPercentile(50)+","+h.getValueAtPercentile(99)+","+h.getValueAtPercentile(99.9)+","
+					+Base64.getEncoder().encodeToString(encoded)+","+_intervaltarget);
+		}
+		_out.flush();
+		_laststart=now;
+		_intervaltarget=_target;
+		_intervaltargettime=0;
+	}
+
+	/**
+	 * Log the last interval and close the log.
+	 */
+	public synchronized void close()
+	{
+		flush();
+		_closed=true;
+		_out.close();
+	}
+}
@@ -0,0 +1,210 @@
+/**
+ * Copyright (c) 2026 YCSB contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package com.yahoo.ycsb.measurements;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Base64;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.DataFormatException;
+
+import org.HdrHistogram.Histogram;
+
+import com.yahoo.ycsb.measurements.exporter.MeasurementsExporter;
+import com.yahoo.ycsb.measurements.exporter.TextMeasurementsExporter;
+
+/**
+ * Reads an {@link IntervalLog} and reports the latencies of each operation over a sub-window of the run,
+ * merged from the logged interval histograms, so the percentiles are exact rather than averaged.
+ *
+ * An interval belongs to the window if it starts within it. With a target schedule, the intervals can also be
+ * selected by the target throughput they ran under, which gives the latencies at each step of the schedule.
+ */
+public class IntervalLogReplay
+{
+	public static void usageMessage()
+	{
+		System.out.println("Usage: java com.yahoo.ycsb.measurements.IntervalLogReplay [options] logfile");
+		System.out.println("Options:");
+		System.out.println("  -start s: start of the window, in seconds from the start of the run (default: 0)");
+		System.out.println("  -end s: end of the window, in seconds from the start of the run (default: end of the log)");
+		System.out.println("  -op name: only report this operation (default: all)");
+		System.out.println("  -target rate: only report intervals run at this target throughput (default: all)");
+		System.out.println("  -percentiles list: comma separated percentiles to report (default: "+OneMeasurementHdrHistogram.PERCENTILES_DEFAULT+")");
+	}
+
+	/**
+	 * Merge the histograms of the intervals of each operation that start within [start,end) ms.
+	 *
+	 * @param operation the only operation to merge, or null for all of them
+	 */
+	static Map<String,Histogram> replay(BufferedReader in, long start, long end, String operation) throws IOException, DataFormatException
+	{
+		return replay(in,start,end,operation,Double.NaN);
+	}
+
+	/**
+	 * Merge the histograms of the intervals of each operation that start within [start,end) ms and ran at the
+	 * given target throughput.
+	 *
+	 * @param operation the only operation to merge, or null for all of them
+	 * @param target the only target throughput to merge, or NaN for all of them
+	 */
+	static Map<String,Histogram> replay(BufferedReader in, long start, long end, String operation, double target) throws IOException, DataFormatException
+	{
+		Map<String,Histogram> ret=new TreeMap<String,Histogram>();
+		String line;
+		while ((line=in.readLine())!=null)
+		{
+			if (line.startsWith("#") || (line.length()==0))
+			{
+				continue;
+			}
+
+			String[] fields=line.split(",");
+			if (fields.length!=11)
+			{
+				throw new IOException("Not an interval log line: "+line);
+			}
+
+			long intervalstart=Long.parseLong(fields[1]);
+			if ( (intervalstart<start) || (intervalstart>=end) )
+			{
+				continue;
+			}
+			if ( (operation!=null) && (operation.compareTo(fields[0])!=0) )
+			{
+				continue;
+			}
+			if ( !Double.isNaN(target) && (Double.parseDouble(fields[10])!=target) )
+			{
+				continue;
+			}
+
+			Histogram h=Histogram.decodeFromCompressedByteBuffer(ByteBuffer.wrap(Base64.getDecoder().decode(fields[9])),0);
+			Histogram total=ret.get(fields[0]);
+			if (total==null)
+			{
+				ret.put(fields[0],h);
+			}
+			else
+			{
+				total.add(h);
+			}
+		}
+		return ret;
+	}
+
+	public static void main(String[] args)
+	{
+		double start=0;
+		double end=Double.MAX_VALUE;
+		String operation=null;
+		double target=Double.NaN;
+		double[] percentiles=OneMeasurementHdrHistogram.parsePercentiles(OneMeasurementHdrHistogram.PERCENTILES_DEFAULT);
+
+		int argindex=0;
+		try
+		{
+			while ( (argindex<args.length-1) && args[argindex].startsWith("-") )
+			{
+				if (args[argindex].compareTo("-start")==0)
+				{
+					start=Double.parseDouble(args[argindex+1]);
+				}
+				else if (args[argindex].compareTo("-end")==0)
+				{
+					end=Double.parseDouble(args[argindex+1]);
+				}
+				else if (args[argindex].compareTo("-op")==0)
+				{
+					operation=args[argindex+1];
+				}
+				else if (args[argindex].compareTo("-target")==0)
+				{
+					target=Double.parseDouble(args[argindex+1]);
+				}
+				else if (args[argindex].compareTo("-percentiles")==0)
+				{
+					percentiles=OneMeasurementHdrHistogram.parsePercentiles(args[argindex+1]);
+				}
+				else
+				{
+					System.out.println("Unknown option "+args[argindex]);
+					usageMessage();
+					System.exit(0);
+				}
+				argindex+=2;
+			}
+		}
+		catch (NumberFormatException e)
+		{
+			usageMessage();
+			System.exit(0);
+		}
+
+		if (argindex!=args.length-1)
+		{
+			usageMessage();
+			System.exit(0);
+		}
+
+		try
+		{
+			BufferedReader in=new BufferedReader(new FileReader(args[argindex]));
+			Map<String,Histogram> histograms;
+			try
+			{
+				histograms=replay(in,(long)(start*1000),(end==Double.MAX_VALUE) ? Long.MAX_VALUE : (long)(end*1000),operation,target);
+			}
+			finally
+			{
+				in.close();
+			}
+
+			MeasurementsExporter exporter=new TextMeasurementsExporter(System.out);
+			try
+			{
+				for (Map.Entry<String,Histogram> e : histograms.entrySet())
+				{
+					Histogram h=e.getValue();
+					exporter.write(e.getKey(),"Operations",h.getTotalCount());
+					exporter.write(e.getKey(),"AverageLatency(us)",h.getMean());
+					exporter.write(e.getKey(),"MinLatency(us)",h.getMinValue());
+					exporter.write(e.getKey(),"MaxLatency(us)",h.getMaxValue());
+					for (double p : percentiles)
+					{
+						exporter.write(e.getKey(),OneMeasurementHdrHistogram.percentileLabel(p),h.getValueAtPercentile(p));
+					}
+				}
+			}
+			finally
+			{
+				exporter.close();
+			}
+		}
+		catch (Exception e)
+		{
+			e.printStackTrace();
+			System.exit(-1);
+		}
+	}
+}
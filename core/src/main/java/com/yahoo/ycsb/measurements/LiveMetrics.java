@@ -0,0 +1,329 @@
+/**
+ * Copyright (c) 2026 YCSB contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package com.yahoo.ycsb.measurements;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.ObjectName;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.codehaus.jackson.JsonFactory;
+import org.codehaus.jackson.JsonGenerator;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Live metrics of a running benchmark, for monitoring long runs: the current throughput, latency percentiles
+ * of each operation over the last interval, error counts and the number of DB operations in flight.
+ *
+ * Measurements are recorded into lock-free counters and HdrHistogram recorders, separately from the
+ * {@link Measurements} that are reported at the end. A sampler thread turns them into an immutable view
+ * once per interval, and the view is published over HTTP (GET on any path of live.port returns it as JSON)
+ * and over JMX (as com.yahoo.ycsb:type=LiveMetrics). Reading the view changes nothing, so it can be polled
+ * as often as wanted without disturbing the results.
+ */
+public class LiveMetrics implements LiveMetricsMBean
+{
+	/**
+	 * The name of the property for the port to serve the live metrics on over HTTP. Unset by default.
+	 */
+	public static final String PORT="live.port";
+
+	/**
+	 * The name of the property for registering the live metrics as a JMX MBean.
+	 */
+	public static final String JMX="live.jmx";
+
+	public static final String JMX_DEFAULT="false";
+
+	/**
+	 * The name of the property for the sampling interval, in ms.
+	 */
+	public static final String INTERVAL="live.interval";
+
+	public static final String INTERVAL_DEFAULT="1000";
+
+	/**
+	 * The counters of one operation.
+	 */
+	static class Operation
+	{
+		final Recorder recorder;
+		final LongAdder errors=new LongAdder();
+
+		//only used by the sampler thread
+		Histogram interval;
+
+		Operation(long highest, int digits)
+		{
+			recorder=new Recorder(1,highest,digits);
+		}
+	}
+
+	/**
+	 * What was observed over one interval. Immutable once published.
+	 */
+	static class Snapshot
+	{
+		long time;
+		long intervalms;
+		double throughput;
+		long operations;
+		long inflight;
+		long errors;
+		String json;
+	}
+
+	final long _highest;
+	final int _digits;
+	final double[] _percentiles;
+	final long _interval;
+	final Properties _props;
+
+	final ConcurrentHashMap<String,Operation> _operations=new ConcurrentHashMap<String,Operation>();
+	final LongAdder _completed=new LongAdder();
+	final LongAdder _inflight=new LongAdder();
+
+	volatile Snapshot _latest;
+
+	//only used by the sampler thread
+	long _lastsample;
+	long _lastcompleted;
+
+	/**
+	 * Whether the properties ask for live metrics.
+	 */
+	public static boolean isEnabled(Properties props)
+	{
+		return (props.getProperty(PORT)!=null) || Boolean.parseBoolean(props.getProperty(JMX,JMX_DEFAULT));
+	}
+
+	public LiveMetrics(Properties props)
+	{
+		_props=props;
+		_highest=Long.parseLong(props.getProperty(OneMeasurementHdrHistogram.HIGHEST_LATENCY,OneMeasurementHdrHistogram.HIGHEST_LATENCY_DEFAULT));
+		_digits=Integer.parseInt(props.getProperty(OneMeasurementHdrHistogram.SIGNIFICANT_DIGITS,OneMeasurementHdrHistogram.SIGNIFICANT_DIGITS_DEFAULT));
+		_percentiles=OneMeasurementHdrHistogram.parsePercentiles(props.getProperty(OneMeasurementHdrHistogram.PERCENTILES,OneMeasurementHdrHistogram.PERCENTILES_DEFAULT));
+		_interval=Long.parseLong(props.getProperty(INTERVAL,INTERVAL_DEFAULT));
+		_lastsample=System.nanoTime();
+		_latest=sample();
+	}
+
+	/**
+	 * Start sampling, and serve the view over HTTP and/or JMX as configured.
+	 */
+	public void start() throws Exception
+	{
+		Thread sampler=new Thread("LiveMetrics")
+		{
+			public void run()
+			{
+				while (true)
+				{
+					try
+					{
+						Thread.sleep(_interval);
+					}
+					catch (InterruptedException e)
+					{
+						return;
+					}
+					_latest=sample();
+				}
+			}
+		};
+		sampler.setDaemon(true);
+		sampler.start();
+
+		String port=_props.getProperty(PORT);
+		if (port!=null)
+		{
+			HttpServer server=HttpServer.create(new InetSocketAddress(Integer.parseInt(port)),0);
+			server.createContext("/",new HttpHandler()
+			{
+				public void handle(HttpExchange exchange) throws IOException
+				{
+					byte[] body=_latest.json.getBytes("UTF-8");
+					exchange.getResponseHeaders().set("Content-Type","application/json");
+					exchange.sendResponseHeaders(200,body.length);
+					OutputStream out=exchange.getResponseBody();
+					out.write(body);
+					out.close();
+				}
+			});
+			server.start();
+			System.err.println("Live metrics on http://localhost:"+server.getAddress().getPort()+"/");
+		}
+
+		if (Boolean.parseBoolean(_props.getProperty(JMX,JMX_DEFAULT)))
+		{
+			ManagementFactory.getPlatformMBeanServer().registerMBean(this,new ObjectName("com.yahoo.ycsb:type=LiveMetrics"));
+		}
+	}
+
+	Operation getOperation(String operation)
+	{
+		Operation o=_operations.get(operation);
+		if (o==null)
+		{
+			Operation newo=new Operation(_highest,_digits);
+			o=_operations.putIfAbsent(operation,newo);
+			if (o==null)
+			{
+				o=newo;
+			}
+		}
+		return o;
+	}
+
+	/**
+	 * Record a latency, in us.
+	 */
+	public void measure(String operation, int latency)
+	{
+		getOperation(operation).recorder.recordValue(Math.min(Math.max(latency,0),_highest));
+	}
+
+	/**
+	 * Record the return code of an operation. Only errors are counted.
+	 */
+	public void reportReturnCode(String operation, int code)
+	{
+		if (code!=0)
+		{
+			getOperation(operation).errors.increment();
+		}
+	}
+
+	/**
+	 * Called when a DB operation is issued.
+	 */
+	public void beginOperation()
+	{
+		_inflight.increment();
+	}
+
+	/**
+	 * Called when a DB operation completes.
+	 */
+	public void endOperation()
+	{
+		_inflight.decrement();
+		_completed.increment();
+	}
+
+	/**
+	 * Take the interval histograms of all operations and build a new view from them.
+	 */
+	Snapshot sample()
+	{
+		Snapshot s=new Snapshot();
+		long now=System.nanoTime();
+		s.time=System.currentTimeMillis();
+		s.intervalms=(now-_lastsample)/1000000;
+		s.operations=_completed.sum();
+		s.inflight=_inflight.sum();
+		s.throughput=(s.intervalms>0) ? 1000.0*(s.operations-_lastcompleted)/s.intervalms : 0;
+		_lastsample=now;
+		_lastcompleted=s.operations;
+
+		try
+		{
+			ByteArrayOutputStream buf=new ByteArrayOutputStream();
+			JsonGenerator g=new JsonFactory().createJsonGenerator(new OutputStreamWriter(buf,"UTF-8"));
+			g.writeStartObject();
+			g.writeNumberField("time",s.time);
+			g.writeNumberField("intervalms",s.intervalms);
+			g.writeNumberField("throughput",s.throughput);
+			g.writeNumberField("operations",s.operations);
+			g.writeNumberField("inflight",s.inflight);
+			g.writeObjectFieldStart("latencies");
+			for (Map.Entry<String,Operation> e : new TreeMap<String,Operation>(_operations).entrySet())
+			{
+				Operation o=e.getValue();
+				o.interval=o.recorder.getIntervalHistogram(o.interval);
+				long errors=o.errors.sum();
+				s.errors+=errors;
+
+				g.writeObjectFieldStart(e.getKey());
+				g.writeNumberField("Operations",o.interval.getTotalCount());
+				g.writeNumberField("Errors",errors);
+				if (o.interval.getTotalCount()>0)
+				{
+					g.writeNumberField("AverageLatency(us)",o.interval.getMean());
+					g.writeNumberField("MinLatency(us)",o.interval.getMinValue());
+					g.writeNumberField("MaxLatency(us)",o.interval.getMaxValue());
+					for (double p : _percentiles)
+					{
+						g.writeNumberField(OneMeasurementHdrHistogram.percentileLabel(p),o.interval.getValueAtPercentile(p));
+					}
+				}
+				g.writeEndObject();
+			}
+			g.writeEndObject();
+			g.writeNumberField("errors",s.errors);
+			g.writeEndObject();
+			g.close();
+			s.json=buf.toString("UTF-8");
+		}
+		catch (IOException e)
+		{
+			//can't happen when writing to memory
+			throw new RuntimeException(e);
+		}
+		return s;
+	}
+
+	public double getThroughput()
+	{
+		return _latest.throughput;
+	}
+
+	public long getOperations()
+	{
+		return _latest.operations;
+	}
+
+	public long getInFlight()
+	{
+		return _latest.inflight;
+	}
+
+	public long getErrors()
+	{
+		return _latest.errors;
+	}
+
+	public String getSnapshot()
+	{
+		return _latest.json;
+	}
+}
@@ -0,0 +1,49 @@
+/**
+ * Copyright (c) 2026 YCSB contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package com.yahoo.ycsb.measurements;
+
+/**
+ * The JMX view of {@link LiveMetrics}. All values are as of the last sampling interval.
+ */
+public interface LiveMetricsMBean
+{
+	/**
+	 * The DB operations per second completed during the last interval.
+	 */
+	double getThroughput();
+
+	/**
+	 * The DB operations completed since the start.
+	 */
+	long getOperations();
+
+	/**
+	 * The DB operations currently in flight.
+	 */
+	long getInFlight();
+
+	/**
+	 * The DB operations that returned an error since the start.
+	 */
+	long getErrors();
+
+	/**
+	 * The full view, including the latency percentiles of each operation over the last interval, as JSON.
+	 */
+	String getSnapshot();
+}
@@ -19,13 +19,29 @@ package com.yahoo.ycsb.measurements;
 
 import java.io.IOException;
 import java.util.HashMap;
+import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import com.yahoo.ycsb.measurements.exporter.MeasurementsExporter;
 
 /**
  * Collects latency measurements, and reports them when requested.
  * 
+ * Every client thread records into its own OneMeasurement for each operation (a "shard"), so the
+ * measure() path takes no locks and does no CAS. The shards of an operation are only merged when
+ * a status summary is requested or the measurements are exported.
+ *
+ * A thread that is done measuring calls {@link #retireThread()}, which folds its shards into a retired
+ * aggregate per operation and drops them, so short-lived threads do not pile up shards. HdrHistogram shards
+ * also fold their values into the retired aggregate whenever they are merged, rather than keeping a
+ * histogram of their own. Merging a shard
+ * that its thread is still writing reads plain fields without synchronization, so status summaries are
+ * approximate. Exact values are only guaranteed once every thread that measured has retired, e.g. after
+ * the client threads are joined, as the lock taken by retireThread() publishes their writes.
+ *
  * @author cooperb
  *
  */
@@ -56,8 +72,45 @@ public class Measurements
 		return singleton;
 	}
 
-	HashMap<String,OneMeasurement> data;
-	boolean histogram=true;
+	/**
+	 * Retire the calling thread from the singleton Measurements object, if there is one. See
+	 * {@link #retireThread()}.
+	 */
+	public static void retire()
+	{
+		Measurements m;
+		synchronized (Measurements.class)
+		{
+			m=singleton;
+		}
+		if (m!=null)
+		{
+			m.retireThread();
+		}
+	}
+
+	//all shards ever created for each operation, in the order the threads first reported it
+	ConcurrentHashMap<String,CopyOnWriteArrayList<OneMeasurement>> shards;
+
+	//the shards owned by the calling thread, keyed by operation
+	ThreadLocal<HashMap<String,OneMeasurement>> localshards;
+
+	//the shards of threads that have retired, folded together per operation; guarded by this
+	HashMap<String,OneMeasurement> retired;
+
+	//merged view of each operation used for status summaries, so the status window survives between calls
+	HashMap<String,OneMeasurement> summaries;
+
+	String measurementtype;
+
+	//null unless live metrics were asked for
+	LiveMetrics live;
+
+	//null unless an interval log was asked for
+	IntervalLog intervallog;
+
+	//the target throughput the client is running at, or 0 for none
+	volatile double target;
 
 	private Properties _props;
 	
@@ -66,50 +119,197 @@ public class Measurements
        */
 	public Measurements(Properties props)
 	{
-		data=new HashMap<String,OneMeasurement>();
-		
+		shards=new ConcurrentHashMap<String,CopyOnWriteArrayList<OneMeasurement>>();
+		localshards=new ThreadLocal<HashMap<String,OneMeasurement>>()
+		{
+			protected HashMap<String,OneMeasurement> initialValue()
+			{
+				return new HashMap<String,OneMeasurement>();
+			}
+		};
+		retired=new HashMap<String,OneMeasurement>();
+		summaries=new HashMap<String,OneMeasurement>();
+
 		_props=props;
-		
-		if (_props.getProperty(MEASUREMENT_TYPE, MEASUREMENT_TYPE_DEFAULT).compareTo("histogram")==0)
+
+		measurementtype=_props.getProperty(MEASUREMENT_TYPE, MEASUREMENT_TYPE_DEFAULT);
+
+		if (LiveMetrics.isEnabled(_props))
 		{
-			histogram=true;
+			try
+			{
+				LiveMetrics l=new LiveMetrics(_props);
+				l.start();
+				live=l;
+			}
+			catch (Exception e)
+			{
+				System.err.println("Could not start live metrics, continuing without: "+e);
+			}
 		}
-		else
+
+		if (IntervalLog.isEnabled(_props))
 		{
-			histogram=false;
+			try
+			{
+				IntervalLog l=new IntervalLog(_props);
+				l.start();
+				intervallog=l;
+			}
+			catch (IOException e)
+			{
+				System.err.println("Could not open the interval log, continuing without: "+e);
+			}
 		}
 	}
 	
 	OneMeasurement constructOneMeasurement(String name)
 	{
-		if (histogram)
+		if (measurementtype.compareTo("histogram")==0)
 		{
 			return new OneMeasurementHistogram(name,_props);
 		}
+		else if (measurementtype.compareTo("hdrhistogram")==0)
+		{
+			return new OneMeasurementHdrHistogram(name,_props);
+		}
 		else
 		{
 			return new OneMeasurementTimeSeries(name,_props);
 		}
 	}
 
-      /**
-       * Report a single value of a single metric. E.g. for read latency, operation="READ" and latency is the measured value.
-       */
-	public synchronized void measure(String operation, int latency)
+	/**
+	 * Create a shard for the calling thread.
+	 */
+	OneMeasurement constructShard(String name)
 	{
-		if (!data.containsKey(operation))
+		if (measurementtype.compareTo("hdrhistogram")==0)
 		{
-			synchronized(this)
+			return new OneMeasurementHdrHistogram(name,_props,(OneMeasurementHdrHistogram)retiredAggregate(name));
+		}
+		return constructOneMeasurement(name);
+	}
+
+	/**
+	 * Return the retired aggregate of an operation, creating it the first time.
+	 */
+	synchronized OneMeasurement retiredAggregate(String operation)
+	{
+		OneMeasurement m=retired.get(operation);
+		if (m==null)
+		{
+			m=constructOneMeasurement(operation);
+			retired.put(operation,m);
+		}
+		return m;
+	}
+
+	/**
+	 * Return the calling thread's shard for an operation, creating and registering it the first time.
+	 */
+	OneMeasurement getShard(String operation)
+	{
+		HashMap<String,OneMeasurement> local=localshards.get();
+		OneMeasurement m=local.get(operation);
+		if (m==null)
+		{
+			m=constructShard(operation);
+			CopyOnWriteArrayList<OneMeasurement> list=shards.get(operation);
+			if (list==null)
 			{
-				if (!data.containsKey(operation))
+				CopyOnWriteArrayList<OneMeasurement> newlist=new CopyOnWriteArrayList<OneMeasurement>();
+				list=shards.putIfAbsent(operation,newlist);
+				if (list==null)
 				{
-					data.put(operation,constructOneMeasurement(operation));
+					list=newlist;
 				}
 			}
+			list.add(m);
+			local.put(operation,m);
+		}
+		return m;
+	}
+
+	/**
+	 * Fold the calling thread's shards into the retired aggregates and drop them. The thread must not take
+	 * any more measurements afterwards, or they go to new shards.
+	 */
+	public synchronized void retireThread()
+	{
+		HashMap<String,OneMeasurement> local=localshards.get();
+		for (Map.Entry<String,OneMeasurement> e : local.entrySet())
+		{
+			retiredAggregate(e.getKey()).merge(e.getValue());
+			shards.get(e.getKey()).remove(e.getValue());
+		}
+		localshards.remove();
+	}
+
+	/**
+	 * Merge the live shards and the retired aggregate of an operation into m. The shards come first, as
+	 * merging an HdrHistogram shard folds its latest values into the retired aggregate.
+	 */
+	synchronized void mergeInto(OneMeasurement m, String operation)
+	{
+		for (OneMeasurement shard : shards.get(operation))
+		{
+			m.merge(shard);
+		}
+		OneMeasurement r=retired.get(operation);
+		if (r!=null)
+		{
+			m.merge(r);
 		}
+	}
+
+	/**
+	 * Merge all the measurements of an operation into a new OneMeasurement.
+	 */
+	OneMeasurement snapshot(String operation)
+	{
+		OneMeasurement m=constructOneMeasurement(operation);
+		mergeInto(m,operation);
+		return m;
+	}
+
+	/**
+	 * Set the target throughput the client is running at from now on, in operations per second, to tag the
+	 * measurement intervals with.
+	 */
+	public void setTarget(double target)
+	{
+		this.target=target;
+		if (intervallog!=null)
+		{
+			intervallog.setTarget(target);
+		}
+	}
+
+	/**
+	 * The target throughput the client is running at, in operations per second, or 0 if it is not throttled.
+	 */
+	public double getTarget()
+	{
+		return target;
+	}
+
+      /**
+       * Report a single value of a single metric. E.g. for read latency, operation="READ" and latency is the measured value.
+       */
+	public void measure(String operation, int latency)
+	{
 		try
 		{
-			data.get(operation).measure(latency);
+			getShard(operation).measure(latency);
+			if (live!=null)
+			{
+				live.measure(operation,latency);
+			}
+			if (intervallog!=null)
+			{
+				intervallog.measure(operation,latency);
+			}
 		}
 		catch (java.lang.ArrayIndexOutOfBoundsException e)
 		{
@@ -124,19 +324,90 @@ public class Measurements
        */
 	public void reportReturnCode(String operation, int code)
 	{
-		if (!data.containsKey(operation))
+		getShard(operation).reportReturnCode(code);
+		if (live!=null)
+		{
+			live.reportReturnCode(operation,code);
+		}
+	}
+
+	/**
+	 * Note that a DB operation was issued, for the in-flight count of the live metrics.
+	 */
+	public void beginOperation()
+	{
+		if (live!=null)
+		{
+			live.beginOperation();
+		}
+	}
+
+	/**
+	 * Note that a DB operation issued with {@link #beginOperation()} has completed.
+	 */
+	public void endOperation()
+	{
+		if (live!=null)
+		{
+			live.endOperation();
+		}
+	}
+	
+	/**
+	 * Discard everything measured so far, e.g. at the end of a warm-up phase. No measurements may be taken
+	 * while this runs.
+	 *
+	 * @param keep operations whose measurements are kept
+	 */
+	public synchronized void reset(Set<String> keep)
+	{
+		for (Map.Entry<String,CopyOnWriteArrayList<OneMeasurement>> e : shards.entrySet())
 		{
-			synchronized(this)
+			if (keep.contains(e.getKey()))
 			{
-				if (!data.containsKey(operation))
-				{
-					data.put(operation,constructOneMeasurement(operation));
-				}
+				continue;
+			}
+			for (OneMeasurement m : e.getValue())
+			{
+				m.reset();
 			}
+			OneMeasurement r=retired.get(e.getKey());
+			if (r!=null)
+			{
+				r.reset();
+			}
+			summaries.remove(e.getKey());
 		}
-		data.get(operation).reportReturnCode(code);
 	}
-	
+
+	/**
+	 * Return the merged measurements of each operation, e.g. to send them to another process.
+	 */
+	public HashMap<String,OneMeasurement> snapshots()
+	{
+		HashMap<String,OneMeasurement> ret=new HashMap<String,OneMeasurement>();
+		for (String operation : shards.keySet())
+		{
+			ret.put(operation,snapshot(operation));
+		}
+		return ret;
+	}
+
+	/**
+	 * Add a measurement recorded elsewhere, e.g. by another process, as an extra shard of its operation. It is
+	 * merged with the local shards when results are reported, so it must be of the configured measurement type.
+	 */
+	public void addShard(OneMeasurement m)
+	{
+		CopyOnWriteArrayList<OneMeasurement> newlist=new CopyOnWriteArrayList<OneMeasurement>();
+		CopyOnWriteArrayList<OneMeasurement> list=shards.putIfAbsent(m.getName(),newlist);
+		if (list==null)
+		{
+			list=newlist;
+		}
+		list.add(m);
+	}
+
   /**
    * Export the current measurements to a suitable format.
    * 
@@ -145,23 +416,31 @@ public class Measurements
    */
   public void exportMeasurements(MeasurementsExporter exporter) throws IOException
   {
-    for (OneMeasurement measurement : data.values())
+    for (String operation : shards.keySet())
     {
-      measurement.exportMeasurements(exporter);
+      snapshot(operation).exportMeasurements(exporter);
     }
   }
 	
       /**
        * Return a one line summary of the measurements.
        */
-	public String getSummary()
+	public synchronized String getSummary()
 	{
 		String ret="";
-		for (OneMeasurement m : data.values())
+		for (String operation : shards.keySet())
 		{
+			OneMeasurement m=summaries.get(operation);
+			if (m==null)
+			{
+				m=constructOneMeasurement(operation);
+				summaries.put(operation,m);
+			}
+			m.reset();
+			mergeInto(m,operation);
 			ret+=m.getSummary()+" ";
 		}
-		
+
 		return ret;
 	}
 }
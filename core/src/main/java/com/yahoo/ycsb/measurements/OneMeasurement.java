@@ -18,13 +18,19 @@
 package com.yahoo.ycsb.measurements;
 
 import java.io.IOException;
+import java.io.Serializable;
 
 import com.yahoo.ycsb.measurements.exporter.MeasurementsExporter;
 
 /**
  * A single measured metric (such as READ LATENCY)
+ *
+ * Measurements are Serializable so that worker processes can send them to a {@link com.yahoo.ycsb.Coordinator}
+ * to be merged.
  */
-public abstract class OneMeasurement {
+public abstract class OneMeasurement implements Serializable {
+	private static final long serialVersionUID=1L;
+
 
 	String _name;
 	
@@ -43,8 +49,26 @@ public abstract class OneMeasurement {
 
 	public abstract void measure(int latency);
 
+	/**
+	 * Return a one line summary of what was measured since the last call to getSummary().
+	 */
 	public abstract String getSummary();
 
+	/**
+	 * Fold the values recorded by another measurement of the same kind into this one. {@link Measurements}
+	 * keeps one measurement per client thread and uses this to combine them when results are reported.
+	 * The other measurement is only read, and may still be written to by its own thread.
+	 *
+	 * @param other The measurement to add to this one.
+	 */
+	public abstract void merge(OneMeasurement other);
+
+	/**
+	 * Discard all recorded values, so that the measurement can be rebuilt with {@link #merge(OneMeasurement)}.
+	 * The bookkeeping used by getSummary() is kept, so the status window carries on across a reset.
+	 */
+	public abstract void reset();
+
   /**
    * Export the current measurements to a suitable format.
    * 
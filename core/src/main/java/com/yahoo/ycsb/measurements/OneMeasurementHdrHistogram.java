@@ -0,0 +1,313 @@
+/**
+ * Copyright (c) 2026 YCSB contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package com.yahoo.ycsb.measurements;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.text.DecimalFormat;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.SingleWriterRecorder;
+
+import com.yahoo.ycsb.measurements.exporter.MeasurementsExporter;
+
+/**
+ * Take measurements and maintain an HdrHistogram of a given metric, such as READ LATENCY.
+ *
+ * Unlike {@link OneMeasurementHistogram}, values are kept at microsecond resolution with a bounded relative
+ * error over the whole trackable range, in a footprint that is fixed when the measurement is created. Values
+ * above the highest trackable latency are recorded as that latency.
+ *
+ * An instance is written by a single client thread only (see {@link Measurements}), into a SingleWriterRecorder
+ * that takes no locks. Whenever the values are read, e.g. to merge them while the thread is still recording,
+ * the recorder's interval histogram is first folded into a total, which gives a consistent snapshot of the
+ * values recorded so far. A per-thread shard has no total of its own: it folds into its sink, the aggregate
+ * of its operation that retired shards are merged into, so a shard only holds the recorder, which is created
+ * on the first value and sized to the values recorded.
+ */
+public class OneMeasurementHdrHistogram extends OneMeasurement
+{
+	private static final long serialVersionUID=1L;
+
+	/**
+	 * The highest latency, in microseconds, that is tracked with full precision.
+	 */
+	public static final String HIGHEST_LATENCY="hdrhistogram.highestlatency";
+	public static final String HIGHEST_LATENCY_DEFAULT="60000000";
+
+	/**
+	 * The number of significant decimal digits kept for each value; 3 means a relative error of at most 0.1%.
+	 */
+	public static final String SIGNIFICANT_DIGITS="hdrhistogram.significantdigits";
+	public static final String SIGNIFICANT_DIGITS_DEFAULT="3";
+
+	/**
+	 * Comma separated list of the percentiles to export.
+	 */
+	public static final String PERCENTILES="hdrhistogram.percentiles";
+	public static final String PERCENTILES_DEFAULT="50,90,99,99.9,99.99";
+
+	long _highest;
+	int _digits;
+	double[] _percentiles;
+
+	//recorded into by the owning thread, once it has recorded a value
+	transient volatile SingleWriterRecorder recorder;
+
+	//where the recorder is folded into: this measurement, or for a shard the aggregate of its operation
+	transient OneMeasurementHdrHistogram sink;
+
+	//the values folded into this measurement, or null for a shard; guarded by this
+	Histogram histogram;
+
+	//the last interval histogram taken from the recorder, handed back to it for reuse
+	transient Histogram interval;
+
+	long totallatency;
+
+	//totals as of the last status summary, so that getSummary() only reports the window since then
+	long windowoperations;
+	long windowtotallatency;
+
+	ConcurrentHashMap<Integer,int[]> returncodes;
+
+	public OneMeasurementHdrHistogram(String name, Properties props)
+	{
+		this(name,props,null);
+	}
+
+	/**
+	 * @param sink the aggregate to fold the recorded values into, or null to keep them in this measurement
+	 */
+	OneMeasurementHdrHistogram(String name, Properties props, OneMeasurementHdrHistogram sink)
+	{
+		super(name);
+		_highest=Long.parseLong(props.getProperty(HIGHEST_LATENCY,HIGHEST_LATENCY_DEFAULT));
+		_digits=Integer.parseInt(props.getProperty(SIGNIFICANT_DIGITS,SIGNIFICANT_DIGITS_DEFAULT));
+		_percentiles=parsePercentiles(props.getProperty(PERCENTILES,PERCENTILES_DEFAULT));
+		if (sink==null)
+		{
+			this.sink=this;
+			histogram=new Histogram(1,_highest,_digits);
+		}
+		else
+		{
+			this.sink=sink;
+		}
+		totallatency=0;
+		windowoperations=0;
+		windowtotallatency=0;
+		returncodes=new ConcurrentHashMap<Integer,int[]>();
+	}
+
+	static double[] parsePercentiles(String list)
+	{
+		String[] parts=list.split(",");
+		double[] ret=new double[parts.length];
+		for (int i=0; i<parts.length; i++)
+		{
+			ret[i]=Double.parseDouble(parts[i].trim());
+			if ( (ret[i]<=0) || (ret[i]>100) )
+			{
+				throw new IllegalArgumentException("Percentile "+parts[i].trim()+" in "+PERCENTILES+" is not in (0,100]");
+			}
+		}
+		return ret;
+	}
+
+	/**
+	 * Return the label used when exporting a percentile, e.g. "99.9thPercentileLatency(us)".
+	 */
+	static String percentileLabel(double percentile)
+	{
+		String p;
+		if (percentile==Math.floor(percentile))
+		{
+			p=Long.toString((long)percentile);
+		}
+		else
+		{
+			p=Double.toString(percentile);
+		}
+
+		String suffix="th";
+		if (!p.endsWith("11") && !p.endsWith("12") && !p.endsWith("13"))
+		{
+			if (p.endsWith("1"))
+			{
+				suffix="st";
+			}
+			else if (p.endsWith("2"))
+			{
+				suffix="nd";
+			}
+			else if (p.endsWith("3"))
+			{
+				suffix="rd";
+			}
+		}
+		return p+suffix+"PercentileLatency(us)";
+	}
+
+	@Override
+	public void reportReturnCode(int code)
+	{
+		Integer Icode=code;
+		int[] val=returncodes.get(Icode);
+		if (val==null)
+		{
+			val=new int[1];
+			returncodes.put(Icode,val);
+		}
+		val[0]++;
+	}
+
+	@Override
+	public void measure(int latency)
+	{
+		SingleWriterRecorder r=recorder;
+		if (r==null)
+		{
+			//auto-resizing, so that it only grows as far as the values recorded
+			r=new SingleWriterRecorder(_digits);
+			recorder=r;
+		}
+		r.recordValue(Math.min(Math.max(latency,0),_highest));
+		totallatency+=latency;
+	}
+
+	/**
+	 * Fold the values recorded since the last call into the sink's histogram.
+	 */
+	synchronized void sample()
+	{
+		SingleWriterRecorder r=recorder;
+		if (r==null)
+		{
+			return;
+		}
+		interval=r.getIntervalHistogram(interval);
+		synchronized (sink)
+		{
+			sink.histogram.add(interval);
+		}
+	}
+
+	@Override
+	public synchronized void exportMeasurements(MeasurementsExporter exporter) throws IOException
+	{
+		sample();
+		long operations=histogram.getTotalCount();
+		exporter.write(getName(), "Operations", operations);
+		exporter.write(getName(), "AverageLatency(us)", (((double)totallatency)/((double)operations)));
+		exporter.write(getName(), "MinLatency(us)", (operations==0 ? -1 : histogram.getMinValue()));
+		exporter.write(getName(), "MaxLatency(us)", (operations==0 ? -1 : histogram.getMaxValue()));
+
+		for (double p : _percentiles)
+		{
+			exporter.write(getName(), percentileLabel(p), histogram.getValueAtPercentile(p));
+		}
+
+		for (Integer I : returncodes.keySet())
+		{
+			int[] val=returncodes.get(I);
+			exporter.write(getName(), "Return="+I, val[0]);
+		}
+	}
+
+	@Override
+	public synchronized String getSummary()
+	{
+		sample();
+		long operations=histogram.getTotalCount();
+		long ops=operations-windowoperations;
+		if (ops<=0)
+		{
+			return "";
+		}
+		DecimalFormat d = new DecimalFormat("#.##");
+		double report=((double)(totallatency-windowtotallatency))/((double)ops);
+		windowtotallatency=totallatency;
+		windowoperations=operations;
+		return "["+getName()+" AverageLatency(us)="+d.format(report)+"]";
+	}
+
+	@Override
+	public void merge(OneMeasurement other)
+	{
+		OneMeasurementHdrHistogram h=(OneMeasurementHdrHistogram)other;
+
+		//a shard's values go to its sink, which is merged in its own right (see Measurements.mergeInto)
+		h.sample();
+		if (h.sink==h)
+		{
+			synchronized (h)
+			{
+				histogram.add(h.histogram);
+			}
+		}
+		totallatency+=h.totallatency;
+
+		for (Map.Entry<Integer,int[]> e : h.returncodes.entrySet())
+		{
+			int[] val=returncodes.get(e.getKey());
+			if (val==null)
+			{
+				val=new int[1];
+				returncodes.put(e.getKey(),val);
+			}
+			val[0]+=e.getValue()[0];
+		}
+	}
+
+	/**
+	 * Discard the values recorded so far. The recorder belongs to the thread that measures, so this must only
+	 * be called while that thread is not measuring, e.g. while the warm-up holds every thread at its barrier.
+	 */
+	@Override
+	public synchronized void reset()
+	{
+		SingleWriterRecorder r=recorder;
+		if (r!=null)
+		{
+			r.reset();
+		}
+		if (histogram!=null)
+		{
+			histogram.reset();
+		}
+		totallatency=0;
+		returncodes.clear();
+	}
+
+	private synchronized void writeObject(ObjectOutputStream out) throws IOException
+	{
+		sample();
+		out.defaultWriteObject();
+	}
+
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException
+	{
+		in.defaultReadObject();
+		sink=this;
+	}
+}
@@ -19,20 +19,25 @@ package com.yahoo.ycsb.measurements;
 
 import java.io.IOException;
 import java.text.DecimalFormat;
-import java.util.HashMap;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.yahoo.ycsb.measurements.exporter.MeasurementsExporter;
 
 
 /**
  * Take measurements and maintain a histogram of a given metric, such as READ LATENCY.
+ *
+ * An instance is written by a single client thread only (see {@link Measurements}), so recording takes no locks.
  * 
  * @author cooperb
  *
  */
 public class OneMeasurementHistogram extends OneMeasurement
 {
+	private static final long serialVersionUID=1L;
+
 	public static final String BUCKETS="histogram.buckets";
 	public static final String BUCKETS_DEFAULT="1000";
 
@@ -42,13 +47,13 @@ public class OneMeasurementHistogram extends OneMeasurement
 	int operations;
 	long totallatency;
 	
-	//keep a windowed version of these stats for printing status
+	//totals as of the last status summary, so that getSummary() only reports the window since then
 	int windowoperations;
 	long windowtotallatency;
-	
+
 	int min;
 	int max;
-	HashMap<Integer,int[]> returncodes;
+	ConcurrentHashMap<Integer,int[]> returncodes;
 
 	public OneMeasurementHistogram(String name, Properties props)
 	{
@@ -62,29 +67,29 @@ public class OneMeasurementHistogram extends OneMeasurement
 		windowtotallatency=0;
 		min=-1;
 		max=-1;
-		returncodes=new HashMap<Integer,int[]>();
+		returncodes=new ConcurrentHashMap<Integer,int[]>();
 	}
 
 	/* (non-Javadoc)
 	 * @see com.yahoo.ycsb.OneMeasurement#reportReturnCode(int)
 	 */
-	public synchronized void reportReturnCode(int code)
+	public void reportReturnCode(int code)
 	{
 		Integer Icode=code;
-		if (!returncodes.containsKey(Icode))
+		int[] val=returncodes.get(Icode);
+		if (val==null)
 		{
-			int[] val=new int[1];
-			val[0]=0;
+			val=new int[1];
 			returncodes.put(Icode,val);
 		}
-		returncodes.get(Icode)[0]++;
+		val[0]++;
 	}
 
 
 	/* (non-Javadoc)
 	 * @see com.yahoo.ycsb.OneMeasurement#measure(int)
 	 */
-	public synchronized void measure(int latency)
+	public void measure(int latency)
 	{
 		if (latency/1000>=_buckets)
 		{
@@ -96,8 +101,6 @@ public class OneMeasurementHistogram extends OneMeasurement
 		}
 		operations++;
 		totallatency+=latency;
-		windowoperations++;
-		windowtotallatency+=latency;
 
 		if ( (min<0) || (latency<min) )
 		{
@@ -151,15 +154,68 @@ public class OneMeasurementHistogram extends OneMeasurement
 
 	@Override
 	public String getSummary() {
-		if (windowoperations==0)
+		int ops=operations-windowoperations;
+		if (ops<=0)
 		{
 			return "";
 		}
 		DecimalFormat d = new DecimalFormat("#.##");
-		double report=((double)windowtotallatency)/((double)windowoperations);
-		windowtotallatency=0;
-		windowoperations=0;
+		double report=((double)(totallatency-windowtotallatency))/((double)ops);
+		windowtotallatency=totallatency;
+		windowoperations=operations;
 		return "["+getName()+" AverageLatency(us)="+d.format(report)+"]";
 	}
 
+	@Override
+	public void merge(OneMeasurement other)
+	{
+		OneMeasurementHistogram h=(OneMeasurementHistogram)other;
+
+		int buckets=Math.min(_buckets,h._buckets);
+		for (int i=0; i<buckets; i++)
+		{
+			histogram[i]+=h.histogram[i];
+		}
+		for (int i=buckets; i<h._buckets; i++)
+		{
+			histogramoverflow+=h.histogram[i];
+		}
+		histogramoverflow+=h.histogramoverflow;
+		operations+=h.operations;
+		totallatency+=h.totallatency;
+
+		if ( (h.min>=0) && ( (min<0) || (h.min<min) ) )
+		{
+			min=h.min;
+		}
+
+		if (h.max>max)
+		{
+			max=h.max;
+		}
+
+		for (Map.Entry<Integer,int[]> e : h.returncodes.entrySet())
+		{
+			int[] val=returncodes.get(e.getKey());
+			if (val==null)
+			{
+				val=new int[1];
+				returncodes.put(e.getKey(),val);
+			}
+			val[0]+=e.getValue()[0];
+		}
+	}
+
+	@Override
+	public void reset()
+	{
+		histogram=new int[_buckets];
+		histogramoverflow=0;
+		operations=0;
+		totallatency=0;
+		min=-1;
+		max=-1;
+		returncodes.clear();
+	}
+
 }
@@ -18,107 +18,125 @@
 package com.yahoo.ycsb.measurements;
 
 import java.io.IOException;
+import java.io.Serializable;
 import java.text.DecimalFormat;
-import java.util.HashMap;
+import java.util.Map;
 import java.util.Properties;
+import java.util.TreeMap;
 import java.util.Vector;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.yahoo.ycsb.measurements.exporter.MeasurementsExporter;
 
-class SeriesUnit
+class SeriesUnit implements Serializable
 {
+	private static final long serialVersionUID=1L;
+
 	/**
 	 * @param time
-	 * @param average
+	 * @param sum
+	 * @param count
 	 */
-	public SeriesUnit(long time, double average) {
+	public SeriesUnit(long time, long sum, int count) {
 		this.time = time;
-		this.average = average;
+		this.sum = sum;
+		this.count = count;
 	}
 	public long time;
-	public double average; 
+	public long sum;
+	public int count;
+
+	public double average() {
+		return ((double)sum)/((double)count);
+	}
 }
 
 /**
  * A time series measurement of a metric, such as READ LATENCY.
+ *
+ * An instance is written by a single client thread only (see {@link Measurements}). Units are aligned to
+ * multiples of the granularity in wall clock time, so that the series kept by different threads line up
+ * when they are merged.
  */
-public class OneMeasurementTimeSeries extends OneMeasurement 
+public class OneMeasurementTimeSeries extends OneMeasurement
 {
+	private static final long serialVersionUID=1L;
+
 	/**
 	 * Granularity for time series; measurements will be averaged in chunks of this granularity. Units are milliseconds.
 	 */
 	public static final String GRANULARITY="timeseries.granularity";
-	
+
 	public static final String GRANULARITY_DEFAULT="1000";
-	
+
 	int _granularity;
 	Vector<SeriesUnit> _measurements;
-	
+
 	long start=-1;
 	long currentunit=-1;
 	int count=0;
-	int sum=0;
+	long sum=0;
 	int operations=0;
 	long totallatency=0;
-	
-	//keep a windowed version of these stats for printing status
+
+	//totals as of the last status summary, so that getSummary() only reports the window since then
 	int windowoperations=0;
 	long windowtotallatency=0;
-	
+
 	int min=-1;
 	int max=-1;
 
-	private HashMap<Integer, int[]> returncodes;
-	
+	private ConcurrentHashMap<Integer, int[]> returncodes;
+
 	public OneMeasurementTimeSeries(String name, Properties props)
 	{
 		super(name);
 		_granularity=Integer.parseInt(props.getProperty(GRANULARITY,GRANULARITY_DEFAULT));
 		_measurements=new Vector<SeriesUnit>();
-		returncodes=new HashMap<Integer,int[]>();
+		returncodes=new ConcurrentHashMap<Integer,int[]>();
 	}
-	
+
 	void checkEndOfUnit(boolean forceend)
 	{
 		long now=System.currentTimeMillis();
-		
+
 		if (start<0)
 		{
-			currentunit=0;
 			start=now;
+			currentunit=(now/_granularity)*_granularity;
 		}
-		
-		long unit=((now-start)/_granularity)*_granularity;
-		
+
+		long unit=(now/_granularity)*_granularity;
+
 		if ( (unit>currentunit) || (forceend) )
 		{
-			double avg=((double)sum)/((double)count);
-			_measurements.add(new SeriesUnit(currentunit,avg));
-			
+			if (count>0)
+			{
+				_measurements.add(new SeriesUnit(currentunit,sum,count));
+			}
+
 			currentunit=unit;
-			
+
 			count=0;
 			sum=0;
 		}
 	}
-	
+
 	@Override
-	public void measure(int latency) 
+	public void measure(int latency)
 	{
 		checkEndOfUnit(false);
-		
+
 		count++;
 		sum+=latency;
 		totallatency+=latency;
 		operations++;
-		windowoperations++;
-		windowtotallatency+=latency;
-		
+
 		if (latency>max)
 		{
 			max=latency;
 		}
-		
+
 		if ( (latency<min) || (min<0) )
 		{
 			min=latency;
@@ -136,44 +154,133 @@ public class OneMeasurementTimeSeries extends OneMeasurement
     exporter.write(getName(), "MinLatency(us)", min);
     exporter.write(getName(), "MaxLatency(us)", max);
 
-    //TODO: 95th and 99th percentile latency
+    //for percentiles over time, log interval histograms with IntervalLog
 
     for (Integer I : returncodes.keySet())
     {
       int[] val=returncodes.get(I);
       exporter.write(getName(), "Return="+I, val[0]);
-    }     
+    }
 
+    //report unit times relative to the unit the first measurement fell into
+    long base=(start/_granularity)*_granularity;
     for (SeriesUnit unit : _measurements)
     {
-      exporter.write(getName(), Long.toString(unit.time), unit.average);
+      exporter.write(getName(), Long.toString(unit.time-base), unit.average());
     }
   }
-	
+
 	@Override
 	public void reportReturnCode(int code) {
 		Integer Icode=code;
-		if (!returncodes.containsKey(Icode))
+		int[] val=returncodes.get(Icode);
+		if (val==null)
 		{
-			int[] val=new int[1];
-			val[0]=0;
+			val=new int[1];
 			returncodes.put(Icode,val);
 		}
-		returncodes.get(Icode)[0]++;
-
+		val[0]++;
 	}
 
 	@Override
 	public String getSummary() {
-		if (windowoperations==0)
+		int ops=operations-windowoperations;
+		if (ops<=0)
 		{
 			return "";
 		}
 		DecimalFormat d = new DecimalFormat("#.##");
-		double report=((double)windowtotallatency)/((double)windowoperations);
-		windowtotallatency=0;
-		windowoperations=0;
+		double report=((double)(totallatency-windowtotallatency))/((double)ops);
+		windowtotallatency=totallatency;
+		windowoperations=operations;
 		return "["+getName()+" AverageLatency(us)="+d.format(report)+"]";
 	}
 
+	@Override
+	public void merge(OneMeasurement other)
+	{
+		OneMeasurementTimeSeries t=(OneMeasurementTimeSeries)other;
+
+		TreeMap<Long,SeriesUnit> units=new TreeMap<Long,SeriesUnit>();
+		for (SeriesUnit unit : _measurements)
+		{
+			units.put(unit.time,unit);
+		}
+
+		//the other series is appended to by its own thread, so copy it under the Vector's lock
+		SeriesUnit[] otherunits;
+		synchronized (t._measurements)
+		{
+			otherunits=t._measurements.toArray(new SeriesUnit[t._measurements.size()]);
+		}
+		for (SeriesUnit unit : otherunits)
+		{
+			addUnit(units,unit.time,unit.sum,unit.count);
+		}
+		//include the unit the other series is still filling
+		if (t.count>0)
+		{
+			addUnit(units,t.currentunit,t.sum,t.count);
+		}
+
+		_measurements=new Vector<SeriesUnit>(units.values());
+
+		if ( (t.start>=0) && ( (start<0) || (t.start<start) ) )
+		{
+			start=t.start;
+		}
+		operations+=t.operations;
+		totallatency+=t.totallatency;
+
+		if ( (t.min>=0) && ( (min<0) || (t.min<min) ) )
+		{
+			min=t.min;
+		}
+
+		if (t.max>max)
+		{
+			max=t.max;
+		}
+
+		for (Map.Entry<Integer,int[]> e : t.returncodes.entrySet())
+		{
+			int[] val=returncodes.get(e.getKey());
+			if (val==null)
+			{
+				val=new int[1];
+				returncodes.put(e.getKey(),val);
+			}
+			val[0]+=e.getValue()[0];
+		}
+	}
+
+	private static void addUnit(TreeMap<Long,SeriesUnit> units, long time, long sum, int count)
+	{
+		SeriesUnit unit=units.get(time);
+		if (unit==null)
+		{
+			units.put(time,new SeriesUnit(time,sum,count));
+		}
+		else
+		{
+			unit.sum+=sum;
+			unit.count+=count;
+		}
+	}
+
+	@Override
+	public void reset()
+	{
+		_measurements=new Vector<SeriesUnit>();
+		start=-1;
+		currentunit=-1;
+		count=0;
+		sum=0;
+		operations=0;
+		totallatency=0;
+		min=-1;
+		max=-1;
+		returncodes.clear();
+	}
+
 }
@@ -0,0 +1,126 @@
+/**
+ * Copyright (c) 2026 YCSB contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+package com.yahoo.ycsb.trace;
+
+import java.nio.charset.Charset;
+
+/**
+ * The binary trace format shared by TraceWriter and TraceReader.
+ * <p>
+ * A trace file starts with a HEADER_SIZE byte header: the MAGIC bytes, the format VERSION, the flags and the
+ * block size, all big-endian. Fixed-size blocks follow. Each block starts with an int holding the number of bytes
+ * used in the block (including the int itself), followed by whole records; a record never spans two blocks, and
+ * only the last block may be shorter than the block size in the file. Fixed blocks let readers split a trace
+ * between threads by block number, without scanning it first and without sharing a position.
+ * </p>
+ * <p>
+ * A record is:
+ * </p>
+ * <UL>
+ * <LI>timestamp (long): nanoseconds since the trace's first operation, only if FLAG_TIMESTAMPS is set
+ * <LI>thread (unsigned short): the recording thread that issued the operation, only if FLAG_THREADS is set
+ * <LI>op (byte): READ, UPDATE, INSERT, SCAN or DELETE
+ * <LI>field mask (long): bit i set for field "field"+i, or 0 for all fields
+ * <LI>value size (int): bytes per field written for UPDATE and INSERT, the record count for SCAN
+ * <LI>key length (unsigned short) followed by the UTF-8 bytes of the key
+ * </UL>
+ */
+public final class Trace
+{
+	public static final byte[] MAGIC={'Y','C','S','B','T','R','C','E'};
+	public static final int VERSION=1;
+	public static final int HEADER_SIZE=64;
+	public static final int DEFAULT_BLOCK_SIZE=65536;
+
+	public static final int FLAG_TIMESTAMPS=1;
+	public static final int FLAG_THREADS=2;
+
+	public static final byte READ=0;
+	public static final byte UPDATE=1;
+	public static final byte INSERT=2;
+	public static final byte SCAN=3;
+	public static final byte DELETE=4;
+
+	/** The number of recording threads a trace can tell apart; ids run from 0 to MAX_THREADS-1. */
+	public static final int MAX_THREADS=1<<16;
+
+	/** The most fields a field mask can name. */
+	public static final int MAX_FIELDS=64;
+
+	static final Charset KEY_CHARSET=Charset.forName("UTF-8");
+
+	private Trace()
+	{
+	}
+
+	/**
+	 * The size of a record's fixed part, without the key bytes.
+	 */
+	static int fixedSize(int flags)
+	{
+		int size=1+8+4+2;
+		if ((flags&FLAG_TIMESTAMPS)!=0)
+		{
+			size+=8;
+		}
+		if ((flags&FLAG_THREADS)!=0)
+		{
+			size+=2;
+		}
+		return size;
+	}
+
+	/**
+	 * One decoded record. Readers fill the same instance again for every record, so copy out what you keep.
+	 */
+	public static final class Record
+	{
+		public long timestamp;
+		public int thread;
+		public byte op;
+		public long fieldmask;
+		public int valuesize;
+		public byte[] key=new byte[64];
+		public int keylength;
+
+		/**
+		 * Decode the key into a string.
+		 */
+		public String key()
+		{
+			return new String(key,0,keylength,KEY_CHARSET);
+		}
+
+		/**
+		 * Make this record a copy of another.
+		 */
+		void set(Record other)
+		{
+			timestamp=other.timestamp;
+			thread=other.thread;
+			op=other.op;
+			fieldmask=other.fieldmask;
+			valuesize=other.valuesize;
+			if (key.length<other.keylength)
+			{
+				key=new byte[other.key.length];
+			}
+			System.arraycopy(other.key,0,key,0,other.keylength);
+			keylength=other.keylength;
+		}
+	}
+}
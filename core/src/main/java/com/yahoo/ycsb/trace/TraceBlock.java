@@ -0,0 +1,170 @@
+/**
+ * Copyright (c) 2026 YCSB contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+package com.yahoo.ycsb.trace;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * One block of a trace being encoded. Not thread safe; a recording thread fills its own block and hands it to a
+ * TraceWriter when it is full.
+ */
+public class TraceBlock
+{
+	private final int _flags;
+	private final ByteBuffer _buf;
+	private final int _fixedsize;
+	private int _records;
+
+	/**
+	 * @param flags which optional record parts to encode: Trace.FLAG_TIMESTAMPS and Trace.FLAG_THREADS
+	 * @param blocksize the block size of the trace
+	 */
+	public TraceBlock(int flags, int blocksize)
+	{
+		_flags=flags;
+		_fixedsize=Trace.fixedSize(flags);
+		if (blocksize<=_fixedsize+4)
+		{
+			throw new IllegalArgumentException("Trace block size "+blocksize+" is too small");
+		}
+		_buf=ByteBuffer.allocate(blocksize);
+		((Buffer)_buf).position(4);
+	}
+
+	/**
+	 * Append one record, unless the block is too full for it.
+	 *
+	 * @return false if the record does not fit; write the block out, then add the record again
+	 * @throws IllegalArgumentException if the key would not fit even an empty block, or the thread id is not
+	 *         below Trace.MAX_THREADS in a trace with threads
+	 */
+	public boolean add(long timestamp, int thread, byte op, long fieldmask, int valuesize, byte[] key, int keylength)
+	{
+		if (!begin(keylength))
+		{
+			return false;
+		}
+		putFixed(timestamp,thread,op,fieldmask,valuesize,keylength);
+		_buf.put(key,0,keylength);
+		return true;
+	}
+
+	/**
+	 * Append one record, encoding the key as UTF-8. Plain ASCII keys, which is what workloads generate, are
+	 * encoded in place without allocating.
+	 */
+	public boolean add(long timestamp, int thread, byte op, long fieldmask, int valuesize, String key)
+	{
+		int n=key.length();
+		for (int i=0; i<n; i++)
+		{
+			if (key.charAt(i)>=0x80)
+			{
+				byte[] bytes=key.getBytes(Trace.KEY_CHARSET);
+				return add(timestamp,thread,op,fieldmask,valuesize,bytes,bytes.length);
+			}
+		}
+		if (!begin(n))
+		{
+			return false;
+		}
+		putFixed(timestamp,thread,op,fieldmask,valuesize,n);
+		for (int i=0; i<n; i++)
+		{
+			_buf.put((byte)key.charAt(i));
+		}
+		return true;
+	}
+
+	private boolean begin(int keylength)
+	{
+		int size=_fixedsize+keylength;
+		if (keylength>0xffff || size+4>_buf.capacity())
+		{
+			throw new IllegalArgumentException("Key of "+keylength+" bytes does not fit a trace block");
+		}
+		return _buf.remaining()>=size;
+	}
+
+	private void putFixed(long timestamp, int thread, byte op, long fieldmask, int valuesize, int keylength)
+	{
+		if ((_flags&Trace.FLAG_TIMESTAMPS)!=0)
+		{
+			_buf.putLong(timestamp);
+		}
+		if ((_flags&Trace.FLAG_THREADS)!=0)
+		{
+			if (thread<0 || thread>=Trace.MAX_THREADS)
+			{
+				throw new IllegalArgumentException("Trace thread id "+thread+" is out of range");
+			}
+			_buf.putShort((short)thread);
+		}
+		_buf.put(op);
+		_buf.putLong(fieldmask);
+		_buf.putInt(valuesize);
+		_buf.putShort((short)keylength);
+		_records++;
+	}
+
+	public boolean isEmpty()
+	{
+		return _records==0;
+	}
+
+	/**
+	 * The number of records in the block.
+	 */
+	public int records()
+	{
+		return _records;
+	}
+
+	int flags()
+	{
+		return _flags;
+	}
+
+	int size()
+	{
+		return _buf.capacity();
+	}
+
+	/**
+	 * The encoded block, with its used count filled in.
+	 *
+	 * @param padded whether to include the zeros after the used bytes, up to the full block size
+	 */
+	ByteBuffer encoded(boolean padded)
+	{
+		_buf.putInt(0,_buf.position());
+		return ByteBuffer.wrap(_buf.array(),0,padded ? _buf.capacity() : _buf.position());
+	}
+
+	/**
+	 * Empty the block for reuse.
+	 */
+	void reset()
+	{
+		Arrays.fill(_buf.array(),0,_buf.position(),(byte)0);
+		((Buffer)_buf).clear();
+		((Buffer)_buf).position(4);
+		_records=0;
+	}
+}
@@ -0,0 +1,371 @@
+/**
+ * Copyright (c) 2026 YCSB contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+package com.yahoo.ycsb.trace;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Reads a trace file through read-only memory maps. The file is mapped once, in segments of whole blocks small
+ * enough for a MappedByteBuffer, and every read is an absolute get, so any number of cursors can share the maps
+ * without copying or locking.
+ */
+public class TraceReader implements Closeable
+{
+	private static final long MAX_SEGMENT=1L<<30;
+
+	/** The thread filter of a cursor that keeps every record. Recorded thread ids are unsigned shorts, so never this. */
+	private static final int ALL_THREADS=Integer.MIN_VALUE;
+
+	private final RandomAccessFile _file;
+	private final int _flags;
+	private final int _blocksize;
+	private final long _blockcount;
+	private final int _blockspersegment;
+	private final MappedByteBuffer[] _segments;
+
+	/** Per block, bit t%64 is set if the block holds records of recorded thread t. Built with _threads. */
+	private long[] _blockthreads;
+
+	/** The recorded thread ids in ascending order, or null until a cursor needs them. */
+	private int[] _threads;
+
+	/**
+	 * Map a trace file.
+	 *
+	 * @throws IOException if the file can not be read or is not a trace
+	 */
+	public TraceReader(File file) throws IOException
+	{
+		_file=new RandomAccessFile(file,"r");
+		try
+		{
+			FileChannel channel=_file.getChannel();
+			long length=channel.size();
+			if (length<Trace.HEADER_SIZE)
+			{
+				throw new IOException(file+" is not a trace: too short");
+			}
+			MappedByteBuffer header=channel.map(FileChannel.MapMode.READ_ONLY,0,Trace.HEADER_SIZE);
+			for (int i=0; i<Trace.MAGIC.length; i++)
+			{
+				if (header.get(i)!=Trace.MAGIC[i])
+				{
+					throw new IOException(file+" is not a trace: bad magic");
+				}
+			}
+			int version=header.getInt(8);
+			if (version!=Trace.VERSION)
+			{
+				throw new IOException(file+" has unsupported trace version "+version);
+			}
+			_flags=header.getInt(12);
+			_blocksize=header.getInt(16);
+			if (_blocksize<=Trace.fixedSize(_flags)+4 || _blocksize>MAX_SEGMENT)
+			{
+				throw new IOException(file+" has bad trace block size "+_blocksize);
+			}
+
+			long data=length-Trace.HEADER_SIZE;
+			_blockcount=(data+_blocksize-1)/_blocksize;
+			_blockspersegment=(int)(MAX_SEGMENT/_blocksize);
+			int segmentcount=(int)((_blockcount+_blockspersegment-1)/_blockspersegment);
+			_segments=new MappedByteBuffer[segmentcount];
+			for (int i=0; i<segmentcount; i++)
+			{
+				long start=Trace.HEADER_SIZE+(long)i*_blockspersegment*_blocksize;
+				_segments[i]=channel.map(FileChannel.MapMode.READ_ONLY,start,Math.min(length-start,(long)_blockspersegment*_blocksize));
+			}
+		}
+		catch (IOException e)
+		{
+			_file.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Whether the records carry timestamps.
+	 */
+	public boolean hasTimestamps()
+	{
+		return (_flags&Trace.FLAG_TIMESTAMPS)!=0;
+	}
+
+	/**
+	 * Whether the records carry the issuing thread.
+	 */
+	public boolean hasThreads()
+	{
+		return (_flags&Trace.FLAG_THREADS)!=0;
+	}
+
+	public long blockCount()
+	{
+		return _blockcount;
+	}
+
+	/**
+	 * A cursor over one partition of the trace.
+	 * <p>
+	 * If the records carry the issuing thread, the partition is a share of the recorded threads: sorted by id,
+	 * recorded thread i goes to partition i%parts, and the partition's records are merged by timestamp. Each
+	 * replaying thread so sees its recorded threads' operations in the order they were issued, however their
+	 * blocks were laid out, which is what replaying with the original timing needs. Partitions beyond the number
+	 * of recorded threads are empty.
+	 * </p><p>
+	 * Otherwise the trace was written by one thread in time order, and the partition is blocks part, part+parts,
+	 * part+2*parts and so on. Interleaving the blocks rather than giving each partition a contiguous range keeps
+	 * all partitions moving through the trace's time together.
+	 * </p>
+	 *
+	 * @param part which partition, from 0
+	 * @param parts how many partitions the trace is split into
+	 */
+	public Cursor cursor(int part, int parts)
+	{
+		if (parts<1 || part<0 || part>=parts)
+		{
+			throw new IllegalArgumentException("Bad trace partition "+part+" of "+parts);
+		}
+		if (!hasThreads())
+		{
+			return new BlockCursor(part,parts,ALL_THREADS);
+		}
+
+		int[] threads=threads();
+		int mine=(threads.length-part+parts-1)/parts;
+		if (mine==1)
+		{
+			return new BlockCursor(0,1,threads[part]);
+		}
+		BlockCursor[] cursors=new BlockCursor[mine];
+		for (int i=0; i<cursors.length; i++)
+		{
+			cursors[i]=new BlockCursor(0,1,threads[part+i*parts]);
+		}
+		return new MergeCursor(cursors);
+	}
+
+	/**
+	 * The ids of the recorded threads in ascending order. The first call scans the whole trace once, also noting
+	 * which threads each block holds records of so that a thread's cursor can skip the other threads' blocks.
+	 */
+	private synchronized int[] threads()
+	{
+		if (_threads==null)
+		{
+			long[] blockthreads=new long[(int)_blockcount];
+			boolean[] seen=new boolean[Trace.MAX_THREADS];
+			int count=0;
+			BlockCursor c=new BlockCursor(0,1,ALL_THREADS);
+			Trace.Record r=new Trace.Record();
+			while (c.next(r))
+			{
+				blockthreads[(int)c._block]|=1L<<(r.thread&63);
+				if (!seen[r.thread])
+				{
+					seen[r.thread]=true;
+					count++;
+				}
+			}
+			int[] threads=new int[count];
+			for (int i=0, j=0; i<seen.length; i++)
+			{
+				if (seen[i])
+				{
+					threads[j++]=i;
+				}
+			}
+			_blockthreads=blockthreads;
+			_threads=threads;
+		}
+		return _threads;
+	}
+
+	/**
+	 * Release the file. Cursors must not be used afterwards.
+	 */
+	public void close() throws IOException
+	{
+		_file.close();
+	}
+
+	/**
+	 * Walks one partition of the trace. Not thread safe; give each thread its own.
+	 */
+	public static abstract class Cursor
+	{
+		/**
+		 * Decode the next record of the partition into r.
+		 *
+		 * @return false if the partition is exhausted
+		 * @throws IllegalStateException if the trace is corrupt
+		 */
+		public abstract boolean next(Trace.Record r);
+	}
+
+	/**
+	 * Walks blocks first, first+step, first+2*step and so on, optionally keeping only one recorded thread's
+	 * records.
+	 */
+	private class BlockCursor extends Cursor
+	{
+		private final int _step;
+		private final int _thread;
+		private long _block;
+		private MappedByteBuffer _buf;
+		private int _pos;
+		private int _end;
+
+		BlockCursor(int first, int step, int thread)
+		{
+			_step=step;
+			_thread=thread;
+			_block=first-step;
+		}
+
+		public boolean next(Trace.Record r)
+		{
+			while (true)
+			{
+				while (_buf==null || _pos>=_end)
+				{
+					_block+=_step;
+					if (_block>=_blockcount)
+					{
+						_buf=null;
+						return false;
+					}
+					if (_thread!=ALL_THREADS && (_blockthreads[(int)_block]&(1L<<(_thread&63)))==0)
+					{
+						continue;
+					}
+					_buf=_segments[(int)(_block/_blockspersegment)];
+					_pos=(int)(_block%_blockspersegment)*_blocksize;
+					int used=_buf.getInt(_pos);
+					if (used<4 || used>_blocksize || _pos+used>_buf.limit())
+					{
+						throw new IllegalStateException("Corrupt trace block "+_block);
+					}
+					_end=_pos+used;
+					_pos+=4;
+				}
+
+				decode(r);
+				if (_thread==ALL_THREADS || r.thread==_thread)
+				{
+					return true;
+				}
+			}
+		}
+
+		private void decode(Trace.Record r)
+		{
+			MappedByteBuffer buf=_buf;
+			int pos=_pos;
+			if ((_flags&Trace.FLAG_TIMESTAMPS)!=0)
+			{
+				r.timestamp=buf.getLong(pos);
+				pos+=8;
+			}
+			if ((_flags&Trace.FLAG_THREADS)!=0)
+			{
+				r.thread=buf.getShort(pos)&0xffff;
+				pos+=2;
+			}
+			r.op=buf.get(pos);
+			r.fieldmask=buf.getLong(pos+1);
+			r.valuesize=buf.getInt(pos+9);
+			int keylength=buf.getShort(pos+13)&0xffff;
+			pos+=15;
+			if (pos+keylength>_end)
+			{
+				throw new IllegalStateException("Corrupt trace record in block "+_block);
+			}
+			if (r.key.length<keylength)
+			{
+				r.key=new byte[Math.max(keylength,r.key.length*2)];
+			}
+			for (int i=0; i<keylength; i++)
+			{
+				r.key[i]=buf.get(pos+i);
+			}
+			r.keylength=keylength;
+			_pos=pos+keylength;
+		}
+	}
+
+	/**
+	 * Merges several recorded threads' cursors by timestamp. A partition holds few recorded threads, so the
+	 * earliest head is found by a linear scan.
+	 */
+	private static class MergeCursor extends Cursor
+	{
+		private final BlockCursor[] _cursors;
+		private final Trace.Record[] _heads;
+		private int _live=-1;
+
+		MergeCursor(BlockCursor[] cursors)
+		{
+			_cursors=cursors;
+			_heads=new Trace.Record[cursors.length];
+		}
+
+		public boolean next(Trace.Record r)
+		{
+			if (_live<0)
+			{
+				_live=0;
+				for (int i=0; i<_cursors.length; i++)
+				{
+					Trace.Record head=new Trace.Record();
+					if (_cursors[i].next(head))
+					{
+						_cursors[_live]=_cursors[i];
+						_heads[_live++]=head;
+					}
+				}
+			}
+			if (_live==0)
+			{
+				return false;
+			}
+
+			int first=0;
+			for (int i=1; i<_live; i++)
+			{
+				if (_heads[i].timestamp<_heads[first].timestamp)
+				{
+					first=i;
+				}
+			}
+			r.set(_heads[first]);
+			if (!_cursors[first].next(_heads[first]))
+			{
+				_live--;
+				_cursors[first]=_cursors[_live];
+				_heads[first]=_heads[_live];
+			}
+			return true;
+		}
+	}
+}
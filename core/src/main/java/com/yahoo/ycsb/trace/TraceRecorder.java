@@ -0,0 +1,210 @@
+/**
+ * Copyright (c) 2026 YCSB contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+package com.yahoo.ycsb.trace;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records a trace from many threads. Each recording thread fills a TraceBlock of its own and submits it when it is
+ * full; a background thread writes the submitted blocks to the file and recycles them. Recording an operation is
+ * thus a few puts into a thread-local buffer, and the file I/O stays off the recording threads. If the writer falls
+ * QUEUE_LENGTH blocks behind, submitting a block waits for it rather than buffering without bound.
+ */
+public class TraceRecorder implements Closeable
+{
+	static final int QUEUE_LENGTH=64;
+
+	private final TraceWriter _writer;
+	private final int _flags;
+	private final int _blocksize;
+	//the System.nanoTime() of the first timestamp taken, or Long.MIN_VALUE before that
+	private final AtomicLong _start=new AtomicLong(Long.MIN_VALUE);
+	private final AtomicInteger _threads=new AtomicInteger();
+	private final BlockingQueue<TraceBlock> _full=new ArrayBlockingQueue<TraceBlock>(QUEUE_LENGTH);
+	private final ConcurrentLinkedQueue<TraceBlock> _free=new ConcurrentLinkedQueue<TraceBlock>();
+	private final TraceBlock _end;
+	private final Thread _thread;
+	private volatile IOException _error;
+
+	/**
+	 * Create (or truncate) a trace file with timestamps and threads, and start writing it.
+	 */
+	public TraceRecorder(File file, int blocksize) throws IOException
+	{
+		_flags=Trace.FLAG_TIMESTAMPS|Trace.FLAG_THREADS;
+		_blocksize=blocksize;
+		_writer=new TraceWriter(file,_flags,blocksize);
+		_end=new TraceBlock(_flags,blocksize);
+		_thread=new Thread("trace writer")
+		{
+			public void run()
+			{
+				drain();
+			}
+		};
+		_thread.setDaemon(true);
+		_thread.start();
+	}
+
+	/**
+	 * The trace timestamp for now: nanoseconds since the first timestamp was taken, so that the trace starts at
+	 * its first operation rather than at the client's initialization and warm-up.
+	 */
+	public long timestamp()
+	{
+		long now=System.nanoTime();
+		long start=_start.get();
+		if (start==Long.MIN_VALUE)
+		{
+			_start.compareAndSet(Long.MIN_VALUE,now);
+			start=_start.get();
+		}
+		//a thread that lost the race may have read the clock just before the winner
+		return Math.max(now-start,0);
+	}
+
+	/**
+	 * Number a new recording thread.
+	 *
+	 * @throws IllegalStateException if the trace already has Trace.MAX_THREADS recording threads, as the ids would
+	 *         otherwise wrap and merge unrelated threads' records
+	 */
+	public int newThread()
+	{
+		int id=_threads.getAndIncrement();
+		if (id>=Trace.MAX_THREADS || id<0)
+		{
+			throw new IllegalStateException("A trace can not record more than "+Trace.MAX_THREADS+" threads");
+		}
+		return id;
+	}
+
+	/**
+	 * An empty block to record into, recycled if one is free.
+	 */
+	public TraceBlock acquire()
+	{
+		TraceBlock b=_free.poll();
+		return b!=null ? b : new TraceBlock(_flags,_blocksize);
+	}
+
+	/**
+	 * Hand a block to the writer thread. The caller must not touch it afterwards.
+	 */
+	public void submit(TraceBlock block)
+	{
+		if (block.isEmpty())
+		{
+			_free.offer(block);
+			return;
+		}
+		put(block);
+	}
+
+	private void put(TraceBlock block)
+	{
+		boolean interrupted=false;
+		while (true)
+		{
+			try
+			{
+				_full.put(block);
+				break;
+			}
+			catch (InterruptedException e)
+			{
+				interrupted=true;
+			}
+		}
+		if (interrupted)
+		{
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	void drain()
+	{
+		while (true)
+		{
+			TraceBlock b;
+			try
+			{
+				b=_full.take();
+			}
+			catch (InterruptedException e)
+			{
+				continue;
+			}
+			if (b==_end)
+			{
+				return;
+			}
+			try
+			{
+				if (_error==null)
+				{
+					_writer.write(b);
+				}
+			}
+			catch (IOException e)
+			{
+				System.err.println("Could not write trace, recording stopped: "+e.getMessage());
+				_error=e;
+			}
+			b.reset();
+			_free.offer(b);
+		}
+	}
+
+	/**
+	 * The number of records written to the file. Only exact after close.
+	 */
+	public long records()
+	{
+		return _writer.records();
+	}
+
+	/**
+	 * Write out all submitted blocks and close the file. Blocks submitted afterwards are lost.
+	 *
+	 * @throws IOException if writing the trace failed at any point
+	 */
+	public void close() throws IOException
+	{
+		put(_end);
+		try
+		{
+			_thread.join();
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+		_writer.close();
+		if (_error!=null)
+		{
+			throw _error;
+		}
+	}
+}
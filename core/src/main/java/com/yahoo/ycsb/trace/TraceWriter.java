@@ -0,0 +1,152 @@
+/**
+ * Copyright (c) 2026 YCSB contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+package com.yahoo.ycsb.trace;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Writes a trace file, one block at a time. Not thread safe: callers that record from several threads fill their
+ * own TraceBlocks and funnel them through one writer (see TraceRecorder).
+ */
+public class TraceWriter implements Closeable
+{
+	private final RandomAccessFile _file;
+	private final FileChannel _channel;
+	private final int _flags;
+	private final int _blocksize;
+	private final TraceBlock _block;
+	private long _records;
+
+	/**
+	 * Create (or truncate) a trace file with the default block size.
+	 *
+	 * @param flags which optional record parts to write: Trace.FLAG_TIMESTAMPS and Trace.FLAG_THREADS
+	 */
+	public TraceWriter(File file, int flags) throws IOException
+	{
+		this(file,flags,Trace.DEFAULT_BLOCK_SIZE);
+	}
+
+	public TraceWriter(File file, int flags, int blocksize) throws IOException
+	{
+		_block=new TraceBlock(flags,blocksize);
+		_flags=flags;
+		_blocksize=blocksize;
+		_file=new RandomAccessFile(file,"rw");
+		_file.setLength(0);
+		_channel=_file.getChannel();
+
+		ByteBuffer header=ByteBuffer.allocate(Trace.HEADER_SIZE);
+		header.put(Trace.MAGIC);
+		header.putInt(Trace.VERSION);
+		header.putInt(flags);
+		header.putInt(blocksize);
+		((Buffer)header).clear();
+		writeFully(header);
+	}
+
+	/**
+	 * Append one record.
+	 *
+	 * @param timestamp nanoseconds since the start of the trace; ignored unless the trace has timestamps
+	 * @param thread the issuing thread; ignored unless the trace has threads
+	 * @param op one of the operation constants in Trace
+	 * @param fieldmask bit i for field "field"+i, 0 for all fields
+	 * @param valuesize bytes per written field, or the record count of a scan
+	 * @param key the UTF-8 key bytes
+	 */
+	public void write(long timestamp, int thread, byte op, long fieldmask, int valuesize, byte[] key, int keylength) throws IOException
+	{
+		if (!_block.add(timestamp,thread,op,fieldmask,valuesize,key,keylength))
+		{
+			write(_block);
+			_block.add(timestamp,thread,op,fieldmask,valuesize,key,keylength);
+		}
+	}
+
+	public void write(long timestamp, int thread, byte op, long fieldmask, int valuesize, String key) throws IOException
+	{
+		if (!_block.add(timestamp,thread,op,fieldmask,valuesize,key))
+		{
+			write(_block);
+			_block.add(timestamp,thread,op,fieldmask,valuesize,key);
+		}
+	}
+
+	/**
+	 * Append a block filled elsewhere, padded to the full block size, and empty it for reuse. Empty blocks are
+	 * skipped.
+	 *
+	 * @throws IllegalArgumentException if the block was made for a trace with other flags or block size
+	 */
+	public void write(TraceBlock block) throws IOException
+	{
+		if (block.flags()!=_flags || block.size()!=_blocksize)
+		{
+			throw new IllegalArgumentException("Trace block does not match the trace's flags and block size");
+		}
+		if (block.isEmpty())
+		{
+			return;
+		}
+		writeFully(block.encoded(true));
+		_records+=block.records();
+		block.reset();
+	}
+
+	/**
+	 * The number of records written out so far.
+	 */
+	public long records()
+	{
+		return _records+_block.records();
+	}
+
+	/**
+	 * Write out the last block, which is left short, and close the file.
+	 */
+	public void close() throws IOException
+	{
+		try
+		{
+			if (!_block.isEmpty())
+			{
+				writeFully(_block.encoded(false));
+				_records+=_block.records();
+				_block.reset();
+			}
+		}
+		finally
+		{
+			_file.close();
+		}
+	}
+
+	private void writeFully(ByteBuffer b) throws IOException
+	{
+		while (b.hasRemaining())
+		{
+			_channel.write(b);
+		}
+	}
+}
@@ -19,23 +19,28 @@ package com.yahoo.ycsb.workloads;
 
 import java.util.Properties;
 import com.yahoo.ycsb.*;
+import com.yahoo.ycsb.generator.AcknowledgedCounterGenerator;
 import com.yahoo.ycsb.generator.CounterGenerator;
 import com.yahoo.ycsb.generator.DiscreteGenerator;
 import com.yahoo.ycsb.generator.ExponentialGenerator;
-import com.yahoo.ycsb.generator.Generator;
 import com.yahoo.ycsb.generator.ConstantIntegerGenerator;
 import com.yahoo.ycsb.generator.HotspotIntegerGenerator;
 import com.yahoo.ycsb.generator.HistogramGenerator;
 import com.yahoo.ycsb.generator.IntegerGenerator;
 import com.yahoo.ycsb.generator.ScrambledZipfianGenerator;
+import com.yahoo.ycsb.generator.ShiftingHotspotGenerator;
 import com.yahoo.ycsb.generator.SkewedLatestGenerator;
 import com.yahoo.ycsb.generator.UniformIntegerGenerator;
 import com.yahoo.ycsb.generator.ZipfianGenerator;
 import com.yahoo.ycsb.measurements.Measurements;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
 import java.util.Vector;
 
 /**
@@ -54,10 +59,20 @@ import java.util.Vector;
  * <LI><b>insertproportion</b>: what proportion of operations should be inserts (default: 0)
  * <LI><b>scanproportion</b>: what proportion of operations should be scans (default: 0)
  * <LI><b>readmodifywriteproportion</b>: what proportion of operations should be read a record, modify it, write it back (default: 0)
- * <LI><b>requestdistribution</b>: what distribution should be used to select the records to operate on - uniform, zipfian, hotspot, or latest (default: uniform)
+ * <LI><b>requestdistribution</b>: what distribution should be used to select the records to operate on - uniform, zipfian, hotspot, latest, or a hotspot that moves: slidinghotspot, jumpinghotspot or diurnalhotspot (default: uniform)
+ * <LI><b>hotspotshift.base</b>: for the moving hotspots, the distribution around the hot region - hotspot (see hotspotdatafraction and hotspotopnfraction) or zipfian (default: hotspot)
+ * <LI><b>hotspotshift.clock</b>: for the moving hotspots, whether the hot region moves with time or ops (default: time)
+ * <LI><b>hotspotshift.period</b>: for the moving hotspots, the seconds or operations in which the hot region slides through all records, between jumps, or per diurnal cycle (default: 60)
+ * <LI><b>zipfianconstant</b>: the skew of the zipfian request distribution (default: 0.99)
  * <LI><b>maxscanlength</b>: for scans, what is the maximum number of records to scan (default: 1000)
  * <LI><b>scanlengthdistribution</b>: for scans, what distribution should be used to choose the number of records to scan, for each scan, between 1 and maxscanlength (default: uniform)
  * <LI><b>insertorder</b>: should records be inserted in order by key ("ordered"), or in hashed order ("hashed") (default: hashed)
+ * <LI><b>insertpartition</b>: should the load threads take record numbers from one shared counter ("shared"), or should each thread insert a contiguous range of its own ("thread"), which with ordered inserts gives each thread strictly ascending keys (default: shared)
+ * <LI><b>transactioninsertoffset</b> and <b>transactioninsertstride</b>: during the transaction phase, insert record numbers recordcount+offset, recordcount+offset+stride and so on, so that several clients sharing a table insert different records (default: 0 and 1)
+ * <LI><b>insertwindow</b>: during the transaction phase, how many inserts may be issued ahead of the oldest one not yet completed; further inserts wait (default: 1048576)
+ * <LI><b>valuegeneration</b>: generate field values from random numbers ("random") or serve them from a pool of random bytes filled at startup ("pool") (default: random)
+ * <LI><b>valuepool.size</b>: the number of bytes in the value pool (default: 67108864)
+ * <LI><b>valuepool.offheap</b>: keep the value pool outside the Java heap (default: false)
  * </ul> 
  */
 public class CoreWorkload extends Workload
@@ -208,6 +223,16 @@ public class CoreWorkload extends Workload
 	 */
 	public static final String REQUEST_DISTRIBUTION_PROPERTY_DEFAULT="uniform";
 
+	/**
+	 * The name of the property for the zipfian constant used by the "zipfian" request distribution.
+	 */
+	public static final String ZIPFIAN_CONSTANT_PROPERTY="zipfianconstant";
+
+	/**
+	 * The default zipfian constant.
+	 */
+	public static final String ZIPFIAN_CONSTANT_PROPERTY_DEFAULT="0.99";
+
 	/**
 	 * The name of the property for the max scan length (number of records)
 	 */
@@ -237,6 +262,23 @@ public class CoreWorkload extends Workload
 	 * Default insert order.
 	 */
 	public static final String INSERT_ORDER_PROPERTY_DEFAULT="hashed";
+
+	/**
+	 * The name of the property for how the load phase divides the records between threads. Options are "shared",
+	 * for one counter all threads draw from, or "thread", for a contiguous range per thread.
+	 */
+	public static final String INSERT_PARTITION_PROPERTY="insertpartition";
+
+	public static final String INSERT_PARTITION_PROPERTY_DEFAULT="shared";
+
+	/**
+	 * The name of the property for how many transaction phase inserts may be issued ahead of the oldest one that
+	 * has not completed. The keys of completed inserts only become readable in order, so each insert in the window
+	 * takes 8 bytes of bookkeeping.
+	 */
+	public static final String INSERT_WINDOW_PROPERTY="insertwindow";
+
+	public static final String INSERT_WINDOW_PROPERTY_DEFAULT="1048576";
 	
 	/**
    * Percentage data items that constitute the hot set.
@@ -257,22 +299,142 @@ public class CoreWorkload extends Workload
    * Default value of the percentage operations accessing the hot set.
    */
   public static final String HOTSPOT_OPN_FRACTION_DEFAULT = "0.8";
+
+	/**
+	 * The name of the property for the distribution the moving hotspots (slidinghotspot, jumpinghotspot and
+	 * diurnalhotspot) use around their hot region: hotspot or zipfian.
+	 */
+	public static final String HOTSPOT_SHIFT_BASE_PROPERTY="hotspotshift.base";
+
+	public static final String HOTSPOT_SHIFT_BASE_PROPERTY_DEFAULT="hotspot";
+
+	/**
+	 * The name of the property for what the moving hotspots move with: time or ops.
+	 */
+	public static final String HOTSPOT_SHIFT_CLOCK_PROPERTY="hotspotshift.clock";
+
+	public static final String HOTSPOT_SHIFT_CLOCK_PROPERTY_DEFAULT="time";
+
+	/**
+	 * The name of the property for the period of the moving hotspots, in seconds or operations.
+	 */
+	public static final String HOTSPOT_SHIFT_PERIOD_PROPERTY="hotspotshift.period";
+
+	public static final String HOTSPOT_SHIFT_PERIOD_PROPERTY_DEFAULT="60";
+
+	/**
+	 * The name of the property for the number of records written per DB call: inserted together in the load
+	 * phase, and updated together by each update transaction. Batches are not used when the client runs
+	 * open-loop, which schedules every record individually.
+	 */
+	public static final String BATCH_SIZE_PROPERTY="batchsize";
+
+	/**
+	 * The default number of records written per DB call.
+	 */
+	public static final String BATCH_SIZE_PROPERTY_DEFAULT="1";
+
+	/**
+	 * The name of the property for the number of records fetched together by each read transaction.
+	 */
+	public static final String MULTIGET_SIZE_PROPERTY="multigetsize";
+
+	/**
+	 * The default number of records fetched by each read transaction.
+	 */
+	public static final String MULTIGET_SIZE_PROPERTY_DEFAULT="1";
+
+	/**
+	 * The name of the property for how field values are generated. Options are "random", which draws a random number
+	 * for every few bytes, and "pool", which serves slices of a pool of random bytes filled once at startup.
+	 */
+	public static final String VALUE_GENERATION_PROPERTY="valuegeneration";
+
+	/**
+	 * The default way of generating field values.
+	 */
+	public static final String VALUE_GENERATION_PROPERTY_DEFAULT="random";
+
+	/**
+	 * The name of the property for the number of bytes in the value pool.
+	 */
+	public static final String VALUE_POOL_SIZE_PROPERTY="valuepool.size";
+
+	/**
+	 * The default number of bytes in the value pool.
+	 */
+	public static final String VALUE_POOL_SIZE_PROPERTY_DEFAULT="67108864";
+
+	/**
+	 * The name of the property for keeping the value pool in a direct buffer outside the Java heap.
+	 */
+	public static final String VALUE_POOL_OFFHEAP_PROPERTY="valuepool.offheap";
+
+	/**
+	 * The default for keeping the value pool outside the Java heap.
+	 */
+	public static final String VALUE_POOL_OFFHEAP_PROPERTY_DEFAULT="false";
+
+	/**
+	 * The pool field values are served from, or null if they are generated.
+	 */
+	RandomBytePool valuepool;
 	
+	/**
+	 * The kinds of transaction operations.
+	 */
+	enum Operation
+	{
+		READ, UPDATE, INSERT, SCAN, READMODIFYWRITE
+	}
+
 	IntegerGenerator keysequence;
 
 	DiscreteGenerator operationchooser;
 
+	/**
+	 * The operation for each value of operationchooser, by index.
+	 */
+	Operation[] operations;
+
 	IntegerGenerator keychooser;
 
-	Generator fieldchooser;
+	IntegerGenerator fieldchooser;
+
+	/**
+	 * The field names, built once rather than on every operation.
+	 */
+	String[] fieldnames;
+
+	/**
+	 * For each field, an unmodifiable set holding just its name, to pass as the fields of a read.
+	 */
+	List<Set<String>> fieldsets;
+
+	/**
+	 * Keys for inserts during the transaction phase. Its last value only counts inserts that have completed, so
+	 * the key choosers bounded by it never pick a key still being inserted.
+	 */
+	AcknowledgedCounterGenerator transactioninsertkeysequence;
+
+	long insertstart;
+
+	long insertcount;
 
-	CounterGenerator transactioninsertkeysequence;
+	/**
+	 * Whether each load thread inserts a range of its own, set up in initThread, instead of drawing from keysequence.
+	 */
+	boolean partitionedinserts;
 	
 	IntegerGenerator scanlength;
 	
 	boolean orderedinserts;
 
-	int recordcount;
+	long recordcount;
+
+	int batchsize;
+
+	int multigetsize;
 	
 	protected static IntegerGenerator getFieldLengthGenerator(Properties p) throws WorkloadException{
 		IntegerGenerator fieldlengthgenerator;
@@ -296,6 +458,18 @@ public class CoreWorkload extends Workload
 		}
 		return fieldlengthgenerator;
 	}
+
+	/**
+	 * Add an operation to operationchooser if it has a non-zero proportion, remembering which operation its index stands for.
+	 */
+	void addOperation(List<Operation> ops, double proportion, Operation op)
+	{
+		if (proportion>0)
+		{
+			operationchooser.addValue(proportion,op.name());
+			ops.add(op);
+		}
+	}
 	
 	/**
 	 * Initialize the scenario. 
@@ -304,6 +478,15 @@ public class CoreWorkload extends Workload
 	public void init(Properties p) throws WorkloadException
 	{
 		table = p.getProperty(TABLENAME_PROPERTY,TABLENAME_PROPERTY_DEFAULT);
+
+		try
+		{
+			ZipfianGenerator.setProperties(p);
+		}
+		catch (IllegalArgumentException e)
+		{
+			throw new WorkloadException(e.getMessage());
+		}
 		
 		fieldcount=Integer.parseInt(p.getProperty(FIELD_COUNT_PROPERTY,FIELD_COUNT_PROPERTY_DEFAULT));
 		fieldlengthgenerator = CoreWorkload.getFieldLengthGenerator(p);
@@ -313,15 +496,45 @@ public class CoreWorkload extends Workload
 		double insertproportion=Double.parseDouble(p.getProperty(INSERT_PROPORTION_PROPERTY,INSERT_PROPORTION_PROPERTY_DEFAULT));
 		double scanproportion=Double.parseDouble(p.getProperty(SCAN_PROPORTION_PROPERTY,SCAN_PROPORTION_PROPERTY_DEFAULT));
 		double readmodifywriteproportion=Double.parseDouble(p.getProperty(READMODIFYWRITE_PROPORTION_PROPERTY,READMODIFYWRITE_PROPORTION_PROPERTY_DEFAULT));
-		recordcount=Integer.parseInt(p.getProperty(Client.RECORD_COUNT_PROPERTY));
+		recordcount=Long.parseLong(p.getProperty(Client.RECORD_COUNT_PROPERTY));
 		String requestdistrib=p.getProperty(REQUEST_DISTRIBUTION_PROPERTY,REQUEST_DISTRIBUTION_PROPERTY_DEFAULT);
 		int maxscanlength=Integer.parseInt(p.getProperty(MAX_SCAN_LENGTH_PROPERTY,MAX_SCAN_LENGTH_PROPERTY_DEFAULT));
 		String scanlengthdistrib=p.getProperty(SCAN_LENGTH_DISTRIBUTION_PROPERTY,SCAN_LENGTH_DISTRIBUTION_PROPERTY_DEFAULT);
 		
-		int insertstart=Integer.parseInt(p.getProperty(INSERT_START_PROPERTY,INSERT_START_PROPERTY_DEFAULT));
+		insertstart=Long.parseLong(p.getProperty(INSERT_START_PROPERTY,INSERT_START_PROPERTY_DEFAULT));
+		insertcount=Long.parseLong(p.getProperty(Client.INSERT_COUNT_PROPERTY,""+recordcount));
+
+		String insertpartition=p.getProperty(INSERT_PARTITION_PROPERTY,INSERT_PARTITION_PROPERTY_DEFAULT);
+		if (insertpartition.compareTo("thread")==0)
+		{
+			partitionedinserts=true;
+		}
+		else if (insertpartition.compareTo("shared")!=0)
+		{
+			throw new WorkloadException("Unknown insert partition \""+insertpartition+"\"");
+		}
 		
 		readallfields=Boolean.parseBoolean(p.getProperty(READ_ALL_FIELDS_PROPERTY,READ_ALL_FIELDS_PROPERTY_DEFAULT));
 		writeallfields=Boolean.parseBoolean(p.getProperty(WRITE_ALL_FIELDS_PROPERTY,WRITE_ALL_FIELDS_PROPERTY_DEFAULT));
+
+		batchsize=Integer.parseInt(p.getProperty(BATCH_SIZE_PROPERTY,BATCH_SIZE_PROPERTY_DEFAULT));
+		multigetsize=Integer.parseInt(p.getProperty(MULTIGET_SIZE_PROPERTY,MULTIGET_SIZE_PROPERTY_DEFAULT));
+		if ( (batchsize<1) || (multigetsize<1) )
+		{
+			throw new WorkloadException(BATCH_SIZE_PROPERTY+" and "+MULTIGET_SIZE_PROPERTY+" must be at least 1");
+		}
+
+		String valuegeneration=p.getProperty(VALUE_GENERATION_PROPERTY,VALUE_GENERATION_PROPERTY_DEFAULT);
+		if (valuegeneration.compareTo("pool")==0)
+		{
+			int poolsize=Integer.parseInt(p.getProperty(VALUE_POOL_SIZE_PROPERTY,VALUE_POOL_SIZE_PROPERTY_DEFAULT));
+			boolean offheap=Boolean.parseBoolean(p.getProperty(VALUE_POOL_OFFHEAP_PROPERTY,VALUE_POOL_OFFHEAP_PROPERTY_DEFAULT));
+			valuepool=new RandomBytePool(poolsize,offheap,Utils.random());
+		}
+		else if (valuegeneration.compareTo("random")!=0)
+		{
+			throw new WorkloadException("Unknown value generation \""+valuegeneration+"\"");
+		}
 		
 		if (p.getProperty(INSERT_ORDER_PROPERTY,INSERT_ORDER_PROPERTY_DEFAULT).compareTo("hashed")==0)
 		{
@@ -342,32 +555,26 @@ public class CoreWorkload extends Workload
 
 		keysequence=new CounterGenerator(insertstart);
 		operationchooser=new DiscreteGenerator();
-		if (readproportion>0)
+		List<Operation> ops=new ArrayList<Operation>();
+		addOperation(ops,readproportion,Operation.READ);
+		addOperation(ops,updateproportion,Operation.UPDATE);
+		addOperation(ops,insertproportion,Operation.INSERT);
+		addOperation(ops,scanproportion,Operation.SCAN);
+		addOperation(ops,readmodifywriteproportion,Operation.READMODIFYWRITE);
+		operations=ops.toArray(new Operation[ops.size()]);
+
+		int insertwindow=Integer.parseInt(p.getProperty(INSERT_WINDOW_PROPERTY,INSERT_WINDOW_PROPERTY_DEFAULT));
+		if (insertwindow<1 || insertwindow>1<<30)
 		{
-			operationchooser.addValue(readproportion,"READ");
+			throw new WorkloadException(INSERT_WINDOW_PROPERTY+" must be between 1 and "+(1<<30));
 		}
-
-		if (updateproportion>0)
+		long insertoffset=Long.parseLong(p.getProperty(TRANSACTION_INSERT_OFFSET_PROPERTY,TRANSACTION_INSERT_OFFSET_PROPERTY_DEFAULT));
+		long insertstride=Long.parseLong(p.getProperty(TRANSACTION_INSERT_STRIDE_PROPERTY,TRANSACTION_INSERT_STRIDE_PROPERTY_DEFAULT));
+		if (insertstride<1 || insertoffset<0 || insertoffset>=insertstride)
 		{
-			operationchooser.addValue(updateproportion,"UPDATE");
+			throw new WorkloadException(TRANSACTION_INSERT_OFFSET_PROPERTY+" must be between 0 and "+TRANSACTION_INSERT_STRIDE_PROPERTY+"-1");
 		}
-
-		if (insertproportion>0)
-		{
-			operationchooser.addValue(insertproportion,"INSERT");
-		}
-		
-		if (scanproportion>0)
-		{
-			operationchooser.addValue(scanproportion,"SCAN");
-		}
-		
-		if (readmodifywriteproportion>0)
-		{
-			operationchooser.addValue(readmodifywriteproportion,"READMODIFYWRITE");
-		}
-
-		transactioninsertkeysequence=new CounterGenerator(recordcount);
+		transactioninsertkeysequence=new AcknowledgedCounterGenerator(recordcount,insertwindow,insertoffset,insertstride);
 		if (requestdistrib.compareTo("uniform")==0)
 		{
 			keychooser=new UniformIntegerGenerator(0,recordcount-1);
@@ -381,10 +588,12 @@ public class CoreWorkload extends Workload
 			//plus the number of predicted keys as the total keyspace. then, if the generator picks a key that hasn't been inserted yet, will
 			//just ignore it and pick another key. this way, the size of the keyspace doesn't change from the perspective of the scrambled zipfian generator
 			
-			int opcount=Integer.parseInt(p.getProperty(Client.OPERATION_COUNT_PROPERTY));
-			int expectednewkeys=(int)(((double)opcount)*insertproportion*2.0); //2 is fudge factor
+			long opcount=Long.parseLong(p.getProperty(Client.OPERATION_COUNT_PROPERTY));
+			long expectednewkeys=(long)(((double)opcount)*insertproportion*2.0); //2 is fudge factor
+			
+			double zipfianconstant=Double.parseDouble(p.getProperty(ZIPFIAN_CONSTANT_PROPERTY,ZIPFIAN_CONSTANT_PROPERTY_DEFAULT));
 			
-			keychooser=new ScrambledZipfianGenerator(recordcount+expectednewkeys);
+			keychooser=new ScrambledZipfianGenerator(0,recordcount+expectednewkeys-1,zipfianconstant);
 		}
 		else if (requestdistrib.compareTo("latest")==0)
 		{
@@ -399,12 +608,31 @@ public class CoreWorkload extends Workload
       keychooser = new HotspotIntegerGenerator(0, recordcount - 1, 
           hotsetfraction, hotopnfraction);
     }
+		else if (requestdistrib.compareTo("slidinghotspot")==0)
+		{
+			keychooser=createShiftingHotspot(p,ShiftingHotspotGenerator.Shift.SLIDE);
+		}
+		else if (requestdistrib.compareTo("jumpinghotspot")==0)
+		{
+			keychooser=createShiftingHotspot(p,ShiftingHotspotGenerator.Shift.JUMP);
+		}
+		else if (requestdistrib.compareTo("diurnalhotspot")==0)
+		{
+			keychooser=createShiftingHotspot(p,ShiftingHotspotGenerator.Shift.DIURNAL);
+		}
 		else
 		{
 			throw new WorkloadException("Unknown request distribution \""+requestdistrib+"\"");
 		}
 
 		fieldchooser=new UniformIntegerGenerator(0,fieldcount-1);
+		fieldnames=new String[fieldcount];
+		fieldsets=new ArrayList<Set<String>>(fieldcount);
+		for (int i=0; i<fieldcount; i++)
+		{
+			fieldnames[i]="field"+i;
+			fieldsets.add(Collections.singleton(fieldnames[i]));
+		}
 		
 		if (scanlengthdistrib.compareTo("uniform")==0)
 		{
@@ -420,33 +648,215 @@ public class CoreWorkload extends Workload
 		}
 	}
 
+	/**
+	 * Create the key chooser for a hotspot that moves through the records.
+	 */
+	IntegerGenerator createShiftingHotspot(Properties p, ShiftingHotspotGenerator.Shift shift) throws WorkloadException
+	{
+		IntegerGenerator ranks;
+		String base=p.getProperty(HOTSPOT_SHIFT_BASE_PROPERTY,HOTSPOT_SHIFT_BASE_PROPERTY_DEFAULT);
+		if (base.compareTo("hotspot")==0)
+		{
+			double hotsetfraction=Double.parseDouble(p.getProperty(HOTSPOT_DATA_FRACTION,HOTSPOT_DATA_FRACTION_DEFAULT));
+			double hotopnfraction=Double.parseDouble(p.getProperty(HOTSPOT_OPN_FRACTION,HOTSPOT_OPN_FRACTION_DEFAULT));
+			ranks=new HotspotIntegerGenerator(0,recordcount-1,hotsetfraction,hotopnfraction);
+		}
+		else if (base.compareTo("zipfian")==0)
+		{
+			double zipfianconstant=Double.parseDouble(p.getProperty(ZIPFIAN_CONSTANT_PROPERTY,ZIPFIAN_CONSTANT_PROPERTY_DEFAULT));
+			ranks=new ZipfianGenerator(0,recordcount-1,zipfianconstant);
+		}
+		else
+		{
+			throw new WorkloadException("Unknown hotspot shift base \""+base+"\"");
+		}
+
+		ShiftingHotspotGenerator.Clock clock;
+		String clockname=p.getProperty(HOTSPOT_SHIFT_CLOCK_PROPERTY,HOTSPOT_SHIFT_CLOCK_PROPERTY_DEFAULT);
+		if (clockname.compareTo("time")==0)
+		{
+			clock=ShiftingHotspotGenerator.Clock.TIME;
+		}
+		else if (clockname.compareTo("ops")==0)
+		{
+			clock=ShiftingHotspotGenerator.Clock.OPS;
+		}
+		else
+		{
+			throw new WorkloadException("Unknown hotspot shift clock \""+clockname+"\"");
+		}
+
+		double period=Double.parseDouble(p.getProperty(HOTSPOT_SHIFT_PERIOD_PROPERTY,HOTSPOT_SHIFT_PERIOD_PROPERTY_DEFAULT));
+		if (!(period>0))
+		{
+			throw new WorkloadException(HOTSPOT_SHIFT_PERIOD_PROPERTY+" must be positive");
+		}
+		return new ShiftingHotspotGenerator(ranks,0,recordcount-1,shift,clock,period);
+	}
+
 	public String buildKeyName(long keynum) {
+		return buildKeyName(keynum,new StringBuilder());
+	}
+
+	/**
+	 * Build the key name in the given buffer, so that only the returned string is allocated.
+	 */
+	String buildKeyName(long keynum, StringBuilder key) {
  		if (!orderedinserts)
  		{
  			keynum=Utils.hash(keynum);
  		}
-		return "user"+keynum;
+		key.setLength(0);
+		return key.append("user").append(keynum).toString();
 	}
-	HashMap<String, ByteIterator> buildValues() {
+	HashMap<String, ByteIterator> buildValues(Random random) {
  		HashMap<String,ByteIterator> values=new HashMap<String,ByteIterator>();
 
  		for (int i=0; i<fieldcount; i++)
  		{
- 			String fieldkey="field"+i;
- 			ByteIterator data= new RandomByteIterator(fieldlengthgenerator.nextInt());
- 			values.put(fieldkey,data);
+ 			ByteIterator data= new RandomByteIterator(fieldlengthgenerator.nextInt(random),random,valuepool);
+ 			values.put(fieldnames[i],data);
  		}
 		return values;
 	}
-	HashMap<String, ByteIterator> buildUpdate() {
+	HashMap<String, ByteIterator> buildUpdate(Random random) {
 		//update a random field
 		HashMap<String, ByteIterator> values=new HashMap<String,ByteIterator>();
-		String fieldname="field"+fieldchooser.nextString();
-		ByteIterator data = new RandomByteIterator(fieldlengthgenerator.nextInt());
-		values.put(fieldname,data);
+		ByteIterator data = new RandomByteIterator(fieldlengthgenerator.nextInt(random),random,valuepool);
+		values.put(fieldnames[fieldchooser.nextInt(random)],data);
 		return values;
 	}
 
+	/**
+	 * Fill the record with new data for all the fields.
+	 */
+	HashMap<String, ByteIterator> buildValues(Record record, Random random) {
+		for (int i=0; i<fieldcount; i++)
+		{
+			record.data[i].reset(fieldlengthgenerator.nextInt(random));
+		}
+		return record.all;
+	}
+
+	/**
+	 * Fill the record with new data for a random field.
+	 */
+	HashMap<String, ByteIterator> buildUpdate(Record record, Random random) {
+		int i=fieldchooser.nextInt(random);
+		record.data[i].reset(fieldlengthgenerator.nextInt(random));
+		return record.single.get(i);
+	}
+
+	/**
+	 * The values one thread writes to one record: an iterator per field, a map holding all of them, and for each
+	 * field a map holding only that one. The maps never change; writing new data only resets the iterators.
+	 */
+	class Record
+	{
+		final RandomByteIterator[] data;
+		final HashMap<String,ByteIterator> all;
+		final List<HashMap<String,ByteIterator>> single;
+
+		Record(Random random)
+		{
+			data=new RandomByteIterator[fieldcount];
+			all=new HashMap<String,ByteIterator>();
+			single=new ArrayList<HashMap<String,ByteIterator>>(fieldcount);
+			for (int i=0; i<fieldcount; i++)
+			{
+				data[i]=new RandomByteIterator(0,random,valuepool);
+				all.put(fieldnames[i],data[i]);
+				HashMap<String,ByteIterator> one=new HashMap<String,ByteIterator>();
+				one.put(fieldnames[i],data[i]);
+				single.add(one);
+			}
+		}
+	}
+
+	/**
+	 * The objects one client thread reuses from one operation to the next, so that the synchronous operations
+	 * allocate nothing in the client but the key strings the DB interface takes. Returned by initThread.
+	 */
+	class ThreadState
+	{
+		final StringBuilder key=new StringBuilder();
+		final HashMap<String,ByteIterator> result=new HashMap<String,ByteIterator>();
+		final Vector<HashMap<String,ByteIterator>> results=new Vector<HashMap<String,ByteIterator>>();
+		final List<String> keys=new ArrayList<String>();
+		final List<HashMap<String,ByteIterator>> values=new ArrayList<HashMap<String,ByteIterator>>();
+
+		/**
+		 * One record for each record of a batch; single operations use the first.
+		 */
+		final Record[] records;
+
+		/**
+		 * The thread's source of randomness, handed to the generators so that they need not look it up on every draw.
+		 */
+		final Random random;
+
+		/**
+		 * The next record number and the end of the range this thread inserts, with partitioned inserts.
+		 */
+		long nextinsert;
+		long insertend;
+
+		ThreadState(Random random)
+		{
+			this.random=random;
+			records=new Record[Math.max(batchsize,2)];
+			for (int i=0; i<records.length; i++)
+			{
+				records[i]=new Record(random);
+			}
+		}
+	}
+
+	/**
+	 * Create the objects this thread reuses between operations.
+	 */
+	@Override
+	public Object initThread(Properties p, int mythreadid, int threadcount) throws WorkloadException
+	{
+		ThreadState state=new ThreadState(Utils.random());
+		if (partitionedinserts)
+		{
+			//the same share the client gives each thread; the client leaves out the remainder too
+			long perthread=insertcount/threadcount;
+			state.nextinsert=insertstart+mythreadid*perthread;
+			state.insertend=state.nextinsert+perthread;
+		}
+		return state;
+	}
+
+	/**
+	 * Return the number of the next record to insert in the load phase, or -1 if this thread's range is used up.
+	 */
+	long nextInsertKeynum(ThreadState state)
+	{
+		if (!partitionedinserts)
+		{
+			return keysequence.nextLong();
+		}
+		if (state.nextinsert>=state.insertend)
+		{
+			return -1;
+		}
+		return state.nextinsert++;
+	}
+
+	/**
+	 * Return the state initThread created, or fresh state for callers that did not call initThread.
+	 */
+	ThreadState threadState(Object threadstate)
+	{
+		if (threadstate instanceof ThreadState)
+		{
+			return (ThreadState)threadstate;
+		}
+		return new ThreadState(Utils.random());
+	}
+
 	/**
 	 * Do one insert operation. Because it will be called concurrently from multiple client threads, this 
 	 * function must be thread safe. However, avoid synchronized, or the threads will block waiting for each 
@@ -455,9 +865,14 @@ public class CoreWorkload extends Workload
 	 */
 	public boolean doInsert(DB db, Object threadstate)
 	{
-		int keynum=keysequence.nextInt();
-		String dbkey = buildKeyName(keynum);
-		HashMap<String, ByteIterator> values = buildValues();
+		ThreadState state=threadState(threadstate);
+		long keynum=nextInsertKeynum(state);
+		if (keynum<0)
+		{
+			return false;
+		}
+		String dbkey = buildKeyName(keynum,state.key);
+		HashMap<String, ByteIterator> values = buildValues(state.records[0],state.random);
 		if (db.insert(table,dbkey,values) == 0)
 			return true;
 		else
@@ -465,177 +880,452 @@ public class CoreWorkload extends Workload
 	}
 
 	/**
-	 * Do one transaction operation. Because it will be called concurrently from multiple client threads, this 
-	 * function must be thread safe. However, avoid synchronized, or the threads will block waiting for each 
-	 * other, and it will be difficult to reach the target throughput. Ideally, this function would have no side
-	 * effects other than DB operations.
+	 * Insert the next batchsize records (or maxrecords, if fewer) with a single batchInsert call.
 	 */
-	public boolean doTransaction(DB db, Object threadstate)
+	public int doInsertBatch(DB db, Object threadstate, int maxrecords)
 	{
-		String op=operationchooser.nextString();
-
-		if (op.compareTo("READ")==0)
-		{
-			doTransactionRead(db);
-		}
-		else if (op.compareTo("UPDATE")==0)
+		ThreadState state=threadState(threadstate);
+		int n=Math.min(batchsize,maxrecords);
+		if (partitionedinserts)
 		{
-			doTransactionUpdate(db);
+			n=(int)Math.min(n,state.insertend-state.nextinsert);
 		}
-		else if (op.compareTo("INSERT")==0)
+		if (n<=1)
 		{
-			doTransactionInsert(db);
+			return doInsert(db,state) ? 1 : 0;
 		}
-		else if (op.compareTo("SCAN")==0)
+
+		state.keys.clear();
+		state.values.clear();
+		for (int i=0; i<n; i++)
 		{
-			doTransactionScan(db);
+			state.keys.add(buildKeyName(nextInsertKeynum(state),state.key));
+			state.values.add(buildValues(state.records[i],state.random));
 		}
+
+		if (db.batchInsert(table,state.keys,state.values) == 0)
+			return n;
 		else
+			return 0;
+	}
+
+	/**
+	 * Do one transaction operation. Because it will be called concurrently from multiple client threads, this 
+	 * function must be thread safe. However, avoid synchronized, or the threads will block waiting for each 
+	 * other, and it will be difficult to reach the target throughput. Ideally, this function would have no side
+	 * effects other than DB operations.
+	 */
+	public boolean doTransaction(DB db, Object threadstate)
+	{
+		return doTransaction(db,threadState(threadstate),false,0);
+	}
+
+	/**
+	 * Do one transaction operation that was scheduled to start at intendedstarttime. Only the read-modify-write
+	 * latency is measured here rather than in the DB wrapper, so it is the only one that needs the start time.
+	 */
+	public boolean doTransaction(DB db, Object threadstate, long intendedstarttime)
+	{
+		return doTransaction(db,threadState(threadstate),true,intendedstarttime);
+	}
+
+	boolean doTransaction(DB db, ThreadState state, boolean openloop, long intendedstarttime)
+	{
+		switch (operations[operationchooser.nextIndex(state.random)])
 		{
-			doTransactionReadModifyWrite(db);
+		case READ:
+			doTransactionRead(db,state);
+			break;
+		case UPDATE:
+			doTransactionUpdate(db,state);
+			break;
+		case INSERT:
+			doTransactionInsert(db,state);
+			break;
+		case SCAN:
+			doTransactionScan(db,state);
+			break;
+		default:
+			doTransactionReadModifyWrite(db,state,openloop,intendedstarttime);
 		}
-		
+
 		return true;
 	}
 
-    int nextKeynum() {
-        int keynum;
+    long nextKeynum(Random random) {
+        long keynum;
         if(keychooser instanceof ExponentialGenerator) {
             do
                 {
-                    keynum=transactioninsertkeysequence.lastInt() - keychooser.nextInt();
+                    keynum=transactioninsertkeysequence.lastLong() - keychooser.nextLong(random);
                 }
             while(keynum < 0);
         } else {
             do
                 {
-                    keynum=keychooser.nextInt();
+                    keynum=keychooser.nextLong(random);
                 }
-            while (keynum > transactioninsertkeysequence.lastInt());
+            while (keynum > transactioninsertkeysequence.lastLong());
         }
         return keynum;
     }
 
 	public void doTransactionRead(DB db)
 	{
+		doTransactionRead(db,threadState(null));
+	}
+
+	void doTransactionRead(DB db, ThreadState state)
+	{
+		if (multigetsize>1)
+		{
+			doTransactionMultiRead(db,state);
+			return;
+		}
+
 		//choose a random key
-		int keynum = nextKeynum();
-		
-		String keyname = buildKeyName(keynum);
+		long keynum = nextKeynum(state.random);
 		
-		HashSet<String> fields=null;
+		String keyname = buildKeyName(keynum,state.key);
 
-		if (!readallfields)
-		{
-			//read a random field  
-			String fieldname="field"+fieldchooser.nextString();
+		state.result.clear();
+		db.read(table,keyname,chooseReadFields(state.random),state.result);
+	}
+
+	/**
+	 * Read multigetsize randomly chosen records with a single batchRead call.
+	 */
+	public void doTransactionMultiRead(DB db)
+	{
+		doTransactionMultiRead(db,threadState(null));
+	}
 
-			fields=new HashSet<String>();
-			fields.add(fieldname);
+	void doTransactionMultiRead(DB db, ThreadState state)
+	{
+		state.keys.clear();
+		for (int i=0; i<multigetsize; i++)
+		{
+			state.keys.add(buildKeyName(nextKeynum(state.random),state.key));
 		}
 
-		db.read(table,keyname,fields,new HashMap<String,ByteIterator>());
+		state.results.clear();
+		db.batchRead(table,state.keys,chooseReadFields(state.random),state.results);
 	}
 	
 	public void doTransactionReadModifyWrite(DB db)
 	{
-		//choose a random key
-		int keynum = nextKeynum();
+		doTransactionReadModifyWrite(db,threadState(null),false,0);
+	}
 
-		String keyname = buildKeyName(keynum);
+	/**
+	 * Do a read-modify-write that was scheduled to start at intendedstarttime, measuring its response time
+	 * from then as "Intended-READ-MODIFY-WRITE" in addition to its service time.
+	 */
+	public void doTransactionReadModifyWrite(DB db, long intendedstarttime)
+	{
+		doTransactionReadModifyWrite(db,threadState(null),true,intendedstarttime);
+	}
 
-		HashSet<String> fields=null;
+	void doTransactionReadModifyWrite(DB db, ThreadState state, boolean openloop, long intendedstarttime)
+	{
+		//choose a random key
+		long keynum = nextKeynum(state.random);
 
-		if (!readallfields)
-		{
-			//read a random field  
-			String fieldname="field"+fieldchooser.nextString();
+		String keyname = buildKeyName(keynum,state.key);
 
-			fields=new HashSet<String>();
-			fields.add(fieldname);
-		}
+		Set<String> fields=chooseReadFields(state.random);
 		
-		HashMap<String,ByteIterator> values;
-
-		if (writeallfields)
-		{
-		   //new data for all the fields
-		   values = buildValues();
-		}
-		else
-		{
-		   //update a random field
-		   values = buildUpdate();
-		}
+		HashMap<String,ByteIterator> values=chooseWriteValues(state.records[0],state.random);
 
 		//do the transaction
 		
 		long st=System.nanoTime();
 
-		db.read(table,keyname,fields,new HashMap<String,ByteIterator>());
+		state.result.clear();
+		db.read(table,keyname,fields,state.result);
 		
 		db.update(table,keyname,values);
 
 		long en=System.nanoTime();
 		
 		Measurements.getMeasurements().measure("READ-MODIFY-WRITE", (int)((en-st)/1000));
+		if (openloop)
+		{
+			Measurements.getMeasurements().measure("Intended-READ-MODIFY-WRITE", (int)((en-intendedstarttime)/1000));
+		}
 	}
 	
 	public void doTransactionScan(DB db)
+	{
+		doTransactionScan(db,threadState(null));
+	}
+
+	void doTransactionScan(DB db, ThreadState state)
 	{
 		//choose a random key
-		int keynum = nextKeynum();
+		long keynum = nextKeynum(state.random);
 
-		String startkeyname = buildKeyName(keynum);
+		String startkeyname = buildKeyName(keynum,state.key);
 		
 		//choose a random scan length
-		int len=scanlength.nextInt();
+		int len=scanlength.nextInt(state.random);
 
-		HashSet<String> fields=null;
+		state.results.clear();
+		db.scan(table,startkeyname,len,chooseReadFields(state.random),state.results);
+	}
+
+	public void doTransactionUpdate(DB db)
+	{
+		doTransactionUpdate(db,threadState(null));
+	}
 
-		if (!readallfields)
+	void doTransactionUpdate(DB db, ThreadState state)
+	{
+		if (batchsize>1)
 		{
-			//read a random field  
-			String fieldname="field"+fieldchooser.nextString();
+			doTransactionBatchUpdate(db,state);
+			return;
+		}
+
+		//choose a random key
+		long keynum = nextKeynum(state.random);
 
-			fields=new HashSet<String>();
-			fields.add(fieldname);
+		String keyname=buildKeyName(keynum,state.key);
+
+		db.update(table,keyname,chooseWriteValues(state.records[0],state.random));
+	}
+
+	/**
+	 * Update batchsize randomly chosen records with a single batchUpdate call.
+	 */
+	public void doTransactionBatchUpdate(DB db)
+	{
+		doTransactionBatchUpdate(db,threadState(null));
+	}
+
+	void doTransactionBatchUpdate(DB db, ThreadState state)
+	{
+		state.keys.clear();
+		state.values.clear();
+		for (int i=0; i<batchsize; i++)
+		{
+			state.keys.add(buildKeyName(nextKeynum(state.random),state.key));
+			state.values.add(chooseWriteValues(state.records[i],state.random));
 		}
 
-		db.scan(table,startkeyname,len,fields,new Vector<HashMap<String,ByteIterator>>());
+		db.batchUpdate(table,state.keys,state.values);
 	}
 
-	public void doTransactionUpdate(DB db)
+	public void doTransactionInsert(DB db)
 	{
-		//choose a random key
-		int keynum = nextKeynum();
+		doTransactionInsert(db,threadState(null));
+	}
 
-		String keyname=buildKeyName(keynum);
+	void doTransactionInsert(DB db, ThreadState state)
+	{
+		//choose the next key
+		long keynum=transactioninsertkeysequence.nextLong();
 
-		HashMap<String,ByteIterator> values;
+		try
+		{
+			String dbkey = buildKeyName(keynum,state.key);
 
-		if (writeallfields)
+			db.insert(table,dbkey,buildValues(state.records[0],state.random));
+		}
+		finally
 		{
-		   //new data for all the fields
-		   values = buildValues();
+			//a failed insert is acknowledged too, or no later key would ever become readable
+			transactioninsertkeysequence.acknowledge(keynum);
 		}
-		else
+	}
+
+	/**
+	 * Choose the fields for a read: null for all of them, or a single random field. The returned sets are shared
+	 * and must not be modified.
+	 */
+	Set<String> chooseReadFields(Random random)
+	{
+		if (readallfields)
 		{
-		   //update a random field
-		   values = buildUpdate();
+			return null;
 		}
+		return fieldsets.get(fieldchooser.nextInt(random));
+	}
 
-		db.update(table,keyname,values);
+	/**
+	 * Choose the new data for an update: all the fields, or a single random one.
+	 */
+	HashMap<String,ByteIterator> chooseWriteValues(Random random)
+	{
+		if (writeallfields)
+		{
+			return buildValues(random);
+		}
+		return buildUpdate(random);
 	}
 
-	public void doTransactionInsert(DB db)
+	/**
+	 * Choose the new data for an update, filling the given record.
+	 */
+	HashMap<String,ByteIterator> chooseWriteValues(Record record, Random random)
 	{
-		//choose the next key
-		int keynum=transactioninsertkeysequence.nextInt();
+		if (writeallfields)
+		{
+			return buildValues(record,random);
+		}
+		return buildUpdate(record,random);
+	}
 
+	/**
+	 * Issue one insert operation against an asynchronous DB. Unlike doInsert(DB,Object), a failed insert is
+	 * only known once the returned future completes.
+	 */
+	public DBFuture doInsert(AsyncDB db, Object threadstate)
+	{
+		ThreadState state=threadState(threadstate);
+		long keynum=nextInsertKeynum(state);
+		if (keynum<0)
+		{
+			return null;
+		}
 		String dbkey = buildKeyName(keynum);
+		HashMap<String, ByteIterator> values = buildValues(state.random);
+		return db.insert(table,dbkey,values);
+	}
+
+	/**
+	 * Issue one transaction operation against an asynchronous DB.
+	 */
+	public DBFuture doTransaction(AsyncDB db, Object threadstate)
+	{
+		return doTransaction(db,threadState(threadstate).random,false,0);
+	}
+
+	/**
+	 * Issue one transaction operation that was scheduled to start at intendedstarttime against an asynchronous DB.
+	 */
+	public DBFuture doTransaction(AsyncDB db, Object threadstate, long intendedstarttime)
+	{
+		return doTransaction(db,threadState(threadstate).random,true,intendedstarttime);
+	}
+
+	DBFuture doTransaction(AsyncDB db, Random random, boolean openloop, long intendedstarttime)
+	{
+		switch (operations[operationchooser.nextIndex(random)])
+		{
+		case READ:
+			return doTransactionRead(db,random);
+		case UPDATE:
+			return doTransactionUpdate(db,random);
+		case INSERT:
+			return doTransactionInsert(db,random);
+		case SCAN:
+			return doTransactionScan(db,random);
+		default:
+			return doTransactionReadModifyWrite(db,random,openloop,intendedstarttime);
+		}
+	}
+
+	public DBFuture doTransactionRead(AsyncDB db)
+	{
+		return doTransactionRead(db,Utils.random());
+	}
+
+	DBFuture doTransactionRead(AsyncDB db, Random random)
+	{
+		String keyname=buildKeyName(nextKeynum(random));
+		return db.read(table,keyname,chooseReadFields(random),new HashMap<String,ByteIterator>());
+	}
+
+	public DBFuture doTransactionReadModifyWrite(AsyncDB db)
+	{
+		return doTransactionReadModifyWrite(db,Utils.random(),false,0);
+	}
+
+	/**
+	 * Issue a read-modify-write that was scheduled to start at intendedstarttime against an asynchronous DB,
+	 * measuring its response time from then as "Intended-READ-MODIFY-WRITE" in addition to its service time.
+	 */
+	public DBFuture doTransactionReadModifyWrite(AsyncDB db, long intendedstarttime)
+	{
+		return doTransactionReadModifyWrite(db,Utils.random(),true,intendedstarttime);
+	}
+
+	DBFuture doTransactionReadModifyWrite(AsyncDB db, Random random, final boolean openloop, final long intendedstarttime)
+	{
+		final String keyname=buildKeyName(nextKeynum(random));
+		Set<String> fields=chooseReadFields(random);
+		final HashMap<String,ByteIterator> values=chooseWriteValues(random);
 
-		HashMap<String, ByteIterator> values = buildValues();
-		db.insert(table,dbkey,values);
+		//issue the update once the read has completed, and complete the transaction with the update; the update
+		//is issued from another thread, so it is measured from the intended start of this transaction
+		final AsyncDB updatedb=(openloop) ? db.scheduledAt(intendedstarttime) : db;
+		final long st=System.nanoTime();
+		final DBFuture ret=new DBFuture();
+
+		db.read(table,keyname,fields,new HashMap<String,ByteIterator>()).addListener(new DBFuture.Listener()
+		{
+			public void completed(int result)
+			{
+				updatedb.update(table,keyname,values).addListener(new DBFuture.Listener()
+				{
+					public void completed(int result)
+					{
+						long en=System.nanoTime();
+						Measurements.getMeasurements().measure("READ-MODIFY-WRITE", (int)((en-st)/1000));
+						if (openloop)
+						{
+							Measurements.getMeasurements().measure("Intended-READ-MODIFY-WRITE", (int)((en-intendedstarttime)/1000));
+						}
+						ret.complete(result);
+					}
+				});
+			}
+		});
+
+		return ret;
+	}
+
+	public DBFuture doTransactionScan(AsyncDB db)
+	{
+		return doTransactionScan(db,Utils.random());
+	}
+
+	DBFuture doTransactionScan(AsyncDB db, Random random)
+	{
+		String startkeyname=buildKeyName(nextKeynum(random));
+		int len=scanlength.nextInt(random);
+		return db.scan(table,startkeyname,len,chooseReadFields(random),new Vector<HashMap<String,ByteIterator>>());
+	}
+
+	public DBFuture doTransactionUpdate(AsyncDB db)
+	{
+		return doTransactionUpdate(db,Utils.random());
+	}
+
+	DBFuture doTransactionUpdate(AsyncDB db, Random random)
+	{
+		String keyname=buildKeyName(nextKeynum(random));
+		return db.update(table,keyname,chooseWriteValues(random));
+	}
+
+	public DBFuture doTransactionInsert(AsyncDB db)
+	{
+		return doTransactionInsert(db,Utils.random());
+	}
+
+	DBFuture doTransactionInsert(AsyncDB db, Random random)
+	{
+		final long keynum=transactioninsertkeysequence.nextLong();
+		String dbkey=buildKeyName(keynum);
+		DBFuture ret=db.insert(table,dbkey,buildValues(random));
+		ret.addListener(new DBFuture.Listener()
+		{
+			public void completed(int result)
+			{
+				transactioninsertkeysequence.acknowledge(keynum);
+			}
+		});
+		return ret;
 	}
 }
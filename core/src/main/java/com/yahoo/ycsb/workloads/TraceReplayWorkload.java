@@ -0,0 +1,387 @@
+/**
+ * Copyright (c) 2026 YCSB contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+package com.yahoo.ycsb.workloads;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Properties;
+import java.util.Random;
+import java.util.Set;
+import java.util.Vector;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import com.yahoo.ycsb.AsyncDB;
+import com.yahoo.ycsb.ByteIterator;
+import com.yahoo.ycsb.DB;
+import com.yahoo.ycsb.DBFuture;
+import com.yahoo.ycsb.RandomByteIterator;
+import com.yahoo.ycsb.RandomBytePool;
+import com.yahoo.ycsb.Utils;
+import com.yahoo.ycsb.Workload;
+import com.yahoo.ycsb.WorkloadException;
+import com.yahoo.ycsb.trace.Trace;
+import com.yahoo.ycsb.trace.TraceReader;
+
+/**
+ * Replays a binary trace (see {@link Trace}) against the database, in both the load and the transaction phase.
+ * The trace is memory-mapped read-only and split between the client threads, by recorded thread if the trace
+ * has them and by block otherwise (see {@link TraceReader#cursor(int,int)}), so the threads replay their share
+ * without sharing a position or taking a lock. A thread is done when its share is exhausted, so operationcount
+ * may be left at 0. To replay a trace recorded with N threads as it was recorded, run N client threads.
+ * <p>
+ * Properties to control the client:
+ * </p>
+ * <UL>
+ * <LI><b>tracefile</b>: the trace to replay (required)
+ * <LI><b>tracetiming</b>: none to replay as fast as the client allows, or original to issue each operation at its
+ * timestamp relative to the start of the run, keeping the trace's inter-arrival times (default: none). Leave
+ * target unset with original timing.
+ * <LI><b>table</b>: the name of the table (default: usertable)
+ * <LI><b>fieldcount</b>: the number of fields written when a record's field mask names all fields (default: 10)
+ * <LI><b>valuepool.size</b>: the number of bytes in the pool written values are served from (default: 67108864)
+ * <LI><b>valuepool.offheap</b>: keep the value pool outside the Java heap (default: false)
+ * </ul>
+ * Reads and scans of a record whose field mask is 0 read all fields; otherwise field i of the mask is "field"+i.
+ * Written values are random, of the record's value size, served from the value pool.
+ */
+public class TraceReplayWorkload extends Workload
+{
+	public static final String TRACE_FILE_PROPERTY="tracefile";
+
+	public static final String TRACE_TIMING_PROPERTY="tracetiming";
+
+	public static final String TRACE_TIMING_PROPERTY_DEFAULT="none";
+
+	String table;
+
+	int fieldcount;
+
+	String[] fieldnames;
+
+	TraceReader reader;
+
+	boolean originaltiming;
+
+	/** The pool written values are served from. */
+	RandomBytePool valuepool;
+
+	/** The System.nanoTime() that trace time 0 maps to, set by the first operation of any thread. */
+	final AtomicLong starttime=new AtomicLong();
+
+	/**
+	 * The state one thread replays with. The synchronous path reuses the maps and value iterators from one
+	 * operation to the next; the asynchronous path can't, as earlier operations may still be using them.
+	 */
+	class ThreadState
+	{
+		final TraceReader.Cursor cursor;
+		final Trace.Record record=new Trace.Record();
+		final Random random;
+		final HashMap<String,ByteIterator> result=new HashMap<String,ByteIterator>();
+		final Vector<HashMap<String,ByteIterator>> results=new Vector<HashMap<String,ByteIterator>>();
+		final HashMap<String,ByteIterator> values=new HashMap<String,ByteIterator>();
+		final RandomByteIterator[] data=new RandomByteIterator[Trace.MAX_FIELDS];
+		long valuesmask;
+		long fieldmask;
+		Set<String> fields;
+
+		ThreadState(TraceReader.Cursor cursor, Random random)
+		{
+			this.cursor=cursor;
+			this.random=random;
+		}
+	}
+
+	@Override
+	public void init(Properties p) throws WorkloadException
+	{
+		table=p.getProperty(CoreWorkload.TABLENAME_PROPERTY,CoreWorkload.TABLENAME_PROPERTY_DEFAULT);
+		fieldcount=Math.min(Integer.parseInt(p.getProperty(CoreWorkload.FIELD_COUNT_PROPERTY,CoreWorkload.FIELD_COUNT_PROPERTY_DEFAULT)),Trace.MAX_FIELDS);
+		fieldnames=new String[Trace.MAX_FIELDS];
+		for (int i=0; i<fieldnames.length; i++)
+		{
+			fieldnames[i]="field"+i;
+		}
+		int poolsize=Integer.parseInt(p.getProperty(CoreWorkload.VALUE_POOL_SIZE_PROPERTY,CoreWorkload.VALUE_POOL_SIZE_PROPERTY_DEFAULT));
+		boolean offheap=Boolean.parseBoolean(p.getProperty(CoreWorkload.VALUE_POOL_OFFHEAP_PROPERTY,CoreWorkload.VALUE_POOL_OFFHEAP_PROPERTY_DEFAULT));
+		valuepool=new RandomBytePool(poolsize,offheap,Utils.random());
+
+		String timing=p.getProperty(TRACE_TIMING_PROPERTY,TRACE_TIMING_PROPERTY_DEFAULT);
+		if (timing.compareTo("original")==0)
+		{
+			originaltiming=true;
+		}
+		else if (timing.compareTo("none")!=0)
+		{
+			throw new WorkloadException("Unknown trace timing \""+timing+"\"");
+		}
+
+		String file=p.getProperty(TRACE_FILE_PROPERTY);
+		if (file==null)
+		{
+			throw new WorkloadException("Missing property \""+TRACE_FILE_PROPERTY+"\"");
+		}
+		try
+		{
+			reader=new TraceReader(new File(file));
+		}
+		catch (IOException e)
+		{
+			throw new WorkloadException(e);
+		}
+		if (originaltiming && !reader.hasTimestamps())
+		{
+			throw new WorkloadException("Trace "+file+" has no timestamps to replay with original timing");
+		}
+	}
+
+	@Override
+	public Object initThread(Properties p, int mythreadid, int threadcount) throws WorkloadException
+	{
+		return new ThreadState(reader.cursor(mythreadid,threadcount),Utils.random());
+	}
+
+	@Override
+	public void cleanup() throws WorkloadException
+	{
+		try
+		{
+			reader.close();
+		}
+		catch (IOException e)
+		{
+			throw new WorkloadException(e);
+		}
+	}
+
+	@Override
+	public boolean doInsert(DB db, Object threadstate)
+	{
+		return replay(db,(ThreadState)threadstate);
+	}
+
+	@Override
+	public boolean doTransaction(DB db, Object threadstate)
+	{
+		return replay(db,(ThreadState)threadstate);
+	}
+
+	@Override
+	public DBFuture doInsert(AsyncDB db, Object threadstate)
+	{
+		return replay(db,(ThreadState)threadstate);
+	}
+
+	@Override
+	public DBFuture doTransaction(AsyncDB db, Object threadstate)
+	{
+		return replay(db,(ThreadState)threadstate);
+	}
+
+	/**
+	 * Replay the thread's next record.
+	 *
+	 * @return false if the thread's share of the trace is exhausted
+	 */
+	boolean replay(DB db, ThreadState state)
+	{
+		Trace.Record r=next(state);
+		if (r==null)
+		{
+			return false;
+		}
+
+		String key=r.key();
+		switch (r.op)
+		{
+		case Trace.READ:
+			state.result.clear();
+			db.read(table,key,fields(state,r.fieldmask),state.result);
+			break;
+		case Trace.SCAN:
+			state.results.clear();
+			db.scan(table,key,r.valuesize,fields(state,r.fieldmask),state.results);
+			break;
+		case Trace.UPDATE:
+			db.update(table,key,values(state,r.fieldmask,r.valuesize));
+			break;
+		case Trace.INSERT:
+			db.insert(table,key,values(state,r.fieldmask,r.valuesize));
+			break;
+		case Trace.DELETE:
+			db.delete(table,key);
+			break;
+		default:
+			throw new IllegalStateException("Unknown trace operation "+r.op);
+		}
+		return true;
+	}
+
+	/**
+	 * Issue the thread's next record against an asynchronous DB.
+	 *
+	 * @return the future of the operation, or null if the thread's share of the trace is exhausted
+	 */
+	DBFuture replay(AsyncDB db, ThreadState state)
+	{
+		Trace.Record r=next(state);
+		if (r==null)
+		{
+			return null;
+		}
+
+		String key=r.key();
+		switch (r.op)
+		{
+		case Trace.READ:
+			return db.read(table,key,fields(state,r.fieldmask),new HashMap<String,ByteIterator>());
+		case Trace.SCAN:
+			return db.scan(table,key,r.valuesize,fields(state,r.fieldmask),new Vector<HashMap<String,ByteIterator>>());
+		case Trace.UPDATE:
+			return db.update(table,key,newValues(state,r.fieldmask,r.valuesize));
+		case Trace.INSERT:
+			return db.insert(table,key,newValues(state,r.fieldmask,r.valuesize));
+		case Trace.DELETE:
+			return db.delete(table,key);
+		default:
+			throw new IllegalStateException("Unknown trace operation "+r.op);
+		}
+	}
+
+	/**
+	 * Decode the thread's next record and, with original timing, wait until it is due.
+	 *
+	 * @return the record, or null if the thread's share of the trace is exhausted
+	 */
+	Trace.Record next(ThreadState state)
+	{
+		Trace.Record r=state.record;
+		if (!state.cursor.next(r))
+		{
+			return null;
+		}
+
+		if (originaltiming)
+		{
+			long start=starttime.get();
+			if (start==0)
+			{
+				starttime.compareAndSet(0,System.nanoTime());
+				start=starttime.get();
+			}
+			long due=start+r.timestamp;
+			long now;
+			while ((now=System.nanoTime())<due)
+			{
+				LockSupport.parkNanos(due-now);
+			}
+		}
+		return r;
+	}
+
+	/**
+	 * The fields a mask names, or null for all. Traces usually repeat a few masks, so the last set is kept.
+	 */
+	Set<String> fields(ThreadState state, long fieldmask)
+	{
+		if (fieldmask==0)
+		{
+			return null;
+		}
+		if (state.fields==null || state.fieldmask!=fieldmask)
+		{
+			Set<String> fields=new HashSet<String>();
+			for (int i=0; i<Trace.MAX_FIELDS; i++)
+			{
+				if ((fieldmask&(1L<<i))!=0)
+				{
+					fields.add(fieldnames[i]);
+				}
+			}
+			state.fields=Collections.unmodifiableSet(fields);
+			state.fieldmask=fieldmask;
+		}
+		return state.fields;
+	}
+
+	/**
+	 * The fields a record writes: those its mask names, or the first fieldcount if the mask is 0.
+	 */
+	long valuesMask(long fieldmask)
+	{
+		if (fieldmask!=0)
+		{
+			return fieldmask;
+		}
+		return (fieldcount==Trace.MAX_FIELDS) ? -1L : (1L<<fieldcount)-1;
+	}
+
+	/**
+	 * The values of a write, reusing the thread's map and iterators. The map is only refilled when the fields
+	 * change.
+	 */
+	HashMap<String,ByteIterator> values(ThreadState state, long fieldmask, int valuesize)
+	{
+		long mask=valuesMask(fieldmask);
+		HashMap<String,ByteIterator> values=state.values;
+		if (state.valuesmask!=mask)
+		{
+			values.clear();
+			for (int i=0; i<Trace.MAX_FIELDS; i++)
+			{
+				if ((mask&(1L<<i))!=0)
+				{
+					if (state.data[i]==null)
+					{
+						state.data[i]=new RandomByteIterator(0,state.random,valuepool);
+					}
+					values.put(fieldnames[i],state.data[i]);
+				}
+			}
+			state.valuesmask=mask;
+		}
+		for (int i=0; i<Trace.MAX_FIELDS; i++)
+		{
+			if ((mask&(1L<<i))!=0)
+			{
+				state.data[i].reset(valuesize);
+			}
+		}
+		return values;
+	}
+
+	/**
+	 * The values of a write in a new map, for an operation that may still be in flight when the next is issued.
+	 */
+	HashMap<String,ByteIterator> newValues(ThreadState state, long fieldmask, int valuesize)
+	{
+		long mask=valuesMask(fieldmask);
+		HashMap<String,ByteIterator> values=new HashMap<String,ByteIterator>();
+		for (int i=0; i<Trace.MAX_FIELDS; i++)
+		{
+			if ((mask&(1L<<i))!=0)
+			{
+				values.put(fieldnames[i],new RandomByteIterator(valuesize,state.random,valuepool));
+			}
+		}
+		return values;
+	}
+}
@@ -0,0 +1,80 @@
+/**
+ * Copyright (c) 2026 YCSB contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+package com.yahoo.ycsb;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Cost of producing one field value with RandomByteIterator, generating it ("random") or serving it from a heap
+ * or direct RandomBytePool, read in bulk through nextBuf and byte by byte. After mvn test-compile, run
+ * java -cp target/test-classes:target/classes:&lt;test classpath&gt; org.openjdk.jmh.Main RandomByteIteratorBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@org.openjdk.jmh.annotations.Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RandomByteIteratorBenchmark {
+  @Param({"random", "pool", "offheap"})
+  String values;
+
+  @Param({"100", "1000"})
+  int size;
+
+  RandomByteIterator itor;
+  byte[] buf;
+
+  @Setup
+  public void setup() {
+    Random random = new XoroshiroRandom(1);
+    RandomBytePool pool = null;
+    if (!values.equals("random")) {
+      pool = new RandomBytePool(64 << 20, values.equals("offheap"), random);
+    }
+    itor = new RandomByteIterator(0, random, pool);
+    buf = new byte[size];
+  }
+
+  @Benchmark
+  public int nextBuf() {
+    itor.reset(size);
+    return itor.nextBuf(buf, 0);
+  }
+
+  @Benchmark
+  public int nextByte() {
+    itor.reset(size);
+    int sum = 0;
+    while (itor.hasNext()) {
+      sum += itor.nextByte();
+    }
+    return sum;
+  }
+}
@@ -1,5 +1,7 @@
 package com.yahoo.ycsb;
 
+import java.util.Random;
+
 import org.testng.annotations.Test;
 import static org.testng.AssertJUnit.*;
 
@@ -19,4 +21,33 @@ public class TestByteIterator {
     assertFalse(itor.hasNext());
     assertEquals(0, itor.bytesLeft());
   }
+
+  @Test
+  public void testPooledRandomByteIterator() {
+    for (boolean offheap : new boolean[] {false, true}) {
+      RandomBytePool pool = new RandomBytePool(64, offheap, new Random(1));
+
+      // longer than the pool, so the slice wraps around it
+      int size = 150;
+      RandomByteIterator itor = new RandomByteIterator(size, new Random(2), pool);
+      assertEquals(size, itor.bytesLeft());
+      byte[] bulk = itor.toArray();
+      assertEquals(size, bulk.length);
+      assertFalse(itor.hasNext());
+      for (int i = 0; i < size; i++) {
+        assertTrue(bulk[i] >= ' ' && bulk[i] < ' ' + 32);
+        assertEquals(bulk[i % 64], bulk[(i % 64) + 64 * ((size - 1 - i % 64) / 64)]);
+      }
+
+      // reading byte by byte gives the same slice as the bulk copy
+      itor = new RandomByteIterator(size, new Random(2), pool);
+      for (int i = 0; i < size; i++) {
+        assertEquals(bulk[i], itor.nextByte());
+      }
+      assertEquals(0, itor.bytesLeft());
+
+      itor.reset(10);
+      assertEquals(10, itor.toString().length());
+    }
+  }
 }
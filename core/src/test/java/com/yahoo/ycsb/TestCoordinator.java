@@ -0,0 +1,156 @@
+package com.yahoo.ycsb;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import org.testng.annotations.Test;
+import static org.testng.AssertJUnit.*;
+
+import com.yahoo.ycsb.measurements.OneMeasurement;
+import com.yahoo.ycsb.measurements.exporter.TextMeasurementsExporter;
+
+public class TestCoordinator {
+  @Test
+  public void testLoadRangesAreContiguous() {
+    Properties props = new Properties();
+    props.setProperty(Coordinator.WORKERS_PROPERTY, "3");
+    props.setProperty(Client.RECORD_COUNT_PROPERTY, "1000");
+    props.setProperty(Workload.INSERT_START_PROPERTY, "500");
+    props.setProperty("target", "100");
+    props.setProperty(Client.WARMUP_OPS_PROPERTY, "30");
+    Coordinator c = new Coordinator(props, false);
+
+    int next = 500;
+    int target = 0;
+    int warmupops = 0;
+    for (int i = 0; i < 3; i++) {
+      Properties p = c.assign(i);
+      assertEquals(next, Integer.parseInt(p.getProperty(Workload.INSERT_START_PROPERTY)));
+      next += Integer.parseInt(p.getProperty(Client.INSERT_COUNT_PROPERTY));
+      target += Integer.parseInt(p.getProperty("target"));
+      warmupops += Integer.parseInt(p.getProperty(Client.WARMUP_OPS_PROPERTY));
+      assertNull(p.getProperty(Coordinator.WORKERS_PROPERTY));
+    }
+    assertEquals(1500, next);
+    assertEquals(100, target);
+    assertEquals(30, warmupops);
+  }
+
+  @Test
+  public void testTransactionPhaseKeepsTheLoadRangeAndInterleavesInserts() {
+    Properties props = new Properties();
+    props.setProperty(Coordinator.WORKERS_PROPERTY, "2");
+    props.setProperty(Client.RECORD_COUNT_PROPERTY, "1000");
+    props.setProperty(Client.OPERATION_COUNT_PROPERTY, "10");
+    Coordinator c = new Coordinator(props, true);
+
+    for (int i = 0; i < 2; i++) {
+      Properties p = c.assign(i);
+      assertNull(p.getProperty(Workload.INSERT_START_PROPERTY));
+      assertNull(p.getProperty(Client.INSERT_COUNT_PROPERTY));
+      assertEquals("" + i, p.getProperty(Workload.TRANSACTION_INSERT_OFFSET_PROPERTY));
+      assertEquals("2", p.getProperty(Workload.TRANSACTION_INSERT_STRIDE_PROPERTY));
+    }
+  }
+
+  @Test
+  public void testOperationsAreShared() {
+    Properties props = new Properties();
+    props.setProperty(Coordinator.WORKERS_PROPERTY, "4");
+    props.setProperty(Client.OPERATION_COUNT_PROPERTY, "10");
+    Coordinator c = new Coordinator(props, true);
+
+    int total = 0;
+    for (int i = 0; i < 4; i++) {
+      total += Integer.parseInt(c.assign(i).getProperty(Client.OPERATION_COUNT_PROPERTY));
+    }
+    assertEquals(10, total);
+  }
+
+  @Test
+  public void testWarmupIsShared() {
+    Properties props = new Properties();
+    props.setProperty(Coordinator.WORKERS_PROPERTY, "4");
+    props.setProperty(Client.WARMUP_OPS_PROPERTY, "10");
+    Coordinator c = new Coordinator(props, true);
+
+    int total = 0;
+    for (int i = 0; i < 4; i++) {
+      total += Integer.parseInt(c.assign(i).getProperty(Client.WARMUP_OPS_PROPERTY));
+    }
+    assertEquals(10, total);
+  }
+
+  @Test
+  public void testTargetScheduleIsShared() {
+    Properties props = new Properties();
+    props.setProperty(Coordinator.WORKERS_PROPERTY, "4");
+    props.setProperty(Client.OPERATION_COUNT_PROPERTY, "10");
+    props.setProperty(Client.TARGET_SCHEDULE_PROPERTY, "0:1000,60:5000");
+    Coordinator c = new Coordinator(props, true);
+
+    for (int i = 0; i < 4; i++) {
+      TargetSchedule s = TargetSchedule.parse(c.assign(i).getProperty(Client.TARGET_SCHEDULE_PROPERTY), false);
+      assertEquals(250.0, s.rateAt(0));
+      assertEquals(1250.0, s.rateAt(60000));
+    }
+  }
+
+  /**
+   * Add the counts (operations, return codes and histogram buckets) exported by m to counts.
+   */
+  static void addCounts(Map<String, Long> counts, OneMeasurement m) throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    TextMeasurementsExporter exporter = new TextMeasurementsExporter(out);
+    m.exportMeasurements(exporter);
+    exporter.close();
+    for (String line : out.toString().split("\n")) {
+      String[] parts = line.trim().split(", ");
+      String measurement = parts[1];
+      if (measurement.equals("Operations") || measurement.startsWith("Return=") || measurement.matches(">?[0-9]+")) {
+        String key = parts[0] + " " + measurement;
+        Long sum = counts.get(key);
+        counts.put(key, ((sum == null) ? 0 : sum) + Long.parseLong(parts[2]));
+      }
+    }
+  }
+
+  @Test
+  public void testWorkersOnLocalhost() throws Exception {
+    File export = File.createTempFile("ycsb", ".txt");
+    export.deleteOnExit();
+
+    Properties props = new Properties();
+    props.setProperty(Coordinator.WORKERS_PROPERTY, "2");
+    props.setProperty(Client.WORKLOAD_PROPERTY, "com.yahoo.ycsb.workloads.CoreWorkload");
+    props.setProperty("db", "com.yahoo.ycsb.BasicDB");
+    props.setProperty(BasicDB.VERBOSE, "false");
+    props.setProperty(Client.RECORD_COUNT_PROPERTY, "100");
+    props.setProperty(Client.OPERATION_COUNT_PROPERTY, "1000");
+    props.setProperty("threadcount", "2");
+    props.setProperty("exportfile", export.getPath());
+    props.setProperty(Client.WARMUP_OPS_PROPERTY, "100");
+    Coordinator c = new Coordinator(props, true);
+    c.run();
+
+    assertEquals(2, c._reports.size());
+    Map<String, Long> workers = new HashMap<String, Long>();
+    for (HashMap<String, OneMeasurement> report : c._reports) {
+      for (OneMeasurement m : report.values()) {
+        addCounts(workers, m);
+      }
+    }
+    Map<String, Long> merged = new HashMap<String, Long>();
+    for (OneMeasurement m : c._measurements.snapshots().values()) {
+      addCounts(merged, m);
+    }
+
+    assertEquals(workers, merged);
+    assertEquals(1000, merged.get("[READ] Operations") + merged.get("[UPDATE] Operations"));
+    assertEquals(1000, merged.get("[READ] Return=0") + merged.get("[UPDATE] Return=0"));
+    assertTrue(export.length() > 0);
+  }
+}
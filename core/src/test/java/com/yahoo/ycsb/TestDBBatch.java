@@ -0,0 +1,67 @@
+package com.yahoo.ycsb;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.Vector;
+
+import org.testng.annotations.Test;
+import static org.testng.AssertJUnit.*;
+
+public class TestDBBatch {
+  /** Records the keys of single-key calls, and fails reads and writes of "bad". */
+  static class RecordingDB extends DB {
+    List<String> calls = new ArrayList<String>();
+
+    public int read(String table, String key, Set<String> fields, HashMap<String, ByteIterator> result) {
+      calls.add("read " + key);
+      result.put("field0", new StringByteIterator(key));
+      return key.equals("bad") ? 2 : 0;
+    }
+
+    public int scan(String table, String startkey, int recordcount, Set<String> fields,
+        Vector<HashMap<String, ByteIterator>> result) {
+      return 0;
+    }
+
+    public int update(String table, String key, HashMap<String, ByteIterator> values) {
+      calls.add("update " + key);
+      return key.equals("bad") ? 3 : 0;
+    }
+
+    public int insert(String table, String key, HashMap<String, ByteIterator> values) {
+      calls.add("insert " + key);
+      return key.equals("bad") ? 4 : 0;
+    }
+
+    public int delete(String table, String key) {
+      return 0;
+    }
+  }
+
+  @Test
+  public void testBatchReadFallsBackToReads() {
+    RecordingDB db = new RecordingDB();
+    Vector<HashMap<String, ByteIterator>> result = new Vector<HashMap<String, ByteIterator>>();
+
+    assertEquals(2, db.batchRead("t", Arrays.asList("a", "bad", "c"), null, result));
+    assertEquals(Arrays.asList("read a", "read bad", "read c"), db.calls);
+    assertEquals(3, result.size());
+    assertEquals("c", result.get(2).get("field0").toString());
+  }
+
+  @Test
+  public void testBatchWritesFallBackToSingleWrites() {
+    RecordingDB db = new RecordingDB();
+    List<HashMap<String, ByteIterator>> values = new ArrayList<HashMap<String, ByteIterator>>();
+    for (int i = 0; i < 2; i++) {
+      values.add(new HashMap<String, ByteIterator>());
+    }
+
+    assertEquals(0, db.batchInsert("t", Arrays.asList("a", "b"), values));
+    assertEquals(3, db.batchUpdate("t", Arrays.asList("bad", "b"), values));
+    assertEquals(Arrays.asList("insert a", "insert b", "update bad", "update b"), db.calls);
+  }
+}
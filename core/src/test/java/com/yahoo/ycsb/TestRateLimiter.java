@@ -0,0 +1,119 @@
+/**
+ * Copyright (c) 2026 YCSB contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+package com.yahoo.ycsb;
+
+import static org.testng.AssertJUnit.*;
+
+import org.testng.annotations.Test;
+
+public class TestRateLimiter {
+  /** A clock that only moves when the limiter waits on it, by exactly the time waited. */
+  static class FakeClock implements RateLimiter.Clock {
+    long now = 1000000000L;
+
+    public long nanoTime() {
+      return now;
+    }
+
+    public void parkNanos(long nanos) {
+      now += nanos;
+    }
+  }
+
+  /**
+   * Runs the given number of operations on each of the threads, taking turns one operation at a time in thread
+   * order, and returns the clock time the last one was due at.
+   */
+  private static long run(RateLimiter limiter, int[] ops) {
+    int[] left = ops.clone();
+    long last = 0;
+    for (boolean more = true; more;) {
+      more = false;
+      for (int i = 0; i < left.length; i++) {
+        if (left[i] > 0) {
+          last = limiter.acquire(i, 1);
+          more |= --left[i] > 0;
+        }
+      }
+    }
+    return last;
+  }
+
+  @Test
+  public void testDueTimesAreOneIntervalApart() {
+    FakeClock clock = new FakeClock();
+    RateLimiter limiter = new RateLimiter(1000, 1, false, 0, clock);
+    long first = limiter.acquire(0, 1);
+    assertEquals(clock.now, first);
+    assertEquals(first + 1000000, limiter.acquire(0, 3));
+    assertEquals(first + 4000000, limiter.acquire(0, 1));
+    assertEquals(first + 4000000, clock.now);
+  }
+
+  @Test
+  public void testAggregateTargetHolds() {
+    // 4000 operations at 20000 per second are due 50 us apart, however they are spread over the threads
+    FakeClock clock = new FakeClock();
+    RateLimiter limiter = new RateLimiter(20000, 4, false, 0, clock);
+    long first = clock.now;
+    assertEquals(first + 3999 * 50000L, run(limiter, new int[] {2500, 500, 500, 500}));
+    assertEquals(first + 3999 * 50000L, clock.now);
+  }
+
+  @Test
+  public void testFairShareIsTakenOverFromABlockedThread() {
+    // thread 3 never asks for its share; the others take it over and keep to the whole target, finishing within
+    // two turns of 4500 operations at 50 us rather than taking 300 ms at 3/4 of it
+    FakeClock clock = new FakeClock();
+    RateLimiter limiter = new RateLimiter(20000, 4, true, 0, clock);
+    long first = clock.now;
+    long last = run(limiter, new int[] {1500, 1500, 1500, 0}) - first;
+    assertTrue("last due at " + last + " ns", last >= 4492 * 50000L && last < 4500 * 50000L);
+  }
+
+  @Test
+  public void testFairShareKeepsAThreadToItsShare() {
+    // the other threads are due at 10, 20 and 30 ms, so they are only a whole turn behind after 50 ms
+    FakeClock clock = new FakeClock();
+    RateLimiter limiter = new RateLimiter(100, 4, true, 0, clock);
+    long first = limiter.acquire(0, 1);
+    assertEquals(first + 40000000, limiter.acquire(0, 1));
+  }
+
+  @Test
+  public void testBurstDropsTheRestOfTheBacklog() {
+    // 100 ms behind at 1000 per second: 10 operations catch up at once, and the rest of the backlog is dropped
+    FakeClock clock = new FakeClock();
+    RateLimiter limiter = new RateLimiter(1000, 1, false, 10, clock);
+    long first = limiter.acquire(0, 1);
+    clock.now += 100000000;
+    for (int i = 0; i < 30; i++) {
+      assertEquals(first + (90 + i) * 1000000L, limiter.acquire(0, 1));
+    }
+    assertEquals(first + 119000000, clock.now);
+
+    // without a burst limit, all 99 missed operations are issued back to back
+    clock = new FakeClock();
+    limiter = new RateLimiter(1000, 1, false, 0, clock);
+    first = limiter.acquire(0, 1);
+    clock.now += 100000000;
+    for (int i = 0; i < 30; i++) {
+      assertEquals(first + (1 + i) * 1000000L, limiter.acquire(0, 1));
+    }
+    assertEquals(first + 100000000, clock.now);
+  }
+}
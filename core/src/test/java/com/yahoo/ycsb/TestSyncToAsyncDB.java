@@ -0,0 +1,87 @@
+package com.yahoo.ycsb;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.annotations.Test;
+import static org.testng.AssertJUnit.*;
+
+public class TestSyncToAsyncDB {
+  @Test
+  public void testOperationsCompleteOnWorkers() throws Exception {
+    Properties props = new Properties();
+    props.setProperty(BasicDB.VERBOSE, "false");
+
+    DB[] dbs = new DB[4];
+    for (int i = 0; i < dbs.length; i++) {
+      dbs[i] = new BasicDB();
+    }
+    SyncToAsyncDB db = new SyncToAsyncDB(dbs);
+    db.setProperties(props);
+    db.init();
+
+    final AtomicInteger completed = new AtomicInteger();
+    ArrayList<DBFuture> futures = new ArrayList<DBFuture>();
+    for (int i = 0; i < 100; i++) {
+      DBFuture f = db.read("usertable", "user" + i, null, new HashMap<String, ByteIterator>());
+      f.addListener(new DBFuture.Listener() {
+        public void completed(int result) {
+          completed.incrementAndGet();
+        }
+      });
+      futures.add(f);
+    }
+    for (DBFuture f : futures) {
+      assertEquals(0, f.get().intValue());
+    }
+    db.cleanup();
+
+    assertEquals(100, completed.get());
+  }
+
+  @Test
+  public void testListenerOnCompletedFuture() {
+    final int[] seen = new int[1];
+    DBFuture.completed(3).addListener(new DBFuture.Listener() {
+      public void completed(int result) {
+        seen[0] = result;
+      }
+    });
+    assertEquals(3, seen[0]);
+  }
+
+  @Test
+  public void testSynchronousWorkloadOnAsyncDB() throws Exception {
+    Properties props = new Properties();
+    props.setProperty(BasicDB.VERBOSE, "false");
+    SyncToAsyncDB db = new SyncToAsyncDB(new DB[] { new BasicDB(), new BasicDB() });
+    db.setProperties(props);
+    db.init();
+
+    final AtomicInteger reads = new AtomicInteger();
+    Workload workload = new Workload() {
+      public boolean doInsert(DB db, Object threadstate) {
+        return db.insert("usertable", "user1", new HashMap<String, ByteIterator>()) == 0;
+      }
+
+      public boolean doTransaction(DB db, Object threadstate) {
+        if (reads.get() == 3) {
+          return false;
+        }
+        db.read("usertable", "user" + reads.incrementAndGet(), null, new HashMap<String, ByteIterator>());
+        return true;
+      }
+    };
+
+    assertEquals(0, workload.doInsert(db, null).get().intValue());
+    for (int i = 0; i < 3; i++) {
+      assertEquals(0, workload.doTransaction(db, null).get().intValue());
+    }
+    assertNull(workload.doTransaction(db, null, System.nanoTime()));
+    db.cleanup();
+
+    assertEquals(3, reads.get());
+  }
+}
@@ -0,0 +1,87 @@
+/**
+ * Copyright (c) 2026 YCSB contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+package com.yahoo.ycsb;
+
+import static org.testng.AssertJUnit.*;
+
+import java.io.File;
+import java.io.FileWriter;
+
+import org.testng.annotations.Test;
+
+public class TestTargetSchedule {
+  @Test
+  public void testStepsHoldUntilTheNextPoint() {
+    TargetSchedule s = TargetSchedule.parse("0:1000,60:5000,120:10000", false);
+    assertEquals(1000.0, s.rateAt(0));
+    assertEquals(1000.0, s.rateAt(59999));
+    assertEquals(5000.0, s.rateAt(60000));
+    assertEquals(10000.0, s.rateAt(1000000));
+    assertEquals(60000, s.nextChange(0));
+    assertEquals(120000, s.nextChange(60000));
+    assertEquals(Long.MAX_VALUE, s.nextChange(120000));
+  }
+
+  @Test
+  public void testRampsChangeLinearly() {
+    TargetSchedule s = TargetSchedule.parse("10:1000 20:2000 20:4000 30:4000", true);
+    assertEquals(1000.0, s.rateAt(0));
+    assertEquals(10000, s.nextChange(0));
+    assertEquals(1500.0, s.rateAt(15000));
+    assertEquals(15000 + TargetSchedule.TICK, s.nextChange(15000));
+    assertEquals(20000, s.nextChange(19950));
+    // two points at the same time are a step
+    assertEquals(4000.0, s.rateAt(20000));
+    assertEquals(4000.0, s.rateAt(25000));
+    assertEquals(Long.MAX_VALUE, s.nextChange(30000));
+  }
+
+  @Test
+  public void testScaledScheduleParsesBack() {
+    TargetSchedule s = TargetSchedule.parse("0:1000,1.5:3000", false).scale(1.0 / 3);
+    TargetSchedule t = TargetSchedule.parse(s.toString(), false);
+    assertEquals(1000.0 / 3, t.rateAt(0), 1e-9);
+    assertEquals(1000.0, t.rateAt(1500), 1e-9);
+  }
+
+  @Test
+  public void testScheduleIsReadFromAFile() throws Exception {
+    File f = File.createTempFile("targetschedule", ".txt");
+    f.deleteOnExit();
+    FileWriter w = new FileWriter(f);
+    w.write("# warm the caches\n0:500\n\n30:2000 # then step up\n");
+    w.close();
+    TargetSchedule s = TargetSchedule.load(f.getPath(), false);
+    assertEquals(500.0, s.rateAt(29999));
+    assertEquals(2000.0, s.rateAt(30000));
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void testDecreasingTimesAreRejected() {
+    TargetSchedule.parse("0:1000,60:5000,30:2000", false);
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void testZeroRateIsRejected() {
+    TargetSchedule.parse("0:0", false);
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void testMalformedPointIsRejected() {
+    TargetSchedule.parse("0:1000,60", false);
+  }
+}
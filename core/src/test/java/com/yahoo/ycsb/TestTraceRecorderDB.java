@@ -0,0 +1,267 @@
+/**
+ * Copyright (c) 2026 YCSB contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+package com.yahoo.ycsb;
+
+import static org.testng.AssertJUnit.*;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.Vector;
+
+import org.testng.annotations.Test;
+
+import com.yahoo.ycsb.measurements.Measurements;
+import com.yahoo.ycsb.trace.Trace;
+import com.yahoo.ycsb.trace.TraceReader;
+import com.yahoo.ycsb.trace.TraceRecorder;
+import com.yahoo.ycsb.trace.TraceWriter;
+
+public class TestTraceRecorderDB {
+  static class NullDB extends DB {
+    public int read(String table, String key, Set<String> fields, HashMap<String, ByteIterator> result) {
+      return 0;
+    }
+
+    public int scan(String table, String startkey, int recordcount, Set<String> fields,
+        Vector<HashMap<String, ByteIterator>> result) {
+      return 0;
+    }
+
+    public int update(String table, String key, HashMap<String, ByteIterator> values) {
+      return 0;
+    }
+
+    public int insert(String table, String key, HashMap<String, ByteIterator> values) {
+      return 0;
+    }
+
+    public int delete(String table, String key) {
+      return 0;
+    }
+  }
+
+  /** A binding with its own AsyncDB, whose operations complete at once. */
+  public static class NativeAsyncDB extends AsyncDB {
+    public DBFuture read(String table, String key, Set<String> fields, HashMap<String, ByteIterator> result) {
+      return DBFuture.completed(0);
+    }
+
+    public DBFuture scan(String table, String startkey, int recordcount, Set<String> fields,
+        Vector<HashMap<String, ByteIterator>> result) {
+      return DBFuture.completed(0);
+    }
+
+    public DBFuture update(String table, String key, HashMap<String, ByteIterator> values) {
+      return DBFuture.completed(0);
+    }
+
+    public DBFuture insert(String table, String key, HashMap<String, ByteIterator> values) {
+      return DBFuture.completed(0);
+    }
+
+    public DBFuture delete(String table, String key) {
+      return DBFuture.completed(0);
+    }
+  }
+
+  static HashMap<String, ByteIterator> values(int size, String... fields) {
+    HashMap<String, ByteIterator> values = new HashMap<String, ByteIterator>();
+    for (String f : fields) {
+      values.put(f, new RandomByteIterator(size));
+    }
+    return values;
+  }
+
+  static String describe(Trace.Record r) {
+    return r.thread + " " + r.op + " " + r.key() + " " + Long.toHexString(r.fieldmask) + " " + r.valuesize;
+  }
+
+  /**
+   * Records from two threads through blocks small enough to need the writer thread many times, and checks that
+   * reading the trace back gives every operation with its thread, fields and sizes, in order per thread.
+   */
+  @Test
+  public void testRecordedTraceReadsBack() throws Exception {
+    File f = File.createTempFile("trace", ".bin");
+    f.deleteOnExit();
+    TraceRecorder recorder = new TraceRecorder(f, 256);
+    TraceRecorderDB[] dbs = { new TraceRecorderDB(new NullDB(), recorder), new TraceRecorderDB(new NullDB(), recorder) };
+    Set<String> fields = new HashSet<String>(Arrays.asList("field2", "other"));
+    HashMap<String, ByteIterator> result = new HashMap<String, ByteIterator>();
+    Vector<HashMap<String, ByteIterator>> results = new Vector<HashMap<String, ByteIterator>>();
+
+    List<String> expected = new ArrayList<String>();
+    int n = 200;
+    for (int i = 0; i < n; i++) {
+      for (int t = 0; t < 2; t++) {
+        TraceRecorderDB db = dbs[t];
+        String key = "user" + t + "-" + i;
+        switch (i % 6) {
+        case 0: db.read("t", key, fields, result); expected.add(t + " 0 " + key + " 4 0"); break;
+        case 1: db.read("t", key, null, result); expected.add(t + " 0 " + key + " 0 0"); break;
+        case 2: db.update("t", key, values(10, "field1")); expected.add(t + " 1 " + key + " 2 10"); break;
+        case 3: db.insert("t", key, values(8, "field0", "field1")); expected.add(t + " 2 " + key + " 3 8"); break;
+        case 4: db.scan("t", key, 7, null, results); expected.add(t + " 3 " + key + " 0 7"); break;
+        default:
+          db.batchRead("t", Arrays.asList(key, key + "b"), Collections.singleton("field63"), results);
+          expected.add(t + " 0 " + key + " 8000000000000000 0");
+          expected.add(t + " 0 " + key + "b 8000000000000000 0");
+        }
+      }
+    }
+    dbs[0].delete("t", "gone");
+    expected.add("0 4 gone 0 0");
+    for (TraceRecorderDB db : dbs) {
+      db.cleanup();
+    }
+    recorder.close();
+    assertEquals(expected.size(), recorder.records());
+
+    TraceReader reader = new TraceReader(f);
+    assertTrue(reader.hasTimestamps());
+    assertTrue(reader.hasThreads());
+    TraceReader.Cursor cursor = reader.cursor(0, 1);
+    Trace.Record r = new Trace.Record();
+    List<List<String>> perthread = new ArrayList<List<String>>();
+    perthread.add(new ArrayList<String>());
+    perthread.add(new ArrayList<String>());
+    long[] last = new long[2];
+    while (cursor.next(r)) {
+      perthread.get(r.thread).add(describe(r));
+      assertTrue(r.timestamp >= last[r.thread]);
+      last[r.thread] = r.timestamp;
+    }
+    reader.close();
+
+    List<List<String>> want = new ArrayList<List<String>>();
+    want.add(new ArrayList<String>());
+    want.add(new ArrayList<String>());
+    for (String e : expected) {
+      want.get(e.charAt(0) - '0').add(e);
+    }
+    assertEquals(want, perthread);
+  }
+
+  @Test
+  public void testTraceStartsAtTheFirstOperation() throws Exception {
+    File f = File.createTempFile("trace", ".bin");
+    f.deleteOnExit();
+    TraceRecorder recorder = new TraceRecorder(f, 256);
+    TraceRecorderDB db = new TraceRecorderDB(new NullDB(), recorder);
+    // what the client does between creating the recorder and the first operation is not part of the trace
+    Thread.sleep(50);
+    db.delete("t", "first");
+    Thread.sleep(20);
+    db.delete("t", "second");
+    db.cleanup();
+    recorder.close();
+
+    TraceReader reader = new TraceReader(f);
+    TraceReader.Cursor cursor = reader.cursor(0, 1);
+    Trace.Record r = new Trace.Record();
+    assertTrue(cursor.next(r));
+    assertEquals(0, r.timestamp);
+    assertTrue(cursor.next(r));
+    assertTrue(r.timestamp >= 20000000L);
+    assertFalse(cursor.next(r));
+    reader.close();
+  }
+
+  @Test
+  public void testNativeAsyncDBIsRecorded() throws Exception {
+    File f = File.createTempFile("trace", ".bin");
+    f.deleteOnExit();
+    Properties p = new Properties();
+    p.setProperty(TraceRecorderDB.TRACE_RECORD_PROPERTY, f.getPath());
+    Measurements.setProperties(p);
+    TraceRecorderDB.startRecording(p);
+    AsyncDB db = DBFactory.newAsyncDB(NativeAsyncDB.class.getName(), p, 4);
+    db.init();
+    db.read("t", "a", new HashSet<String>(Arrays.asList("field1")), new HashMap<String, ByteIterator>());
+    db.insert("t", "b", values(10, "field0", "field2"));
+    db.scan("t", "c", 7, null, new Vector<HashMap<String, ByteIterator>>());
+    db.delete("t", "d");
+    db.cleanup();
+    assertEquals(4, TraceRecorderDB.finish());
+
+    TraceReader reader = new TraceReader(f);
+    TraceReader.Cursor cursor = reader.cursor(0, 1);
+    Trace.Record r = new Trace.Record();
+    List<String> read = new ArrayList<String>();
+    while (cursor.next(r)) {
+      read.add(describe(r));
+    }
+    reader.close();
+    assertEquals(Arrays.asList("0 0 a 2 0", "0 2 b 5 10", "0 3 c 0 7", "0 4 d 0 0"), read);
+  }
+
+  /**
+   * Thread ids past the signed short range must read back as written, each as a thread of its own.
+   */
+  @Test
+  public void testHighThreadIdsStayApart() throws Exception {
+    File f = File.createTempFile("trace", ".bin");
+    f.deleteOnExit();
+    int[] ids = {0, 32767, 32768, 65535};
+    TraceWriter w = new TraceWriter(f, Trace.FLAG_TIMESTAMPS | Trace.FLAG_THREADS, 256);
+    for (int i = 0; i < 40; i++) {
+      w.write(i, ids[i % ids.length], Trace.READ, 0L, 0, "user" + i);
+    }
+    w.close();
+
+    TraceReader reader = new TraceReader(f);
+    Trace.Record r = new Trace.Record();
+    for (int part = 0; part < ids.length; part++) {
+      TraceReader.Cursor cursor = reader.cursor(part, ids.length);
+      int count = 0;
+      while (cursor.next(r)) {
+        assertEquals(ids[part], r.thread);
+        assertEquals("user" + (count * ids.length + part), r.key());
+        count++;
+      }
+      assertEquals(10, count);
+    }
+    reader.close();
+  }
+
+  @Test
+  public void testRecorderRefusesMoreThreadsThanATraceHolds() throws Exception {
+    File f = File.createTempFile("trace", ".bin");
+    f.deleteOnExit();
+    TraceRecorder recorder = new TraceRecorder(f, 256);
+    try {
+      for (int i = 0; i < Trace.MAX_THREADS; i++) {
+        assertEquals(i, recorder.newThread());
+      }
+      try {
+        recorder.newThread();
+        fail("a thread id past " + Trace.MAX_THREADS + " would wrap");
+      } catch (IllegalStateException e) {
+        // expected
+      }
+    } finally {
+      recorder.close();
+    }
+  }
+}
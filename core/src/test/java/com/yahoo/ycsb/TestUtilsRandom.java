@@ -0,0 +1,84 @@
+/**
+ * Copyright (c) 2026 YCSB contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+package com.yahoo.ycsb;
+
+import static org.testng.AssertJUnit.*;
+
+import java.util.Properties;
+import java.util.Random;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+public class TestUtilsRandom {
+  @AfterMethod
+  public void restoreDefaults() {
+    Utils.setProperties(new Properties());
+  }
+
+  static long[] draw(Random r) {
+    long[] ret = new long[8];
+    for (int i = 0; i < ret.length; i++) {
+      ret[i] = r.nextLong();
+    }
+    return ret;
+  }
+
+  @Test
+  public void testSeededThreadsRepeatTheirSequence() {
+    Properties p = new Properties();
+    p.setProperty(Utils.RANDOM_SEED_PROPERTY, "42");
+    Utils.setProperties(p);
+
+    Random first = Utils.seedThread(3);
+    assertSame(first, Utils.random());
+    long[] a = draw(first);
+    long[] b = draw(Utils.seedThread(3));
+    long[] c = draw(Utils.seedThread(4));
+
+    for (int i = 0; i < a.length; i++) {
+      assertEquals(a[i], b[i]);
+    }
+    assertFalse(a[0] == c[0]);
+  }
+
+  @Test
+  public void testGeneratorKindIsConfigurable() {
+    assertTrue(Utils.seedThread(0) instanceof XoroshiroRandom);
+
+    Properties p = new Properties();
+    p.setProperty(Utils.RANDOM_PROPERTY, "java");
+    Utils.setProperties(p);
+    assertEquals(Random.class, Utils.seedThread(0).getClass());
+  }
+
+  @Test
+  public void testXoroshiroDrawsStayInRange() {
+    Random r = new XoroshiroRandom(7);
+    int[] buckets = new int[10];
+    for (int i = 0; i < 100000; i++) {
+      double d = r.nextDouble();
+      assertTrue(d >= 0 && d < 1);
+      buckets[(int) (d * 10)]++;
+      int n = r.nextInt(13);
+      assertTrue(n >= 0 && n < 13);
+    }
+    for (int count : buckets) {
+      assertEquals(10000, count, 500);
+    }
+  }
+}
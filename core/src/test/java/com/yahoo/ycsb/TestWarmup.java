@@ -0,0 +1,72 @@
+/**
+ * Copyright (c) 2026 YCSB contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+package com.yahoo.ycsb;
+
+import static org.testng.AssertJUnit.*;
+
+import java.util.Properties;
+
+import org.testng.annotations.Test;
+
+import com.yahoo.ycsb.measurements.Measurements;
+
+public class TestWarmup {
+  /** Thread 0 throws on its first operation; the others do nothing. */
+  static class FailingWorkload extends Workload {
+    public Object initThread(Properties p, int mythreadid, int threadcount) {
+      return mythreadid;
+    }
+
+    public boolean doInsert(DB db, Object threadstate) {
+      return doTransaction(db, threadstate);
+    }
+
+    public boolean doTransaction(DB db, Object threadstate) {
+      if ((Integer) threadstate == 0) {
+        throw new RuntimeException("failing on purpose");
+      }
+      return true;
+    }
+  }
+
+  @Test
+  public void testFailureDuringWarmupReleasesTheOthers() throws Exception {
+    Properties props = new Properties();
+    props.setProperty(BasicDB.VERBOSE, "false");
+    Measurements.setProperties(props);
+
+    Workload workload = new FailingWorkload();
+    Warmup warmup = new Warmup(100, 0, 2);
+    ClientThread[] clients = new ClientThread[2];
+    Thread[] threads = new Thread[2];
+    for (int i = 0; i < 2; i++) {
+      BasicDB db = new BasicDB();
+      db.setProperties(props);
+      clients[i] = new ClientThread(db, true, workload, i, 2, props, 10, null);
+      clients[i].setWarmup(warmup);
+      threads[i] = new Thread(clients[i]);
+      threads[i].start();
+    }
+    for (Thread t : threads) {
+      t.join(10000);
+      assertFalse(t.isAlive());
+    }
+    assertTrue(clients[0].isFailed());
+    assertFalse(clients[1].isFailed());
+    assertEquals(10, clients[1].getOpsDone());
+  }
+}
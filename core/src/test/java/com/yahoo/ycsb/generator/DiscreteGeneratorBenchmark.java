@@ -0,0 +1,129 @@
+/**
+ * Copyright (c) 2026 YCSB contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+package com.yahoo.ycsb.generator;
+
+import java.util.Vector;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.yahoo.ycsb.Utils;
+
+/**
+ * Per-operation cost of choosing a transaction operation: the previous DiscreteGenerator (re-summing the weights of a
+ * Vector and dispatching on the name) against the alias table dispatching on an index. After mvn test-compile, run
+ * java -cp target/test-classes:target/classes:&lt;test classpath&gt; org.openjdk.jmh.Main DiscreteGeneratorBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DiscreteGeneratorBenchmark {
+  static final String[] NAMES = {"READ", "UPDATE", "INSERT", "SCAN", "READMODIFYWRITE"};
+  static final double[] WEIGHTS = {0.5, 0.2, 0.1, 0.15, 0.05};
+
+  /** The linear scan DiscreteGenerator used before the alias table. */
+  static class LinearDiscreteGenerator {
+    static class Pair {
+      double weight;
+      String value;
+
+      Pair(double weight, String value) {
+        this.weight = weight;
+        this.value = value;
+      }
+    }
+
+    Vector<Pair> values = new Vector<Pair>();
+
+    String nextString() {
+      double sum = 0;
+      for (Pair p : values) {
+        sum += p.weight;
+      }
+      double val = Utils.random().nextDouble();
+      for (Pair p : values) {
+        if (val < p.weight / sum) {
+          return p.value;
+        }
+        val -= p.weight / sum;
+      }
+      return null;
+    }
+  }
+
+  LinearDiscreteGenerator linear;
+  DiscreteGenerator alias;
+
+  @Setup
+  public void setup() {
+    linear = new LinearDiscreteGenerator();
+    alias = new DiscreteGenerator();
+    for (int i = 0; i < NAMES.length; i++) {
+      linear.values.add(new LinearDiscreteGenerator.Pair(WEIGHTS[i], NAMES[i]));
+      alias.addValue(WEIGHTS[i], NAMES[i]);
+    }
+  }
+
+  @Benchmark
+  public int linearByName() {
+    String op = linear.nextString();
+    if (op.compareTo("READ") == 0) {
+      return 0;
+    } else if (op.compareTo("UPDATE") == 0) {
+      return 1;
+    } else if (op.compareTo("INSERT") == 0) {
+      return 2;
+    } else if (op.compareTo("SCAN") == 0) {
+      return 3;
+    } else {
+      return 4;
+    }
+  }
+
+  @Benchmark
+  public int aliasByIndex() {
+    switch (alias.nextIndex()) {
+    case 0:
+      return 0;
+    case 1:
+      return 1;
+    case 2:
+      return 2;
+    case 3:
+      return 3;
+    default:
+      return 4;
+    }
+  }
+
+  @Benchmark
+  public double randomOnly() {
+    return Utils.random().nextDouble();
+  }
+}
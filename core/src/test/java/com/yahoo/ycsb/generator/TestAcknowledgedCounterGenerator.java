@@ -0,0 +1,162 @@
+/**
+ * Copyright (c) 2026 YCSB contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+package com.yahoo.ycsb.generator;
+
+import static org.testng.AssertJUnit.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.annotations.Test;
+
+public class TestAcknowledgedCounterGenerator {
+  @Test
+  public void testLimitWaitsForTheOldestUnacknowledgedValue() {
+    AcknowledgedCounterGenerator gen = new AcknowledgedCounterGenerator(10);
+    assertEquals(9, gen.lastLong());
+
+    long a = gen.nextLong();
+    long b = gen.nextLong();
+    long c = gen.nextLong();
+    gen.acknowledge(c);
+    gen.acknowledge(b);
+    assertEquals(9, gen.lastLong());
+
+    gen.acknowledge(a);
+    assertEquals(12, gen.lastLong());
+    assertEquals(13, gen.nextLong());
+  }
+
+  @Test
+  public void testWindowIsReusedAcrossLaps() {
+    AcknowledgedCounterGenerator gen = new AcknowledgedCounterGenerator(0, 16);
+    for (int i = 0; i < 3 * 16; i++) {
+      gen.acknowledge(gen.nextLong());
+    }
+    assertEquals(3 * 16 - 1, gen.lastLong());
+  }
+
+  @Test
+  public void testFullWindowHoldsBackTheNextValue() throws Exception {
+    final AcknowledgedCounterGenerator gen = new AcknowledgedCounterGenerator(0, 3);
+    assertEquals(4, gen.windowsize);
+    for (int i = 0; i < 4; i++) {
+      gen.nextLong();
+    }
+    ExecutorService pool = Executors.newSingleThreadExecutor();
+    try {
+      Future<Long> next = pool.submit(new Callable<Long>() {
+        public Long call() {
+          return gen.nextLong();
+        }
+      });
+      Thread.sleep(50);
+      assertFalse(next.isDone());
+      gen.acknowledge(0);
+      assertEquals(4, next.get(10, TimeUnit.SECONDS).longValue());
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  /**
+   * Issues values on some threads and acknowledges them out of order on others, the way asynchronous inserts
+   * complete, through a window small enough that the issuing threads keep waiting for it.
+   */
+  @Test
+  public void testConcurrentAcknowledgementsNeverSkipAValue() throws Exception {
+    final int windowsize = 64;
+    final AcknowledgedCounterGenerator gen = new AcknowledgedCounterGenerator(0, windowsize);
+    final int issuers = 4;
+    final int ackers = 4;
+    final int ops = 100000;
+    final BlockingQueue<Long> issued = new LinkedBlockingQueue<Long>();
+    final AtomicInteger running = new AtomicInteger(issuers);
+    ExecutorService pool = Executors.newFixedThreadPool(issuers + ackers);
+    try {
+      List<Future<Void>> results = new ArrayList<Future<Void>>();
+      for (int t = 0; t < issuers; t++) {
+        results.add(pool.submit(new Callable<Void>() {
+          public Void call() {
+            try {
+              for (int i = 0; i < ops; i++) {
+                long v = gen.nextLong();
+                long last = gen.lastLong();
+                issued.add(v);
+                assertTrue(last < v);
+                assertTrue(v - windowsize <= last);
+              }
+            } finally {
+              running.decrementAndGet();
+            }
+            return null;
+          }
+        }));
+      }
+      for (int t = 0; t < ackers; t++) {
+        results.add(pool.submit(new Callable<Void>() {
+          public Void call() throws InterruptedException {
+            for (;;) {
+              Long v = issued.poll(1, TimeUnit.MILLISECONDS);
+              if (v != null) {
+                gen.acknowledge(v);
+              } else if (running.get() == 0 && issued.isEmpty()) {
+                return null;
+              }
+            }
+          }
+        }));
+      }
+      for (Future<Void> f : results) {
+        f.get();
+      }
+    } finally {
+      pool.shutdown();
+    }
+    assertEquals((long) issuers * ops - 1, gen.lastLong());
+  }
+
+  @Test
+  public void testStrideTakesEveryNthValue() {
+    AcknowledgedCounterGenerator gen = new AcknowledgedCounterGenerator(10, 16, 1, 3);
+    assertEquals(9, gen.lastLong());
+
+    long a = gen.nextLong();
+    long b = gen.nextLong();
+    long c = gen.nextLong();
+    assertEquals(11, a);
+    assertEquals(14, b);
+    assertEquals(17, c);
+    gen.acknowledge(b);
+    assertEquals(9, gen.lastLong());
+    gen.acknowledge(a);
+    assertEquals(14, gen.lastLong());
+    gen.acknowledge(c);
+    assertEquals(17, gen.lastLong());
+
+    // the loaded records below the first value of offset 0 stay readable
+    assertEquals(9, new AcknowledgedCounterGenerator(10, 16, 0, 3).lastLong());
+  }
+}
@@ -0,0 +1,56 @@
+/**
+ * Copyright (c) 2026 YCSB contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+package com.yahoo.ycsb.generator;
+
+import static org.testng.AssertJUnit.*;
+
+import org.testng.annotations.Test;
+
+public class TestDiscreteGenerator {
+  @Test
+  public void testFrequenciesFollowWeights() {
+    double[] weights = {0.5, 0.2, 0.0, 0.25, 0.05};
+    DiscreteGenerator gen = new DiscreteGenerator();
+    for (int i = 0; i < weights.length; i++) {
+      gen.addValue(weights[i], "v" + i);
+    }
+
+    int draws = 1000000;
+    int[] counts = new int[weights.length];
+    for (int i = 0; i < draws; i++) {
+      counts[gen.nextIndex()]++;
+    }
+    for (int i = 0; i < weights.length; i++) {
+      assertEquals(weights[i], counts[i] / (double) draws, 0.005);
+    }
+    assertEquals(0, counts[2]);
+  }
+
+  @Test
+  public void testNextStringReturnsAddedValues() {
+    DiscreteGenerator gen = new DiscreteGenerator();
+    gen.addValue(3, "only");
+    assertEquals("only", gen.nextString());
+
+    gen.addValue(1, "other");
+    boolean sawother = false;
+    for (int i = 0; i < 1000 && !sawother; i++) {
+      sawother = gen.nextString().equals("other");
+    }
+    assertTrue(sawother);
+  }
+}
@@ -0,0 +1,66 @@
+/**
+ * Copyright (c) 2026 YCSB contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+package com.yahoo.ycsb.generator;
+
+import static org.testng.AssertJUnit.*;
+
+import org.testng.annotations.Test;
+
+public class TestShiftingHotspotGenerator {
+  static ShiftingHotspotGenerator generator(ShiftingHotspotGenerator.Shift shift) {
+    // Every value from the hot set, which is the first 10 of 1000 ranks.
+    IntegerGenerator ranks = new HotspotIntegerGenerator(0, 999, 0.01, 1.0);
+    return new ShiftingHotspotGenerator(ranks, 0, 999, shift, ShiftingHotspotGenerator.Clock.OPS, 10000);
+  }
+
+  @Test
+  public void testOffsets() {
+    ShiftingHotspotGenerator slide = generator(ShiftingHotspotGenerator.Shift.SLIDE);
+    assertEquals(0, slide.offset(0));
+    assertEquals(250, slide.offset(2500));
+    assertEquals(0, slide.offset(10000));
+    assertEquals(100, slide.offset(31000));
+
+    ShiftingHotspotGenerator jump = generator(ShiftingHotspotGenerator.Shift.JUMP);
+    assertEquals(0, jump.offset(9999));
+    assertEquals(jump.offset(10000), jump.offset(19999));
+    assertTrue(jump.offset(10000) != jump.offset(20000));
+
+    ShiftingHotspotGenerator diurnal = generator(ShiftingHotspotGenerator.Shift.DIURNAL);
+    assertEquals(0, diurnal.offset(0));
+    assertEquals(500, diurnal.offset(5000));
+    assertEquals(250, diurnal.offset(2500), 1);
+    assertEquals(diurnal.offset(2500), diurnal.offset(7500), 1);
+    assertEquals(0, diurnal.offset(10000));
+  }
+
+  /**
+   * Draws values through half a period of a sliding hotspot and checks that they follow the hot region.
+   */
+  @Test
+  public void testHotRegionSlides() {
+    ShiftingHotspotGenerator g = generator(ShiftingHotspotGenerator.Shift.SLIDE);
+    for (int i = 0; i < 5000; i++) {
+      int v = g.nextInt();
+      assertEquals(v, g.lastInt());
+      // The op clock lags by at most one batch, and the hot set is 10 wide.
+      int ops = i + 1;
+      int lo = (ops - ShiftingHotspotGenerator.OPS_BATCH) / 10;
+      assertTrue("value " + v + " at op " + ops, v >= lo && v < ops / 10 + 10);
+    }
+  }
+}
@@ -0,0 +1,190 @@
+/**
+ * Copyright (c) 2026 YCSB contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+package com.yahoo.ycsb.generator;
+
+import static org.testng.AssertJUnit.*;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+public class TestZipfianGenerator {
+  @AfterMethod
+  public void restoreDefaults() {
+    ZipfianGenerator.setProperties(new Properties());
+  }
+
+  /** The tolerance covers the rounding error of the term-by-term sum, which is larger than that of the approximation. */
+  @Test
+  public void testApproximationMatchesExactSum() {
+    for (double theta : new double[] {0.1, 0.5, 0.99, 0.9999999, 1.0, 1.5}) {
+      for (long n : new long[] {1025, 5000, 2000000}) {
+        double exact = ZipfianGenerator.zetaexact(0, n, theta);
+        assertEquals(exact, ZipfianGenerator.zetaapproximate(0, n, theta), exact * 1e-12);
+      }
+      double exact = ZipfianGenerator.zetaexact(3000, 1000000, theta);
+      assertEquals(exact, ZipfianGenerator.zetaapproximate(3000, 1000000, theta), exact * 1e-12);
+    }
+  }
+
+  @Test
+  public void testApproximationMatchesPrecomputedZeta() {
+    double zetan = ZipfianGenerator.zetastatic(ScrambledZipfianGenerator.ITEM_COUNT, ScrambledZipfianGenerator.USED_ZIPFIAN_CONSTANT);
+    assertEquals(ScrambledZipfianGenerator.ZETAN, zetan, 1e-9);
+  }
+
+  @Test
+  public void testParallelSumMatchesExactSum() {
+    Properties p = new Properties();
+    p.setProperty(ZipfianGenerator.ZETA_PROPERTY, "parallel");
+    ZipfianGenerator.setProperties(p);
+
+    long n = 5 * ZipfianGenerator.PARALLEL_TERMS + 17;
+    double exact = ZipfianGenerator.zetaexact(0, n, 0.8);
+    assertEquals(exact, ZipfianGenerator.zetastatic(n, 0.8), exact * 1e-12);
+  }
+
+  @Test
+  public void testExactValuesAreCachedOnDisk() throws Exception {
+    File dir = File.createTempFile("zetacache", "");
+    dir.delete();
+    Properties p = new Properties();
+    p.setProperty(ZipfianGenerator.ZETA_PROPERTY, "exact");
+    p.setProperty(ZipfianGenerator.ZETA_CACHE_PROPERTY, dir.getPath());
+    ZipfianGenerator.setProperties(p);
+
+    double zetan = ZipfianGenerator.zetastatic(100000, 0.7);
+    ZetaCache cache = new ZetaCache(dir);
+    assertEquals(zetan, cache.get(100000, 0.7));
+
+    cache.put(100000, 0.7, 42.0);
+    assertEquals(42.0, ZipfianGenerator.zetastatic(100000, 0.7));
+    assertTrue(Double.isNaN(cache.get(100000, 0.6)));
+
+    for (File f : dir.listFiles()) {
+      f.delete();
+    }
+    dir.delete();
+  }
+
+  /** Runs the task on several threads at once and fails if any of them does. */
+  private static void runConcurrently(int threads, Callable<Void> task) throws Exception {
+    ExecutorService pool = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<Void>> results = new ArrayList<Future<Void>>();
+      for (int i = 0; i < threads; i++) {
+        results.add(pool.submit(task));
+      }
+      for (Future<Void> f : results) {
+        f.get();
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  public void testItemCountGrowingUnderManyThreads() throws Exception {
+    final ZipfianGenerator gen = new ZipfianGenerator(100, 1099);
+    final AtomicLong count = new AtomicLong(1000);
+    runConcurrently(8, new Callable<Void>() {
+      public Void call() {
+        for (int i = 0; i < 20000; i++) {
+          long n = (i % 4 == 0) ? count.incrementAndGet() : count.get();
+          long v = gen.nextLong(n);
+          assertTrue("value " + v + " outside [100, " + (100 + n) + ")", v >= 100 && v < 100 + n);
+        }
+        return null;
+      }
+    });
+
+    long n = count.get();
+    gen.nextLong(n);
+    double zetan = ZipfianGenerator.zetastatic(n, ZipfianGenerator.ZIPFIAN_CONSTANT);
+    assertEquals(n, gen.zeta.count);
+    assertEquals(zetan, gen.zeta.zetan, zetan * 1e-12);
+  }
+
+  @Test
+  public void testLastValue() {
+    IntegerGenerator gen = new UniformIntegerGenerator(0, Long.MAX_VALUE - 1);
+    for (int i = 0; i < 1000; i++) {
+      long v = gen.nextLong();
+      assertEquals(v, gen.lastLong());
+      assertEquals("" + v, gen.lastString());
+    }
+  }
+
+  @Test
+  public void testCounterLastValueIsShared() throws Exception {
+    final CounterGenerator basis = new CounterGenerator(0);
+    runConcurrently(4, new Callable<Void>() {
+      public Void call() {
+        for (int i = 0; i < 100000; i++) {
+          assertTrue(basis.nextLong() <= basis.lastLong());
+        }
+        return null;
+      }
+    });
+    assertEquals(4 * 100000 - 1, basis.lastLong());
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void testUnknownModeIsRejected() {
+    Properties p = new Properties();
+    p.setProperty(ZipfianGenerator.ZETA_PROPERTY, "guess");
+    ZipfianGenerator.setProperties(p);
+  }
+
+  @Test
+  public void testDrawsFromGivenRandom() {
+    IntegerGenerator[] gens = {
+        new ZipfianGenerator(1000),
+        new ScrambledZipfianGenerator(1000),
+        new UniformIntegerGenerator(0, 999),
+        new HotspotIntegerGenerator(0, 999, 0.2, 0.8),
+        new ExponentialGenerator(95, 1000),
+    };
+    for (IntegerGenerator g : gens) {
+      Random a = new Random(42);
+      Random b = new Random(42);
+      for (int i = 0; i < 100; i++) {
+        assertEquals(g.getClass().getName(), g.nextLong(a), g.nextLong(b));
+      }
+    }
+
+    DiscreteGenerator d = new DiscreteGenerator();
+    d.addValue(0.5, "a");
+    d.addValue(0.3, "b");
+    d.addValue(0.2, "c");
+    Random a = new Random(42);
+    Random b = new Random(42);
+    for (int i = 0; i < 100; i++) {
+      assertEquals(d.nextIndex(a), d.nextIndex(b));
+    }
+  }
+}
@@ -0,0 +1,88 @@
+package com.yahoo.ycsb.measurements;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.util.Map;
+import java.util.Properties;
+
+import org.HdrHistogram.Histogram;
+import org.testng.annotations.Test;
+import static org.testng.AssertJUnit.*;
+
+public class TestIntervalLog {
+  static Map<String, Histogram> replay(File f, long start, long end) throws Exception {
+    BufferedReader in = new BufferedReader(new FileReader(f));
+    try {
+      return IntervalLogReplay.replay(in, start, end, null);
+    } finally {
+      in.close();
+    }
+  }
+
+  @Test
+  public void testReplayWindows() throws Exception {
+    File f = File.createTempFile("intervallog", ".log");
+    f.deleteOnExit();
+    Properties props = new Properties();
+    props.setProperty(IntervalLog.FILE, f.getPath());
+    IntervalLog log = new IntervalLog(props);
+
+    for (int i = 1; i <= 100; i++) {
+      log.measure("READ", i);
+    }
+    // the second interval must not start in the same ms as the first
+    Thread.sleep(20);
+    log.flush();
+    for (int i = 1; i <= 100; i++) {
+      log.measure("READ", 1000 + i);
+      log.measure("UPDATE", i);
+    }
+    log.close();
+
+    Map<String, Histogram> all = replay(f, 0, Long.MAX_VALUE);
+    assertEquals(200, all.get("READ").getTotalCount());
+    assertEquals(100, all.get("UPDATE").getTotalCount());
+    assertEquals(1100, all.get("READ").getMaxValue());
+
+    Map<String, Histogram> first = replay(f, 0, 1);
+    assertEquals(100, first.get("READ").getTotalCount());
+    assertEquals(100, first.get("READ").getMaxValue());
+    assertNull(first.get("UPDATE"));
+  }
+
+  @Test
+  public void testReplayByTarget() throws Exception {
+    File f = File.createTempFile("intervallog", ".log");
+    f.deleteOnExit();
+    Properties props = new Properties();
+    props.setProperty(IntervalLog.FILE, f.getPath());
+    IntervalLog log = new IntervalLog(props);
+
+    // an interval is tagged with the target that held for the longest part of it
+    log.setTarget(1000);
+    log.measure("READ", 10);
+    Thread.sleep(30);
+    log.setTarget(5000);
+    log.flush();
+    log.measure("READ", 50);
+    log.measure("READ", 60);
+    log.close();
+
+    BufferedReader in = new BufferedReader(new FileReader(f));
+    try {
+      Map<String, Histogram> at1000 = IntervalLogReplay.replay(in, 0, Long.MAX_VALUE, null, 1000);
+      assertEquals(1, at1000.get("READ").getTotalCount());
+      assertEquals(10, at1000.get("READ").getMaxValue());
+    } finally {
+      in.close();
+    }
+    in = new BufferedReader(new FileReader(f));
+    try {
+      Map<String, Histogram> at5000 = IntervalLogReplay.replay(in, 0, Long.MAX_VALUE, null, 5000);
+      assertEquals(2, at5000.get("READ").getTotalCount());
+    } finally {
+      in.close();
+    }
+  }
+}
@@ -0,0 +1,142 @@
+package com.yahoo.ycsb.measurements;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Properties;
+
+import org.testng.annotations.Test;
+import static org.testng.AssertJUnit.*;
+
+import com.yahoo.ycsb.measurements.exporter.TextMeasurementsExporter;
+
+public class TestMeasurements {
+  @Test
+  public void testShardsAreMergedOnExport() throws Exception {
+    final Measurements m = new Measurements(new Properties());
+    final int threads = 4;
+    final int ops = 1000;
+
+    Thread[] workers = new Thread[threads];
+    for (int i = 0; i < threads; i++) {
+      final int latency = (i + 1) * 1000;
+      workers[i] = new Thread() {
+        public void run() {
+          for (int j = 0; j < ops; j++) {
+            m.measure("READ", latency);
+            m.reportReturnCode("READ", 0);
+          }
+        }
+      };
+      workers[i].start();
+    }
+    for (Thread t : workers) {
+      t.join();
+    }
+
+    assertEquals(threads, m.shards.get("READ").size());
+
+    OneMeasurementHistogram h = (OneMeasurementHistogram) m.snapshot("READ");
+    assertEquals(threads * ops, h.operations);
+    assertEquals(1000, h.min);
+    assertEquals(threads * 1000, h.max);
+    assertEquals(threads * ops, h.returncodes.get(0)[0]);
+    for (int i = 1; i <= threads; i++) {
+      assertEquals(ops, h.histogram[i]);
+    }
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    TextMeasurementsExporter exporter = new TextMeasurementsExporter(out);
+    m.exportMeasurements(exporter);
+    exporter.close();
+    assertTrue(out.toString().contains("[READ], Operations, " + (threads * ops)));
+  }
+
+  @Test
+  public void testSummaryOnlyCoversWindow() {
+    Measurements m = new Measurements(new Properties());
+    m.measure("UPDATE", 100);
+    assertEquals("[UPDATE AverageLatency(us)=100] ", m.getSummary());
+    assertEquals(" ", m.getSummary());
+    m.measure("UPDATE", 300);
+    assertEquals("[UPDATE AverageLatency(us)=300] ", m.getSummary());
+  }
+
+  @Test
+  public void testRetiredShardsAreKept() throws Exception {
+    final Measurements m = new Measurements(new Properties());
+    final int threads = 4;
+    final int ops = 1000;
+
+    m.measure("READ", 1000);
+    assertEquals("[READ AverageLatency(us)=1000] ", m.getSummary());
+
+    Thread[] workers = new Thread[threads];
+    for (int i = 0; i < threads; i++) {
+      workers[i] = new Thread() {
+        public void run() {
+          for (int j = 0; j < ops; j++) {
+            m.measure("READ", 3000);
+          }
+          m.retireThread();
+        }
+      };
+      workers[i].start();
+    }
+    for (Thread t : workers) {
+      t.join();
+    }
+
+    //only the shard of the thread that has not retired is left
+    assertEquals(1, m.shards.get("READ").size());
+
+    OneMeasurementHistogram h = (OneMeasurementHistogram) m.snapshot("READ");
+    assertEquals(threads * ops + 1, h.operations);
+    assertEquals(1000, h.min);
+    assertEquals(3000, h.max);
+    assertEquals("[READ AverageLatency(us)=3000] ", m.getSummary());
+
+    m.retireThread();
+    assertEquals(0, m.shards.get("READ").size());
+    assertEquals(threads * ops + 1, ((OneMeasurementHistogram) m.snapshot("READ")).operations);
+  }
+
+  @Test
+  public void testHdrHistogramShardsFoldIntoTheRetiredAggregate() throws Exception {
+    Properties props = new Properties();
+    props.setProperty("measurementtype", "hdrhistogram");
+    final Measurements m = new Measurements(props);
+    final int threads = 4;
+    final int ops = 20000;
+
+    Thread[] workers = new Thread[threads];
+    for (int i = 0; i < threads; i++) {
+      workers[i] = new Thread() {
+        public void run() {
+          for (int j = 0; j < ops; j++) {
+            m.measure("READ", 100);
+          }
+        }
+      };
+      workers[i].start();
+    }
+    long last = 0;
+    for (boolean running = true; running;) {
+      running = false;
+      for (Thread t : workers) {
+        running |= t.isAlive();
+      }
+      long count = ((OneMeasurementHdrHistogram) m.snapshot("READ")).histogram.getTotalCount();
+      assertTrue(count >= last);
+      assertTrue(count <= threads * ops);
+      last = count;
+    }
+    for (Thread t : workers) {
+      t.join();
+    }
+
+    for (OneMeasurement shard : m.shards.get("READ")) {
+      assertNull(((OneMeasurementHdrHistogram) shard).histogram);
+    }
+    assertEquals(threads * ops, ((OneMeasurementHdrHistogram) m.snapshot("READ")).histogram.getTotalCount());
+    assertEquals(threads * ops, ((OneMeasurementHdrHistogram) m.snapshot("READ")).histogram.getTotalCount());
+  }
+}
@@ -0,0 +1,81 @@
+package com.yahoo.ycsb.measurements;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Properties;
+
+import org.testng.annotations.Test;
+import static org.testng.AssertJUnit.*;
+
+import com.yahoo.ycsb.measurements.exporter.TextMeasurementsExporter;
+
+public class TestOneMeasurementHdrHistogram {
+  @Test
+  public void testPercentileLabels() {
+    assertEquals("50thPercentileLatency(us)", OneMeasurementHdrHistogram.percentileLabel(50));
+    assertEquals("99.9thPercentileLatency(us)", OneMeasurementHdrHistogram.percentileLabel(99.9));
+    assertEquals("1stPercentileLatency(us)", OneMeasurementHdrHistogram.percentileLabel(1));
+    assertEquals("11thPercentileLatency(us)", OneMeasurementHdrHistogram.percentileLabel(11));
+  }
+
+  @Test
+  public void testSubMillisecondPercentiles() throws Exception {
+    Properties props = new Properties();
+    props.setProperty(OneMeasurementHdrHistogram.PERCENTILES, "50,99");
+    OneMeasurementHdrHistogram a = new OneMeasurementHdrHistogram("READ", props);
+    OneMeasurementHdrHistogram b = new OneMeasurementHdrHistogram("READ", props);
+    for (int i = 1; i <= 500; i++) {
+      a.measure(i);
+      b.measure(500 + i);
+    }
+    OneMeasurementHdrHistogram merged = new OneMeasurementHdrHistogram("READ", props);
+    merged.merge(a);
+    merged.merge(b);
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    TextMeasurementsExporter exporter = new TextMeasurementsExporter(out);
+    merged.exportMeasurements(exporter);
+    exporter.close();
+    String text = out.toString();
+    assertTrue(text, text.contains("[READ], Operations, 1000"));
+    assertTrue(text, text.contains("[READ], 50thPercentileLatency(us), 500"));
+    assertTrue(text, text.contains("[READ], 99thPercentileLatency(us), 990"));
+    assertTrue(text, text.contains("[READ], MaxLatency(us), 1000"));
+  }
+
+  @Test
+  public void testMergeWhileRecording() throws Exception {
+    final Properties props = new Properties();
+    final OneMeasurementHdrHistogram shard = new OneMeasurementHdrHistogram("READ", props);
+    final int ops = 200000;
+
+    Thread writer = new Thread() {
+      public void run() {
+        for (int i = 0; i < ops; i++) {
+          shard.measure(100);
+        }
+      }
+    };
+    writer.start();
+
+    long last = 0;
+    while (writer.isAlive()) {
+      OneMeasurementHdrHistogram merged = new OneMeasurementHdrHistogram("READ", props);
+      merged.merge(shard);
+      long count = merged.histogram.getTotalCount();
+      assertTrue(count >= last);
+      assertTrue(count <= ops);
+      last = count;
+    }
+    writer.join();
+
+    OneMeasurementHdrHistogram merged = new OneMeasurementHdrHistogram("READ", props);
+    merged.merge(shard);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    TextMeasurementsExporter exporter = new TextMeasurementsExporter(out);
+    merged.exportMeasurements(exporter);
+    exporter.close();
+    String text = out.toString();
+    assertTrue(text, text.contains("[READ], Operations, " + ops + "\n"));
+    assertTrue(text, text.contains("[READ], MaxLatency(us), 100\n"));
+  }
+}
@@ -0,0 +1,111 @@
+/**
+ * Copyright (c) 2026 YCSB contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+package com.yahoo.ycsb.workloads;
+
+import static org.testng.AssertJUnit.*;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Properties;
+import java.util.Set;
+import java.util.Vector;
+
+import org.testng.annotations.Test;
+
+import com.yahoo.ycsb.ByteIterator;
+import com.yahoo.ycsb.Client;
+import com.yahoo.ycsb.DB;
+import com.yahoo.ycsb.DBWrapper;
+import com.yahoo.ycsb.measurements.Measurements;
+
+public class TestCoreWorkloadAllocation {
+  /** Reads every value it is given and returns nothing. */
+  static class DrainingDB extends DB {
+    static void drain(HashMap<String, ByteIterator> values) {
+      for (ByteIterator v : values.values()) {
+        while (v.hasNext()) {
+          v.nextByte();
+        }
+      }
+    }
+
+    public int read(String table, String key, Set<String> fields, HashMap<String, ByteIterator> result) {
+      return 0;
+    }
+
+    public int scan(String table, String startkey, int recordcount, Set<String> fields,
+        Vector<HashMap<String, ByteIterator>> result) {
+      return 0;
+    }
+
+    public int update(String table, String key, HashMap<String, ByteIterator> values) {
+      drain(values);
+      return 0;
+    }
+
+    public int insert(String table, String key, HashMap<String, ByteIterator> values) {
+      drain(values);
+      return 0;
+    }
+
+    public int delete(String table, String key) {
+      return 0;
+    }
+  }
+
+  static long allocatedBytes() {
+    return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getThreadAllocatedBytes(Thread.currentThread().getId());
+  }
+
+  /**
+   * Runs a mix of every operation through the DB wrapper and checks that, once warmed up, the only allocation left
+   * per operation is about the size of the key string.
+   */
+  @Test
+  public void testTransactionsOnlyAllocateKeys() throws Exception {
+    Properties p = new Properties();
+    p.setProperty(Client.RECORD_COUNT_PROPERTY, "100000");
+    p.setProperty(Client.OPERATION_COUNT_PROPERTY, "1000000");
+    p.setProperty(CoreWorkload.READ_PROPORTION_PROPERTY, "0.4");
+    p.setProperty(CoreWorkload.UPDATE_PROPORTION_PROPERTY, "0.2");
+    p.setProperty(CoreWorkload.INSERT_PROPORTION_PROPERTY, "0.1");
+    p.setProperty(CoreWorkload.SCAN_PROPORTION_PROPERTY, "0.1");
+    p.setProperty(CoreWorkload.READMODIFYWRITE_PROPORTION_PROPERTY, "0.2");
+    p.setProperty(CoreWorkload.REQUEST_DISTRIBUTION_PROPERTY, "zipfian");
+    Measurements.setProperties(p);
+
+    CoreWorkload workload = new CoreWorkload();
+    workload.init(p);
+    DBWrapper db = new DBWrapper(new DrainingDB());
+    db.setProperties(p);
+    db.init();
+    Object state = workload.initThread(p, 0, 1);
+
+    for (int i = 0; i < 200000; i++) {
+      workload.doTransaction(db, state);
+    }
+
+    int ops = 200000;
+    long before = allocatedBytes();
+    for (int i = 0; i < ops; i++) {
+      workload.doTransaction(db, state);
+    }
+    long perop = (allocatedBytes() - before) / ops;
+
+    assertTrue("allocated " + perop + " bytes per operation", perop < 96);
+  }
+}
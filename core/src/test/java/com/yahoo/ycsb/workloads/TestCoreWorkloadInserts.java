@@ -0,0 +1,133 @@
+/**
+ * Copyright (c) 2026 YCSB contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+package com.yahoo.ycsb.workloads;
+
+import static org.testng.AssertJUnit.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.Vector;
+
+import org.testng.annotations.Test;
+
+import com.yahoo.ycsb.ByteIterator;
+import com.yahoo.ycsb.Client;
+import com.yahoo.ycsb.DB;
+import com.yahoo.ycsb.Workload;
+
+public class TestCoreWorkloadInserts {
+  /** Collects the keys it is asked to insert. */
+  static class KeyDB extends DB {
+    final List<String> keys = new ArrayList<String>();
+
+    public int read(String table, String key, Set<String> fields, HashMap<String, ByteIterator> result) {
+      return 0;
+    }
+
+    public int scan(String table, String startkey, int recordcount, Set<String> fields,
+        Vector<HashMap<String, ByteIterator>> result) {
+      return 0;
+    }
+
+    public int update(String table, String key, HashMap<String, ByteIterator> values) {
+      return 0;
+    }
+
+    public int insert(String table, String key, HashMap<String, ByteIterator> values) {
+      keys.add(key);
+      return 0;
+    }
+
+    public int delete(String table, String key) {
+      return 0;
+    }
+  }
+
+  /**
+   * Loads with one range per thread, single and batched, and checks that each thread inserts exactly its own
+   * contiguous range in ascending order and then reports that it is done.
+   */
+  @Test
+  public void testPartitionedInsertsAreContiguousPerThread() throws Exception {
+    for (String batchsize : new String[] {"1", "4"}) {
+      Properties p = new Properties();
+      p.setProperty(Client.RECORD_COUNT_PROPERTY, "1000");
+      p.setProperty(Client.INSERT_COUNT_PROPERTY, "30");
+      p.setProperty(CoreWorkload.INSERT_START_PROPERTY, "100");
+      p.setProperty(CoreWorkload.INSERT_ORDER_PROPERTY, "ordered");
+      p.setProperty(CoreWorkload.INSERT_PARTITION_PROPERTY, "thread");
+      p.setProperty(CoreWorkload.BATCH_SIZE_PROPERTY, batchsize);
+      CoreWorkload workload = new CoreWorkload();
+      workload.init(p);
+
+      int threads = 3;
+      for (int t = 0; t < threads; t++) {
+        KeyDB db = new KeyDB();
+        Object state = workload.initThread(p, t, threads);
+        while (workload.doInsertBatch(db, state, Integer.MAX_VALUE) > 0) {
+        }
+        assertFalse(workload.doInsert(db, state));
+
+        List<String> expected = new ArrayList<String>();
+        for (int i = 0; i < 10; i++) {
+          expected.add(workload.buildKeyName(100 + t * 10 + i));
+        }
+        assertEquals(expected, db.keys);
+      }
+    }
+  }
+
+  /**
+   * Runs the transaction phase inserts of two clients sharing a table, as the Coordinator assigns them, and checks
+   * that between them they insert each new record once.
+   */
+  @Test
+  public void testInterleavedTransactionInsertsAreDisjoint() throws Exception {
+    int clients = 2;
+    int inserts = 20;
+    Set<String> all = new HashSet<String>();
+    List<String> expected = new ArrayList<String>();
+    for (int c = 0; c < clients; c++) {
+      Properties p = new Properties();
+      p.setProperty(Client.RECORD_COUNT_PROPERTY, "1000");
+      p.setProperty(CoreWorkload.READ_PROPORTION_PROPERTY, "0");
+      p.setProperty(CoreWorkload.UPDATE_PROPORTION_PROPERTY, "0");
+      p.setProperty(CoreWorkload.INSERT_PROPORTION_PROPERTY, "1");
+      p.setProperty(Workload.TRANSACTION_INSERT_OFFSET_PROPERTY, "" + c);
+      p.setProperty(Workload.TRANSACTION_INSERT_STRIDE_PROPERTY, "" + clients);
+      CoreWorkload workload = new CoreWorkload();
+      workload.init(p);
+
+      KeyDB db = new KeyDB();
+      Object state = workload.initThread(p, 0, 1);
+      for (int i = 0; i < inserts; i++) {
+        assertTrue(workload.doTransaction(db, state));
+      }
+      for (int i = 0; i < inserts; i++) {
+        expected.add(workload.buildKeyName(1000 + i * clients + c));
+      }
+      all.addAll(db.keys);
+      assertEquals(inserts, db.keys.size());
+    }
+    assertEquals(clients * inserts, all.size());
+    assertEquals(new HashSet<String>(expected), all);
+  }
+}
@@ -0,0 +1,92 @@
+/**
+ * Copyright (c) 2026 YCSB contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+package com.yahoo.ycsb.workloads;
+
+import static org.testng.AssertJUnit.*;
+
+import java.util.HashMap;
+import java.util.Properties;
+import java.util.Set;
+import java.util.Vector;
+
+import org.testng.annotations.Test;
+
+import com.yahoo.ycsb.ByteIterator;
+import com.yahoo.ycsb.Client;
+import com.yahoo.ycsb.DB;
+
+public class TestCoreWorkloadKeyspace {
+  static final long RECORDS = 10000000000L;
+
+  /** Tracks the range of record numbers it is asked to read. */
+  static class RangeDB extends DB {
+    long min = Long.MAX_VALUE;
+    long max = Long.MIN_VALUE;
+
+    public int read(String table, String key, Set<String> fields, HashMap<String, ByteIterator> result) {
+      long keynum = Long.parseLong(key.substring(4));
+      min = Math.min(min, keynum);
+      max = Math.max(max, keynum);
+      return 0;
+    }
+
+    public int scan(String table, String startkey, int recordcount, Set<String> fields,
+        Vector<HashMap<String, ByteIterator>> result) {
+      return 0;
+    }
+
+    public int update(String table, String key, HashMap<String, ByteIterator> values) {
+      return 0;
+    }
+
+    public int insert(String table, String key, HashMap<String, ByteIterator> values) {
+      return 0;
+    }
+
+    public int delete(String table, String key) {
+      return 0;
+    }
+  }
+
+  /**
+   * Chooses keys from a table of ten billion records with every request distribution, and checks that they
+   * reach past the int range without leaving the table.
+   */
+  @Test
+  public void testKeysBeyondIntRange() throws Exception {
+    for (String distribution : new String[] {"uniform", "zipfian", "latest", "hotspot", "slidinghotspot"}) {
+      Properties p = new Properties();
+      p.setProperty(Client.RECORD_COUNT_PROPERTY, "" + RECORDS);
+      p.setProperty(Client.OPERATION_COUNT_PROPERTY, "" + RECORDS);
+      p.setProperty(CoreWorkload.READ_PROPORTION_PROPERTY, "1");
+      p.setProperty(CoreWorkload.UPDATE_PROPORTION_PROPERTY, "0");
+      p.setProperty(CoreWorkload.INSERT_ORDER_PROPERTY, "ordered");
+      p.setProperty(CoreWorkload.REQUEST_DISTRIBUTION_PROPERTY, distribution);
+      CoreWorkload workload = new CoreWorkload();
+      workload.init(p);
+      Object state = workload.initThread(p, 0, 1);
+
+      RangeDB db = new RangeDB();
+      for (int i = 0; i < 10000; i++) {
+        workload.doTransaction(db, state);
+      }
+      assertTrue(distribution + " chose " + db.min, db.min >= 0);
+      assertTrue(distribution + " chose " + db.max, db.max < RECORDS);
+      assertTrue(distribution + " stayed below " + db.max, db.max > Integer.MAX_VALUE);
+    }
+  }
+}
@@ -0,0 +1,255 @@
+/**
+ * Copyright (c) 2026 YCSB contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+package com.yahoo.ycsb.workloads;
+
+import static org.testng.AssertJUnit.*;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.Vector;
+
+import org.testng.annotations.Test;
+
+import com.yahoo.ycsb.ByteIterator;
+import com.yahoo.ycsb.DB;
+import com.yahoo.ycsb.trace.Trace;
+import com.yahoo.ycsb.trace.TraceWriter;
+
+public class TestTraceReplayWorkload {
+  /** Records each call as "op key detail". */
+  static class RecordingDB extends DB {
+    final List<String> calls = new ArrayList<String>();
+
+    static String fields(Set<String> fields) {
+      return fields == null ? "all" : new TreeSet<String>(fields).toString();
+    }
+
+    static String values(HashMap<String, ByteIterator> values) {
+      StringBuilder sb = new StringBuilder();
+      for (String f : new TreeSet<String>(values.keySet())) {
+        sb.append(f).append('=').append(values.get(f).toArray().length).append(' ');
+      }
+      return sb.toString().trim();
+    }
+
+    public int read(String table, String key, Set<String> fields, HashMap<String, ByteIterator> result) {
+      calls.add("read " + key + " " + fields(fields));
+      return 0;
+    }
+
+    public int scan(String table, String startkey, int recordcount, Set<String> fields,
+        Vector<HashMap<String, ByteIterator>> result) {
+      calls.add("scan " + startkey + " " + recordcount + " " + fields(fields));
+      return 0;
+    }
+
+    public int update(String table, String key, HashMap<String, ByteIterator> values) {
+      calls.add("update " + key + " " + values(values));
+      return 0;
+    }
+
+    public int insert(String table, String key, HashMap<String, ByteIterator> values) {
+      calls.add("insert " + key + " " + values(values));
+      return 0;
+    }
+
+    public int delete(String table, String key) {
+      calls.add("delete " + key);
+      return 0;
+    }
+  }
+
+  static String expected(int i) {
+    switch (i % 5) {
+    case 0: return "read user" + i + " [field1, field3]";
+    case 1: return "update user" + i + " field0=" + i;
+    case 2: return "insert user" + i + " field0=7 field1=7";
+    case 3: return "scan user" + i + " 5 all";
+    default: return "delete user" + i;
+    }
+  }
+
+  static void write(TraceWriter w, int i) throws Exception {
+    switch (i % 5) {
+    case 0: w.write(i * 1000L, 0, Trace.READ, 0xaL, 0, "user" + i); break;
+    case 1: w.write(i * 1000L, 0, Trace.UPDATE, 1L, i, "user" + i); break;
+    case 2: w.write(i * 1000L, 0, Trace.INSERT, 0L, 7, "user" + i); break;
+    case 3: w.write(i * 1000L, 0, Trace.SCAN, 0L, 5, "user" + i); break;
+    default: w.write(i * 1000L, 0, Trace.DELETE, 0L, 0, "user" + i);
+    }
+  }
+
+  /**
+   * Writes a trace spread over many small blocks and checks that three threads together replay every record
+   * exactly once, each thread in trace order.
+   */
+  @Test
+  public void testPartitionedReplay() throws Exception {
+    File f = File.createTempFile("trace", ".bin");
+    f.deleteOnExit();
+    int n = 1000;
+    TraceWriter w = new TraceWriter(f, Trace.FLAG_TIMESTAMPS, 256);
+    for (int i = 0; i < n; i++) {
+      write(w, i);
+    }
+    w.close();
+    assertEquals(n, w.records());
+
+    Properties p = new Properties();
+    p.setProperty(TraceReplayWorkload.TRACE_FILE_PROPERTY, f.getPath());
+    p.setProperty(CoreWorkload.FIELD_COUNT_PROPERTY, "2");
+    TraceReplayWorkload workload = new TraceReplayWorkload();
+    workload.init(p);
+
+    List<String> all = new ArrayList<String>();
+    int threads = 3;
+    for (int t = 0; t < threads; t++) {
+      RecordingDB db = new RecordingDB();
+      Object state = workload.initThread(p, t, threads);
+      while (workload.doTransaction(db, state)) {
+      }
+      assertFalse(db.calls.isEmpty());
+      int last = -1;
+      for (String call : db.calls) {
+        int i = Integer.parseInt(call.split(" ")[1].substring(4));
+        assertTrue(i > last);
+        last = i;
+        assertEquals(expected(i), call);
+      }
+      all.addAll(db.calls);
+    }
+    workload.cleanup();
+    assertEquals(n, all.size());
+  }
+
+  /**
+   * Writes the trace of four recorded threads in runs of blocks that are out of time order across threads, and
+   * checks that each of three replay threads gets whole recorded threads and replays them in timestamp order.
+   */
+  @Test
+  public void testReplayByRecordedThread() throws Exception {
+    File f = File.createTempFile("trace", ".bin");
+    f.deleteOnExit();
+    int recorded = 4;
+    int run = 20;
+    int n = 400;
+    TraceWriter w = new TraceWriter(f, Trace.FLAG_TIMESTAMPS | Trace.FLAG_THREADS, 256);
+    for (int start = 0; start < n / recorded; start += run) {
+      for (int t = recorded - 1; t >= 0; t--) {
+        for (int j = start; j < start + run; j++) {
+          int i = j * recorded + t;
+          w.write(i * 1000L, t, Trace.READ, 0L, 0, "user" + i);
+        }
+      }
+    }
+    w.close();
+
+    Properties p = new Properties();
+    p.setProperty(TraceReplayWorkload.TRACE_FILE_PROPERTY, f.getPath());
+    p.setProperty(CoreWorkload.VALUE_POOL_SIZE_PROPERTY, "4096");
+    TraceReplayWorkload workload = new TraceReplayWorkload();
+    workload.init(p);
+
+    int total = 0;
+    int threads = 3;
+    for (int part = 0; part < threads; part++) {
+      RecordingDB db = new RecordingDB();
+      Object state = workload.initThread(p, part, threads);
+      while (workload.doTransaction(db, state)) {
+      }
+      int last = -1;
+      for (String call : db.calls) {
+        int i = Integer.parseInt(call.split(" ")[1].substring(4));
+        assertTrue(i > last);
+        assertEquals(part, (i % recorded) % threads);
+        last = i;
+      }
+      assertEquals((part == 0) ? 2 * n / recorded : n / recorded, db.calls.size());
+      total += db.calls.size();
+    }
+    workload.cleanup();
+    assertEquals(n, total);
+  }
+
+  /**
+   * Replays operations 30 ms apart with the original timing, and checks that each is issued no earlier than its
+   * offset from the start of the replay, and without idling before the first.
+   */
+  @Test
+  public void testOriginalTimingKeepsTheGaps() throws Exception {
+    File f = File.createTempFile("trace", ".bin");
+    f.deleteOnExit();
+    int n = 4;
+    long gap = 30000000L;
+    TraceWriter w = new TraceWriter(f, Trace.FLAG_TIMESTAMPS);
+    for (int i = 0; i < n; i++) {
+      w.write(i * gap, 0, Trace.DELETE, 0L, 0, "user" + i);
+    }
+    w.close();
+
+    Properties p = new Properties();
+    p.setProperty(TraceReplayWorkload.TRACE_FILE_PROPERTY, f.getPath());
+    p.setProperty(TraceReplayWorkload.TRACE_TIMING_PROPERTY, "original");
+    p.setProperty(CoreWorkload.VALUE_POOL_SIZE_PROPERTY, "4096");
+    TraceReplayWorkload workload = new TraceReplayWorkload();
+    workload.init(p);
+
+    final List<Long> times = new ArrayList<Long>();
+    RecordingDB db = new RecordingDB() {
+      public int delete(String table, String key) {
+        times.add(System.nanoTime());
+        return super.delete(table, key);
+      }
+    };
+    Object state = workload.initThread(p, 0, 1);
+    long st = System.nanoTime();
+    while (workload.doTransaction(db, state)) {
+    }
+    workload.cleanup();
+
+    assertEquals(n, times.size());
+    assertTrue(times.get(0) - st < gap);
+    for (int i = 1; i < n; i++) {
+      long since = times.get(i) - st;
+      assertTrue("operation " + i + " after " + since + " ns", since >= i * gap && since < i * gap + 500000000L);
+    }
+  }
+
+  @Test
+  public void testOriginalTimingNeedsTimestamps() throws Exception {
+    File f = File.createTempFile("trace", ".bin");
+    f.deleteOnExit();
+    TraceWriter w = new TraceWriter(f, 0);
+    w.write(0, 0, Trace.READ, 0L, 0, "user1");
+    w.close();
+
+    Properties p = new Properties();
+    p.setProperty(TraceReplayWorkload.TRACE_FILE_PROPERTY, f.getPath());
+    p.setProperty(TraceReplayWorkload.TRACE_TIMING_PROPERTY, "original");
+    try {
+      new TraceReplayWorkload().init(p);
+      fail("replaying a trace without timestamps with original timing should fail");
+    } catch (com.yahoo.ycsb.WorkloadException e) {
+      // expected
+    }
+  }
+}
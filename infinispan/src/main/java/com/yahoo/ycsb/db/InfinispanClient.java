@@ -113,7 +113,7 @@ public class InfinispanClient extends DB {
             row.clear();
             StringByteIterator.putAllAsStrings(row, values);
          } else {
-            infinispanManager.getCache(table).put(key, values);
+            infinispanManager.getCache(table).put(key, StringByteIterator.getStringMap(values));
          }
 
          return OK;